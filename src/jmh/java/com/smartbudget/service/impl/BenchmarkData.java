@@ -0,0 +1,91 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.Transaction;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.repository.projection.CategoryTotal;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic fixtures shared by the benchmarks: one user with a spread of categories
+ * and transactions over several years, shaped like the rows the repositories return.
+ */
+final class BenchmarkData {
+
+    static final int CATEGORIES = 40;
+    static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setEmail("benchmark@example.com");
+        return user;
+    }
+
+    static List<Category> categories(User user, int count) {
+        List<Category> categories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Category category = new Category();
+            category.setId((long) i + 1);
+            category.setUser(user);
+            category.setName("Category " + i);
+            category.setType(i % 5 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            category.setColor("#FF5733");
+            category.setDescription("Benchmark category " + i);
+            category.setIsDefault(i < 10);
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    static List<Transaction> transactions(int count) {
+        User user = user();
+        List<Category> categories = categories(user, CATEGORIES);
+        Random random = new Random(42);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Category category = i % 10 == 0 ? null : categories.get(random.nextInt(CATEGORIES));
+            Transaction t = new Transaction();
+            t.setId((long) i + 1);
+            t.setUser(user);
+            t.setCategory(category);
+            t.setAmount(BigDecimal.valueOf(random.nextInt(1_000_000) + 1, 2));
+            t.setType(category != null ? category.getType() : TransactionType.EXPENSE);
+            t.setDescription("Transaction " + i);
+            t.setNotes(i % 3 == 0 ? "Paid by card" : null);
+            t.setTransactionDate(FIRST_DAY.plusDays(random.nextInt(5 * 365)));
+            transactions.add(t);
+        }
+        return transactions;
+    }
+
+    /**
+     * The grouped rollup rows the summary query returns for the given transactions.
+     */
+    static List<CategoryTotal> categoryTotals(List<Transaction> transactions) {
+        Map<List<Object>, CategoryTotal> totals = new LinkedHashMap<>();
+        for (Transaction t : transactions) {
+            Category category = t.getCategory();
+            List<Object> key = Arrays.asList(t.getType(), category != null ? category.getId() : null);
+            totals.merge(key,
+                    new CategoryTotal(t.getType(), category != null ? category.getId() : null,
+                            category != null ? category.getName() : null, t.getAmount(), 1L),
+                    (a, b) -> new CategoryTotal(a.type(), a.categoryId(), a.categoryName(),
+                            a.amount().add(b.amount()), a.count() + b.count()));
+        }
+        return new ArrayList<>(totals.values());
+    }
+}
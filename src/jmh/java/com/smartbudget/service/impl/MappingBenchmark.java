@@ -0,0 +1,64 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.CategoryDto;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of full result lists, as done by the list endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MappingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<Transaction> transactions;
+    private List<Category> categories;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactions = BenchmarkData.transactions(size);
+        categories = BenchmarkData.categories(BenchmarkData.user(), size);
+    }
+
+    @Benchmark
+    public List<TransactionDto> transactionToDto() {
+        List<TransactionDto> dtos = new ArrayList<>(transactions.size());
+        for (Transaction t : transactions) {
+            dtos.add(TransactionServiceImpl.toDto(t));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<CategoryDto> categoryToDto() {
+        List<CategoryDto> dtos = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            dtos.add(CategoryServiceImpl.toDto(category));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,78 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.entity.Transaction;
+import com.smartbudget.entity.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-category expense breakdown over every transaction of a period: a new BigDecimal per row
+ * ({@code bigDecimalReducing}) against cent sums in MoneyAccumulator ({@code centAccumulator}),
+ * and the rollup delta of a batch import. Compare gc.alloc.rate.norm (bytes per operation)
+ * reported by the gc profiler alongside the average time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MoneyAggregationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<Transaction> transactions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactions = BenchmarkData.transactions(size);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> bigDecimalReducing() {
+        return transactions.stream()
+                .filter(t -> t.getType() == TransactionType.EXPENSE && t.getCategory() != null)
+                .collect(Collectors.groupingBy(t -> t.getCategory().getName(),
+                        Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> centAccumulator() {
+        Map<String, MoneyAccumulator> sums = new HashMap<>();
+        for (Transaction t : transactions) {
+            if (t.getType() == TransactionType.EXPENSE && t.getCategory() != null) {
+                sums.computeIfAbsent(t.getCategory().getName(), name -> new MoneyAccumulator()).add(t.getAmount());
+            }
+        }
+        Map<String, BigDecimal> breakdown = new HashMap<>(sums.size() * 4 / 3 + 1);
+        sums.forEach((name, sum) -> breakdown.put(name, sum.toBigDecimal()));
+        return breakdown;
+    }
+
+    @Benchmark
+    public Map<RollupDelta.Key, RollupDelta.Change> rollupDelta() {
+        RollupDelta delta = new RollupDelta();
+        for (Transaction t : transactions) {
+            delta.add(t);
+        }
+        return delta.getChanges();
+    }
+}
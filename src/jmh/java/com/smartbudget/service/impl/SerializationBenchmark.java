@@ -0,0 +1,83 @@
+package com.smartbudget.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson serialization of response bodies, configured like the Spring MVC message converter.
+ * Output goes to a counting sink so buffer growth does not skew the numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<TransactionDto> transactions;
+    private SummaryDto summary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Transaction> entities = BenchmarkData.transactions(size);
+        transactions = entities.stream().map(TransactionServiceImpl::toDto).collect(Collectors.toList());
+        summary = TransactionServiceImpl.toSummary(1L, BenchmarkData.FIRST_DAY, BenchmarkData.FIRST_DAY.plusYears(5),
+                BenchmarkData.categoryTotals(entities));
+    }
+
+    @Benchmark
+    public long transactionList() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, transactions);
+        return out.count;
+    }
+
+    @Benchmark
+    public long summary() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, summary);
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.entity.Transaction;
+import com.smartbudget.repository.projection.CategoryTotal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Summary assembly. {@code fromRollups} is what getSummary does with the grouped rollup rows;
+ * {@code groupingByBreakdown} is the former in-memory breakdown over every transaction of the
+ * period (income and expenses alike, as it was computed), kept as the baseline the rollups are measured against.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SummaryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<Transaction> transactions;
+    private List<CategoryTotal> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactions = BenchmarkData.transactions(size);
+        rows = BenchmarkData.categoryTotals(transactions);
+    }
+
+    @Benchmark
+    public SummaryDto fromRollups() {
+        return TransactionServiceImpl.toSummary(1L, BenchmarkData.FIRST_DAY, BenchmarkData.FIRST_DAY.plusYears(5), rows);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> groupingByBreakdown() {
+        return transactions.stream()
+                .filter(t -> t.getCategory() != null)
+                .collect(Collectors.groupingBy(t -> t.getCategory().getName(),
+                        Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+    }
+}
@@ -0,0 +1,107 @@
+package com.smartbudget.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource that lets at most a fixed number of connections be checked out at once.
+ * Sized to the connection pool, it makes callers wait on a fair semaphore instead of inside the
+ * pool, which matters when the number of request threads is no longer bounded (virtual threads).
+ * The permit is released when the connection is closed.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrency, Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Saturation of the limiter: free permits and callers waiting for one.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbudget.jdbc.permits.available", permits, Semaphore::availablePermits)
+                .description("JDBC permits that can be taken without waiting")
+                .register(registry);
+        Gauge.builder("smartbudget.jdbc.permits.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a JDBC permit")
+                .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No JDBC permit available within " + acquireTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC permit", e);
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
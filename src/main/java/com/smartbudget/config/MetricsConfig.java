@@ -0,0 +1,21 @@
+package com.smartbudget.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Micrometer setup shared by all meters. Meters are tagged by operation (URI template,
+ * repository method, Hibernate region) only; a per-user tag would create a time series per user.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    /**
+     * Drops user-identifying tags, should any instrumentation add them.
+     */
+    @Bean
+    public MeterFilter dropUserTags() {
+        return MeterFilter.ignoreTags("userId", "user_id");
+    }
+}
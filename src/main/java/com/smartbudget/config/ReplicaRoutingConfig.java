@@ -0,0 +1,94 @@
+package com.smartbudget.config;
+
+import com.smartbudget.service.impl.ReadYourWrites;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to the replicas listed in {@code smartbudget.replicas.urls} by
+ * replacing the application DataSource with a {@link ReplicaRoutingDataSource} around it. Each
+ * replica gets its own read-only pool; credentials default to those of the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("'${smartbudget.replicas.urls:}' != ''")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public static BeanPostProcessor replicaRouting(Environment environment, ObjectProvider<ReadYourWrites> readYourWrites) {
+        return new RoutingPostProcessor(environment, readYourWrites);
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            ReplicaRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource.getIfAvailable(), ReplicaRoutingDataSource.class);
+            if (routing != null) {
+                routing.bindTo(registry);
+            }
+        };
+    }
+
+    // runs after the other DataSource post-processors (e.g. the JDBC concurrency limiter), so it wraps their result
+    private static final class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+        private final ObjectProvider<ReadYourWrites> readYourWrites;
+
+        private RoutingPostProcessor(Environment environment, ObjectProvider<ReadYourWrites> readYourWrites) {
+            this.environment = environment;
+            this.readYourWrites = readYourWrites;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource primary) || !"dataSource".equals(beanName)) {
+                return bean;
+            }
+            List<DataSource> replicas = new ArrayList<>();
+            String[] urls = StringUtils.commaDelimitedListToStringArray(environment.getProperty("smartbudget.replicas.urls"));
+            for (int i = 0; i < urls.length; i++) {
+                replicas.add(replica(urls[i].trim(), i));
+            }
+            Duration retryAfter = environment.getProperty("smartbudget.replicas.retry-after", Duration.class, Duration.ofSeconds(30));
+            return new ReplicaRoutingDataSource(primary, replicas, retryAfter,
+                    () -> readYourWrites.getObject().isPrimaryRequired());
+        }
+
+        private DataSource replica(String url, int index) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .username(environment.getProperty("smartbudget.replicas.username", environment.getProperty("spring.datasource.username")))
+                    .password(environment.getProperty("smartbudget.replicas.password", environment.getProperty("spring.datasource.password")))
+                    .build();
+            pool.setPoolName("replica-" + index);
+            pool.setReadOnly(true);
+            pool.setMaximumPoolSize(environment.getProperty("smartbudget.replicas.maximum-pool-size", Integer.class, 10));
+            pool.setConnectionTimeout(environment.getProperty("smartbudget.replicas.connection-timeout", Duration.class,
+                    Duration.ofSeconds(2)).toMillis());
+            // a replica that is down at startup must not stop the application; reads use the primary meanwhile
+            pool.setInitializationFailTimeout(-1);
+            return pool;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.smartbudget.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+
+/**
+ * DataSource that sends read-only transactions to read replicas and everything else to the primary.
+ * <p>
+ * Connections are handed out lazily and only fetched from the primary or a replica at the first
+ * statement, when the transaction manager has already marked the transaction read-only. Replicas
+ * are used round-robin; a replica that fails to hand out a connection is skipped for
+ * {@code retryAfter}, and reads fall back to the primary while no replica is available. Reads
+ * for which {@code primaryRequired} holds (a user that just wrote) stay on the primary, as do
+ * connections requested with explicit credentials.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final Router router;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration retryAfter,
+                                    BooleanSupplier primaryRequired) {
+        this.router = new Router(primary, List.copyOf(replicas), retryAfter, primaryRequired);
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Replicas currently taking reads.
+     */
+    int availableReplicas() {
+        return router.availableReplicas();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbudget.jdbc.replicas.available", router, Router::availableReplicas)
+                .description("Read replicas currently taking read-only transactions")
+                .register(registry);
+        router.replicaReads = Counter.builder("smartbudget.jdbc.reads").tag("target", "replica")
+                .description("Read-only transactions by the database that served them")
+                .register(registry);
+        router.primaryReads = Counter.builder("smartbudget.jdbc.reads").tag("target", "primary")
+                .description("Read-only transactions by the database that served them")
+                .register(registry);
+    }
+
+    /**
+     * Closes the replica pools and the primary, which this DataSource replaces as the application's bean.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : router.replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (router.primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static final class Router extends AbstractDataSource {
+
+        private final DataSource primary;
+        private final List<DataSource> replicas;
+        private final long retryAfterNanos;
+        private final BooleanSupplier primaryRequired;
+        private final AtomicInteger next = new AtomicInteger();
+        // System.nanoTime() until which each replica is skipped; 0 while healthy
+        private final AtomicLongArray unavailableUntil;
+        private volatile Counter replicaReads;
+        private volatile Counter primaryReads;
+
+        private Router(DataSource primary, List<DataSource> replicas, Duration retryAfter, BooleanSupplier primaryRequired) {
+            this.primary = primary;
+            this.replicas = replicas;
+            this.retryAfterNanos = retryAfter.toNanos();
+            this.primaryRequired = primaryRequired;
+            this.unavailableUntil = new AtomicLongArray(replicas.size());
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+                return primary.getConnection();
+            }
+            if (!primaryRequired.getAsBoolean()) {
+                int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+                for (int i = 0; i < replicas.size(); i++) {
+                    int index = (start + i) % replicas.size();
+                    Connection connection = tryReplica(index);
+                    if (connection != null) {
+                        increment(replicaReads);
+                        return connection;
+                    }
+                }
+            }
+            increment(primaryReads);
+            return primary.getConnection();
+        }
+
+        // explicit credentials are the primary's; the replica pools only hand out their configured ones
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return primary.getConnection(username, password);
+        }
+
+        private Connection tryReplica(int index) {
+            long until = unavailableUntil.get(index);
+            if (until != 0 && System.nanoTime() - until < 0) {
+                return null;
+            }
+            try {
+                Connection connection = replicas.get(index).getConnection();
+                if (until != 0 && unavailableUntil.compareAndSet(index, until, 0)) {
+                    log.info("Read replica {} is available again", index);
+                }
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                unavailableUntil.set(index, System.nanoTime() + retryAfterNanos);
+                log.warn("Read replica {} failed, reading from the other replicas or the primary: {}", index, e.getMessage());
+                return null;
+            }
+        }
+
+        private int availableReplicas() {
+            long now = System.nanoTime();
+            int available = 0;
+            for (int i = 0; i < replicas.size(); i++) {
+                long until = unavailableUntil.get(i);
+                if (until == 0 || now - until >= 0) {
+                    available++;
+                }
+            }
+            return available;
+        }
+
+        private static void increment(Counter counter) {
+            if (counter != null) {
+                counter.increment();
+            }
+        }
+
+        // unwrapping (e.g. to the pool for its metrics) reaches the primary
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return iface.isInstance(this) ? (T) this : primary.unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return iface.isInstance(this) || primary.isWrapperFor(iface);
+        }
+    }
+}
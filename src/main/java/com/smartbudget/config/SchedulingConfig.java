@@ -0,0 +1,12 @@
+package com.smartbudget.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled maintenance jobs.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,95 @@
+package com.smartbudget.controller;
+
+import com.smartbudget.dto.BudgetAlertDto;
+import com.smartbudget.dto.BudgetStatusDto;
+import com.smartbudget.dto.CategoryBudgetDto;
+import com.smartbudget.service.BudgetService;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * REST Controller for monthly category budgets, their status and threshold alerts.
+ */
+@RestController
+@RequestMapping("/api/budgets")
+@Validated
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    public BudgetController(BudgetService budgetService) {
+        this.budgetService = budgetService;
+    }
+
+    /**
+     * Create the monthly budget of a category (at most one per category).
+     *
+     * @param budgetDto the category and its monthly limit
+     * @return ResponseEntity with created budget and 201 status
+     */
+    @PostMapping
+    public ResponseEntity<CategoryBudgetDto> createBudget(
+            @Valid @RequestBody CategoryBudgetDto budgetDto) {
+        CategoryBudgetDto created = budgetService.save(budgetDto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * Get the status of a user's budgets in a month: limit, spend so far and percentage used.
+     *
+     * @param userId the user ID
+     * @param month the month (format: yyyy-MM, default: the current month)
+     * @return list of budget statuses, ordered by category name
+     */
+    @GetMapping
+    public ResponseEntity<List<BudgetStatusDto>> getBudgetStatus(
+            @RequestParam Long userId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(budgetService.findStatusByUserId(userId, month != null ? month : YearMonth.now()));
+    }
+
+    /**
+     * Get the latest budget alerts of a user (80% and 100% of a monthly limit reached), newest first.
+     *
+     * @param userId the user ID
+     * @return list of at most 100 alerts
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<List<BudgetAlertDto>> getBudgetAlerts(@RequestParam Long userId) {
+        return ResponseEntity.ok(budgetService.findAlertsByUserId(userId));
+    }
+
+    /**
+     * Change the monthly limit of a budget.
+     *
+     * @param id the budget ID
+     * @param budgetDto the budget with its new limit
+     * @return ResponseEntity with updated budget
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<CategoryBudgetDto> updateBudget(
+            @PathVariable Long id,
+            @Valid @RequestBody CategoryBudgetDto budgetDto) {
+        budgetDto.setId(id);
+        return ResponseEntity.ok(budgetService.save(budgetDto));
+    }
+
+    /**
+     * Delete a budget with its spend history and alerts. The category and its transactions are kept.
+     *
+     * @param id the budget ID
+     * @return ResponseEntity with 204 No Content
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteBudget(@PathVariable Long id) {
+        budgetService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,11 +2,13 @@ package com.smartbudget.controller;
 
 import com.smartbudget.dto.CategoryDto;
 import com.smartbudget.service.CategoryService;
+import com.smartbudget.service.ChangeVersionService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,9 +21,11 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final ChangeVersionService changeVersionService;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, ChangeVersionService changeVersionService) {
         this.categoryService = categoryService;
+        this.changeVersionService = changeVersionService;
     }
 
     /**
@@ -53,13 +57,15 @@ public class CategoryController {
      * Get all categories for a specific user.
      *
      * @param userId the user ID
-     * @return list of categories
+     * @param request the request, for If-None-Match
+     * @return list of categories, or 304 if the user's data is unchanged
      */
     @GetMapping
     public ResponseEntity<List<CategoryDto>> getCategoriesByUser(
-            @RequestParam Long userId) {
-        List<CategoryDto> categories = categoryService.findAllByUserId(userId);
-        return ResponseEntity.ok(categories);
+            @RequestParam Long userId,
+            WebRequest request) {
+        return ConditionalGet.ifChanged(changeVersionService, request, userId,
+                version -> categoryService.findAllByUserId(userId));
     }
 
     /**
@@ -79,7 +85,7 @@ public class CategoryController {
     }
 
     /**
-     * Delete a category.
+     * Delete a category. Its transactions are kept and become uncategorized.
      *
      * @param id the category ID
      * @return ResponseEntity with 204 No Content
@@ -89,4 +95,19 @@ public class CategoryController {
         categoryService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Merge a category into another one of the same user and type: its transactions are moved
+     * to the target category and the category is deleted.
+     *
+     * @param id the ID of the category to merge away
+     * @param into the ID of the category that receives the transactions
+     * @return ResponseEntity with the target category
+     */
+    @PostMapping("/{id}/merge")
+    public ResponseEntity<CategoryDto> mergeCategory(
+            @PathVariable Long id,
+            @RequestParam Long into) {
+        return ResponseEntity.ok(categoryService.merge(id, into));
+    }
 }
@@ -0,0 +1,57 @@
+package com.smartbudget.controller;
+
+import com.smartbudget.service.ChangeVersionService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.LongFunction;
+
+/**
+ * Conditional GET for the per-user read endpoints. The strong ETag is the user's change version,
+ * so a request whose If-None-Match still holds it gets 304 Not Modified after one lookup of the
+ * version, without running the read. Tomcat weakens the ETag of compressed responses; clients
+ * send it back as W/"..." and it still matches (If-None-Match compares weakly).
+ */
+final class ConditionalGet {
+
+    // caches may store the response but must revalidate it before every use
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    static <T> ResponseEntity<T> ifChanged(ChangeVersionService versions, WebRequest request, Long userId, LongFunction<T> read) {
+        ChangeVersionService.Versioned<T> result = versions.readIfChanged(userId, version -> matches(request, etag(version)), read);
+        String etag = etag(result.version());
+        if (result.value() == null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL).body(result.value());
+    }
+
+    static String etag(long version) {
+        return "\"v" + version + "\"";
+    }
+
+    private static boolean matches(WebRequest request, String etag) {
+        String[] headers = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (headers == null) {
+            return false;
+        }
+        for (String header : headers) {
+            for (String candidate : header.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,78 @@
+package com.smartbudget.controller;
+
+import com.smartbudget.dto.RecurringRuleDto;
+import com.smartbudget.service.RecurringRuleService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for recurring transaction rules. Their transactions are created by the scheduler.
+ */
+@RestController
+@RequestMapping("/api/recurring-rules")
+@Validated
+public class RecurringRuleController {
+
+    private final RecurringRuleService recurringRuleService;
+
+    public RecurringRuleController(RecurringRuleService recurringRuleService) {
+        this.recurringRuleService = recurringRuleService;
+    }
+
+    /**
+     * Create a recurring rule (DAILY, WEEKLY, MONTHLY or CRON). A start date in the past creates
+     * the missed occurrences on the next scheduler run.
+     *
+     * @param ruleDto the schedule and the transaction to create on each occurrence
+     * @return ResponseEntity with created rule and 201 status
+     */
+    @PostMapping
+    public ResponseEntity<RecurringRuleDto> createRule(
+            @Valid @RequestBody RecurringRuleDto ruleDto) {
+        RecurringRuleDto created = recurringRuleService.save(ruleDto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * Get all recurring rules of a user.
+     *
+     * @param userId the user ID
+     * @return list of rules with their last and next run dates, ordered by ID
+     */
+    @GetMapping
+    public ResponseEntity<List<RecurringRuleDto>> getRules(@RequestParam Long userId) {
+        return ResponseEntity.ok(recurringRuleService.findAllByUserId(userId));
+    }
+
+    /**
+     * Update a recurring rule. Occurrences already created are kept.
+     *
+     * @param id the rule ID
+     * @param ruleDto the new schedule and transaction
+     * @return ResponseEntity with updated rule
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<RecurringRuleDto> updateRule(
+            @PathVariable Long id,
+            @Valid @RequestBody RecurringRuleDto ruleDto) {
+        ruleDto.setId(id);
+        return ResponseEntity.ok(recurringRuleService.save(ruleDto));
+    }
+
+    /**
+     * Delete a recurring rule. The transactions it created are kept.
+     *
+     * @param id the rule ID
+     * @return ResponseEntity with 204 No Content
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long id) {
+        recurringRuleService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,15 +1,32 @@
 package com.smartbudget.controller;
 
+import com.smartbudget.dto.SummaryCacheStatsDto;
 import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.dto.TimeSeriesDto;
+import com.smartbudget.dto.TransactionBatchResultDto;
+import com.smartbudget.dto.TransactionBulkRequestDto;
+import com.smartbudget.dto.TransactionBulkResultDto;
+import com.smartbudget.dto.TransactionChangesDto;
 import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.dto.TransactionPageDto;
+import com.smartbudget.service.ChangeVersionService;
+import com.smartbudget.service.ExportFormat;
+import com.smartbudget.service.SummaryStreamService;
+import com.smartbudget.service.TimeSeriesGranularity;
+import com.smartbudget.service.TransactionExportService;
 import com.smartbudget.service.TransactionService;
+import com.smartbudget.service.TransactionSyncService;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -23,9 +40,19 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final ChangeVersionService changeVersionService;
+    private final TransactionSyncService transactionSyncService;
+    private final SummaryStreamService summaryStreamService;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TransactionExportService transactionExportService,
+                                 ChangeVersionService changeVersionService, TransactionSyncService transactionSyncService,
+                                 SummaryStreamService summaryStreamService) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+        this.changeVersionService = changeVersionService;
+        this.transactionSyncService = transactionSyncService;
+        this.summaryStreamService = summaryStreamService;
     }
 
     /**
@@ -41,6 +68,20 @@ public class TransactionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * Create many transactions in one request (e.g. a bank export).
+     * Every row is validated on its own; valid rows are created even if others are rejected.
+     *
+     * @param transactionDtos the transactions to create (at most 10,000)
+     * @return ResponseEntity with the per-row results
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<TransactionBatchResultDto> createTransactions(
+            @RequestBody List<TransactionDto> transactionDtos) {
+        TransactionBatchResultDto result = transactionService.saveBatch(transactionDtos);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Get a transaction by ID.
      *
@@ -54,33 +95,82 @@ public class TransactionController {
     }
 
     /**
-     * Get all transactions for the authenticated user.
+     * Get transactions for the authenticated user, newest first, one page at a time.
      *
      * @param userId the user ID (passed as query param or from auth context)
-     * @return list of transactions
+     * @param cursor the nextCursor of the previous page (omit for the first page)
+     * @param limit the page size (default 50, capped at 500)
+     * @param request the request, for If-None-Match
+     * @return a page of transactions with the cursor of the next page, or 304 if the user's data is unchanged
      */
     @GetMapping
-    public ResponseEntity<List<TransactionDto>> getAllTransactions(
-            @RequestParam Long userId) {
-        List<TransactionDto> transactions = transactionService.findAllByUserId(userId);
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<TransactionPageDto> getAllTransactions(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return ConditionalGet.ifChanged(changeVersionService, request, userId,
+                version -> transactionService.findPageByUserId(userId, cursor, limit));
     }
 
     /**
-     * Get transactions for a specific date range.
+     * Get transactions for a specific date range, newest first, one page at a time.
      *
      * @param userId the user ID
      * @param startDate the start date (format: yyyy-MM-dd)
      * @param endDate the end date (format: yyyy-MM-dd)
-     * @return list of transactions within the range
+     * @param cursor the nextCursor of the previous page (omit for the first page)
+     * @param limit the page size (default 50, capped at 500)
+     * @param request the request, for If-None-Match
+     * @return a page of transactions within the range with the cursor of the next page, or 304 if unchanged
      */
     @GetMapping("/range")
-    public ResponseEntity<List<TransactionDto>> getTransactionsByDateRange(
+    public ResponseEntity<TransactionPageDto> getTransactionsByDateRange(
             @RequestParam Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<TransactionDto> transactions = transactionService.findByUserIdAndDateRange(userId, startDate, endDate);
-        return ResponseEntity.ok(transactions);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return ConditionalGet.ifChanged(changeVersionService, request, userId,
+                version -> transactionService.findPageByUserIdAndDateRange(userId, startDate, endDate, cursor, limit));
+    }
+
+    /**
+     * Get the transactions of a user created, updated or deleted since the last sync, oldest change first.
+     * Call again with nextToken right away while hasMore is true; otherwise keep nextToken for the next sync.
+     *
+     * @param userId the user ID
+     * @param since the nextToken of the previous call (omit for a full sync)
+     * @param limit the page size (default 500, capped at 2000)
+     * @return the changed transactions, the ids of deleted ones and the token to continue from
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TransactionChangesDto> getTransactionChanges(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(transactionSyncService.findChanges(userId, since, limit));
+    }
+
+    /**
+     * Export all transactions of a user as a file download.
+     * Rows are streamed to the response while they are read from the database.
+     *
+     * @param userId the user ID
+     * @param format the export format: csv (default) or ndjson
+     * @return ResponseEntity streaming the export
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody body = out -> transactionExportService.exportByUserId(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + exportFormat.getFileExtension() + "\"")
+                .body(body);
     }
 
     /**
@@ -89,15 +179,68 @@ public class TransactionController {
      * @param userId the user ID
      * @param startDate the start date (format: yyyy-MM-dd)
      * @param endDate the end date (format: yyyy-MM-dd)
-     * @return SummaryDto with aggregated data
+     * @param request the request, for If-None-Match
+     * @return SummaryDto with aggregated data, or 304 if the user's data is unchanged
      */
     @GetMapping("/summary")
     public ResponseEntity<SummaryDto> getSummary(
+            @RequestParam Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest request) {
+        return ConditionalGet.ifChanged(changeVersionService, request, userId,
+                version -> transactionService.getSummary(userId, startDate, endDate, version));
+    }
+
+    /**
+     * Stream the summary for a user within a date range as Server-Sent Events: a "summary" event with
+     * the current summary, then one whenever committed writes change it (coalesced over a short window).
+     * The stream ends after smartbudget.summary-stream.timeout; EventSource clients reconnect on their own.
+     *
+     * @param userId the user ID
+     * @param startDate the start date (format: yyyy-MM-dd)
+     * @param endDate the end date (format: yyyy-MM-dd)
+     * @return the event stream
+     */
+    @GetMapping(value = "/summary/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSummary(
             @RequestParam Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        SummaryDto summary = transactionService.getSummary(userId, startDate, endDate);
-        return ResponseEntity.ok(summary);
+        return summaryStreamService.subscribe(userId, startDate, endDate);
+    }
+
+    /**
+     * Get income, expense and net per day, week or month within a date range, for trend charts.
+     * Every bucket in the range is present, with zeros where there were no transactions.
+     *
+     * @param userId the user ID
+     * @param startDate the start date (format: yyyy-MM-dd)
+     * @param endDate the end date (format: yyyy-MM-dd)
+     * @param granularity the bucket size: day, week or month (default)
+     * @param request the request, for If-None-Match
+     * @return TimeSeriesDto with parallel arrays of bucket starts and amounts, or 304 if unchanged
+     */
+    @GetMapping("/timeseries")
+    public ResponseEntity<TimeSeriesDto> getTimeSeries(
+            @RequestParam Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "month") String granularity,
+            WebRequest request) {
+        TimeSeriesGranularity bucketSize = TimeSeriesGranularity.fromParameter(granularity);
+        return ConditionalGet.ifChanged(changeVersionService, request, userId,
+                version -> transactionService.getTimeSeries(userId, startDate, endDate, bucketSize));
+    }
+
+    /**
+     * Get hit, miss and eviction statistics of the summary cache.
+     *
+     * @return SummaryCacheStatsDto with the counters since application start
+     */
+    @GetMapping("/summary/cache-stats")
+    public ResponseEntity<SummaryCacheStatsDto> getSummaryCacheStats() {
+        return ResponseEntity.ok(transactionService.getSummaryCacheStats());
     }
 
     /**
@@ -127,4 +270,29 @@ public class TransactionController {
         transactionService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Soft-delete many transactions of a user at once, e.g. to undo a bad import.
+     * Select them either by ids, or by startDate and endDate (optionally narrowed by categoryId).
+     *
+     * @param request the user and the selection
+     * @return ResponseEntity with the number of deleted transactions
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<TransactionBulkResultDto> deleteTransactions(
+            @Valid @RequestBody TransactionBulkRequestDto request) {
+        return ResponseEntity.ok(transactionService.deleteBulk(request));
+    }
+
+    /**
+     * Restore many soft-deleted transactions of a user at once; the selection works as for bulk-delete.
+     *
+     * @param request the user and the selection
+     * @return ResponseEntity with the number of restored transactions
+     */
+    @PostMapping("/bulk-restore")
+    public ResponseEntity<TransactionBulkResultDto> restoreTransactions(
+            @Valid @RequestBody TransactionBulkRequestDto request) {
+        return ResponseEntity.ok(transactionService.restoreBulk(request));
+    }
 }
@@ -0,0 +1,34 @@
+package com.smartbudget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a budget threshold (80 or 100 percent) reached within a month.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetAlertDto {
+
+    private Long id;
+
+    private Long budgetId;
+
+    private Long categoryId;
+
+    private LocalDate periodStart;
+
+    private int thresholdPercent;
+
+    private BigDecimal spent;
+
+    private BigDecimal monthlyLimit;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,38 @@
+package com.smartbudget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for the state of a budget within one month. percentUsed is rounded down;
+ * alertedPercent is the highest threshold alerted for the month (0 if none).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetStatusDto {
+
+    private Long budgetId;
+
+    private Long categoryId;
+
+    private String categoryName;
+
+    private LocalDate periodStart;
+
+    private LocalDate periodEnd;
+
+    private BigDecimal monthlyLimit;
+
+    private BigDecimal spent;
+
+    private BigDecimal remaining;
+
+    private int percentUsed;
+
+    private int alertedPercent;
+}
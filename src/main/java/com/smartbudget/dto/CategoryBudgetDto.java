@@ -0,0 +1,30 @@
+package com.smartbudget.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for budget create/update operations: the monthly spending limit of a category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryBudgetDto {
+
+    private Long id;
+
+    @NotNull(message = "User id is required")
+    private Long userId;
+
+    @NotNull(message = "Category id is required")
+    private Long categoryId;
+
+    @NotNull(message = "Monthly limit is required")
+    @Positive(message = "Monthly limit must be positive")
+    private BigDecimal monthlyLimit;
+}
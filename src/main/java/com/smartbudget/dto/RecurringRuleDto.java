@@ -0,0 +1,61 @@
+package com.smartbudget.dto;
+
+import com.smartbudget.entity.RecurrenceFrequency;
+import com.smartbudget.entity.TransactionType;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for recurring rule create/update operations. lastRunDate and nextRunDate are maintained by
+ * the scheduler and ignored on input.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringRuleDto {
+
+    private Long id;
+
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    private Long categoryId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be positive")
+    private BigDecimal amount;
+
+    @NotNull(message = "Transaction type is required")
+    private TransactionType type;
+
+    @Size(max = 255)
+    private String description;
+
+    @NotNull(message = "Frequency is required")
+    private RecurrenceFrequency frequency;
+
+    // every n days, weeks or months (default 1)
+    @Min(value = 1, message = "Interval must be positive")
+    private Integer intervalCount;
+
+    // day-of-month, month and day-of-week fields, e.g. "1,15 * *"; required for CRON rules
+    @Size(max = 100)
+    private String cronExpression;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private LocalDate lastRunDate;
+
+    private LocalDate nextRunDate;
+}
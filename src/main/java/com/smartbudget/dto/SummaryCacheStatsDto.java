@@ -0,0 +1,25 @@
+package com.smartbudget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the statistics of the summary cache since application start.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryCacheStatsDto {
+
+    private long hitCount;
+
+    private long missCount;
+
+    private double hitRate;
+
+    private long evictionCount;
+
+    // approximate number of cached summaries
+    private long size;
+}
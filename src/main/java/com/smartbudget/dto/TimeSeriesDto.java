@@ -0,0 +1,32 @@
+package com.smartbudget.dto;
+
+import com.smartbudget.service.TimeSeriesGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for a zero-filled cash-flow time series. The lists are parallel:
+ * element i of income, expense and net belongs to the bucket starting at periodStarts[i].
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesDto {
+
+    private Long userId;
+
+    private TimeSeriesGranularity granularity;
+
+    private List<LocalDate> periodStarts;
+
+    private List<BigDecimal> income;
+
+    private List<BigDecimal> expense;
+
+    private List<BigDecimal> net;
+}
@@ -0,0 +1,22 @@
+package com.smartbudget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the result of a bulk transaction import, with one entry per submitted row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchResultDto {
+
+    private int created;
+
+    private int rejected;
+
+    private List<TransactionBatchRowResultDto> rows;
+}
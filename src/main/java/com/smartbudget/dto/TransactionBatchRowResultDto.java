@@ -0,0 +1,30 @@
+package com.smartbudget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of one row of a transaction batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchRowResultDto {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    // position of the row in the request
+    private int index;
+
+    private Status status;
+
+    // ID of the created transaction, null if rejected
+    private Long id;
+
+    // reason for rejection, null if created
+    private String error;
+}
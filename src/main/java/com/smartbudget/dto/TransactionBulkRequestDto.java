@@ -0,0 +1,30 @@
+package com.smartbudget.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO selecting a user's transactions for a bulk delete or restore:
+ * either by ids, or by a date range optionally narrowed to one category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBulkRequestDto {
+
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    private List<Long> ids;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private Long categoryId;
+}
@@ -0,0 +1,19 @@
+package com.smartbudget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the result of a bulk delete or restore.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBulkResultDto {
+
+    /**
+     * Transactions whose state changed; already deleted (or restored) ones are not counted.
+     */
+    private int affected;
+}
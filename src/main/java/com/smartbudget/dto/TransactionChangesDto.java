@@ -0,0 +1,26 @@
+package com.smartbudget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of delta sync: transactions created or updated since the client's token, ids of
+ * transactions deleted since then, and the token to send next time. hasMore is true while further
+ * changes are ready, in which case the client should call again right away with nextToken.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionChangesDto {
+
+    private List<TransactionDto> items;
+
+    private List<Long> deletedIds;
+
+    private String nextToken;
+
+    private boolean hasMore;
+}
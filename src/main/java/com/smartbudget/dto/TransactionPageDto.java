@@ -0,0 +1,21 @@
+package com.smartbudget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of transactions ordered by date and id (newest first).
+ * nextCursor is an opaque token for the following page, or null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPageDto {
+
+    private List<TransactionDto> items;
+
+    private String nextCursor;
+}
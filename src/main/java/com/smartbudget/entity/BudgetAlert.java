@@ -0,0 +1,55 @@
+package com.smartbudget.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A budget threshold reached within a month, recorded once per budget, month and threshold
+ * together with the spend and limit at that moment.
+ */
+@Entity
+@Table(name = "budget_alerts", schema = "public")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "budget_alerts_id_gen")
+    @SequenceGenerator(name = "budget_alerts_id_gen", sequenceName = "budget_alerts_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "threshold_percent", nullable = false)
+    private Integer thresholdPercent;
+
+    @Column(name = "spent", nullable = false, precision = 16, scale = 2)
+    private BigDecimal spent;
+
+    @Column(name = "monthly_limit", nullable = false, precision = 16, scale = 2)
+    private BigDecimal monthlyLimit;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
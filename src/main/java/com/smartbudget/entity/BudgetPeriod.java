@@ -0,0 +1,40 @@
+package com.smartbudget.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running spend of a budget within one month, maintained by the transaction write path in the same
+ * DB transaction, and the highest alert threshold already raised for that month.
+ */
+@Entity
+@Table(name = "budget_periods", schema = "public")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetPeriod {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "budget_periods_id_gen")
+    @SequenceGenerator(name = "budget_periods_id_gen", sequenceName = "budget_periods_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd; // inclusive
+
+    @Column(name = "spent", nullable = false, precision = 16, scale = 2)
+    private BigDecimal spent;
+
+    @Column(name = "alerted_percent", nullable = false)
+    private Integer alertedPercent; // 0 until the first threshold is reached
+}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -12,6 +14,8 @@ import java.util.List;
  * Each category belongs to a specific user and can have multiple transactions.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "categories", schema = "public", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "name"})
 })
@@ -0,0 +1,51 @@
+package com.smartbudget.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Monthly spending limit of a category; at most one per category. Counts the category's EXPENSE
+ * transactions. The row doubles as the lock that serializes updates of its spend counters.
+ */
+@Entity
+@Table(name = "category_budgets", schema = "public")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryBudget {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_budgets_id_gen")
+    @SequenceGenerator(name = "category_budgets_id_gen", sequenceName = "category_budgets_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "monthly_limit", nullable = false, precision = 16, scale = 2)
+    private BigDecimal monthlyLimit;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,12 @@
+package com.smartbudget.entity;
+
+/**
+ * Enum representing how often a recurring rule creates a transaction.
+ * CRON rules follow the day-of-month, month and day-of-week fields of a cron expression.
+ */
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY,
+    CRON
+}
@@ -0,0 +1,82 @@
+package com.smartbudget.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Rule that creates a transaction on every occurrence of a schedule, from its start date until its
+ * (optional) end date. Occurrences are materialized by the recurring transaction scheduler; the row
+ * doubles as the claim that keeps two scheduler instances from materializing the same rule.
+ */
+@Entity
+@Table(name = "recurring_rules", schema = "public")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_rules_id_gen")
+    @SequenceGenerator(name = "recurring_rules_id_gen", sequenceName = "recurring_rules_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id")
+    private Long categoryId; // null if the category is deleted
+
+    @Column(name = "amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 10)
+    private TransactionType type;
+
+    @Column(name = "description", length = 255)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false, length = 10)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "interval_count", nullable = false)
+    private Integer intervalCount; // every n days, weeks or months; ignored by CRON rules
+
+    @Column(name = "cron_expression", length = 100)
+    private String cronExpression; // day-of-month, month and day-of-week fields; CRON rules only
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate; // inclusive
+
+    @Column(name = "last_run_date")
+    private LocalDate lastRunDate; // latest occurrence materialized
+
+    @Column(name = "next_run_date")
+    private LocalDate nextRunDate; // null once the rule has ended
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
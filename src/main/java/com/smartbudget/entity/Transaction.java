@@ -19,8 +19,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Transaction {
 
+    /**
+     * Sequence with a pooled optimizer: Hibernate reserves 50 ids per round-trip,
+     * which (unlike IDENTITY) lets inserts be sent as JDBC batches.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_id_gen")
+    @SequenceGenerator(name = "transactions_id_gen", sequenceName = "transactions_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -50,12 +55,25 @@ public class Transaction {
     @Column(name = "is_deleted", nullable = false)
     private Boolean isDeleted = false;
 
+    /**
+     * Optimistic lock; incremented by every update.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * The user's change version taken by the write that last changed this row; delta sync is ordered by it.
+     */
+    @Column(name = "change_version", nullable = false)
+    private Long changeVersion;
+
     /**
      * PrePersist: Auto-set creation and update timestamps.
      */
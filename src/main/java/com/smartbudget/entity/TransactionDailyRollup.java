@@ -0,0 +1,46 @@
+package com.smartbudget.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated daily totals of non-deleted transactions per user, category and type.
+ * Rows are maintained by the transaction write path in the same DB transaction, so the
+ * summary endpoints never have to scan the raw transactions table.
+ * There is one row per key (unique index, uncategorized rows keyed as category 0); writers upsert it.
+ */
+@Entity
+@Table(name = "transaction_daily_rollups", schema = "public")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_daily_rollups_id_gen")
+    @SequenceGenerator(name = "transaction_daily_rollups_id_gen", sequenceName = "transaction_daily_rollups_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "category_id")
+    private Long categoryId; // NULL for uncategorized transactions
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 10)
+    private TransactionType type; // INCOME or EXPENSE
+
+    @Column(name = "amount", nullable = false, precision = 16, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+}
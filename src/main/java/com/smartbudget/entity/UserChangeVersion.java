@@ -0,0 +1,32 @@
+package com.smartbudget.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+/**
+ * Counter of changes to a user's transactions and categories, incremented in the writing DB
+ * transaction. The read endpoints derive their ETags from it, so an unchanged user can be
+ * answered with 304 Not Modified after reading this counter only.
+ * Writers lock the user row before inserting the first counter; users may still have several rows
+ * from before that, so readers always aggregate with SUM.
+ */
+@Entity
+@Table(name = "user_change_versions", schema = "public")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_change_versions_id_gen")
+    @SequenceGenerator(name = "user_change_versions_id_gen", sequenceName = "user_change_versions_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
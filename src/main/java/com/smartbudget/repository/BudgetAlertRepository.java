@@ -0,0 +1,17 @@
+package com.smartbudget.repository;
+
+import com.smartbudget.entity.BudgetAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for BudgetAlert entity.
+ */
+@Repository
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+
+    List<BudgetAlert> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+}
@@ -0,0 +1,42 @@
+package com.smartbudget.repository;
+
+import com.smartbudget.entity.BudgetPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for the monthly budget spend counters.
+ * Callers hold the lock of the budget row.
+ */
+@Repository
+public interface BudgetPeriodRepository extends JpaRepository<BudgetPeriod, Long> {
+
+    Optional<BudgetPeriod> findByBudgetIdAndPeriodStart(Long budgetId, LocalDate periodStart);
+
+    /**
+     * Recompute every spend counter of a budget from the daily rollups of its category,
+     * e.g. after the transactions of another category were merged into it.
+     *
+     * @param budgetId   the budget ID
+     * @param userId     the ID of the budget's user
+     * @param categoryId the ID of the budget's category
+     * @return the number of updated counters
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BudgetPeriod p SET p.spent = COALESCE((SELECT SUM(r.amount) FROM TransactionDailyRollup r " +
+           "WHERE r.userId = :userId AND r.categoryId = :categoryId " +
+           "AND r.type = 'EXPENSE' " +
+           "AND r.rollupDate BETWEEN p.periodStart AND p.periodEnd), 0) " +
+           "WHERE p.budgetId = :budgetId")
+    int recomputeFromRollups(
+            @Param("budgetId") Long budgetId,
+            @Param("userId") Long userId,
+            @Param("categoryId") Long categoryId
+    );
+}
@@ -0,0 +1,61 @@
+package com.smartbudget.repository;
+
+import com.smartbudget.entity.CategoryBudget;
+import com.smartbudget.repository.projection.BudgetSpend;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for CategoryBudget entity.
+ */
+@Repository
+public interface CategoryBudgetRepository extends JpaRepository<CategoryBudget, Long> {
+
+    Optional<CategoryBudget> findByCategoryId(Long categoryId);
+
+    /**
+     * Find and lock the budgets of the given categories, in id order so that concurrent writers
+     * touching several budgets cannot deadlock.
+     *
+     * @param categoryIds the IDs of the categories
+     * @return the locked budgets; categories without a budget are absent
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM CategoryBudget b WHERE b.categoryId IN :categoryIds ORDER BY b.id")
+    List<CategoryBudget> findForUpdateByCategoryIds(@Param("categoryIds") Collection<Long> categoryIds);
+
+    /**
+     * Find and lock a budget by ID.
+     *
+     * @param id the budget ID
+     * @return the locked budget
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM CategoryBudget b WHERE b.id = :id")
+    Optional<CategoryBudget> findForUpdateById(@Param("id") Long id);
+
+    /**
+     * List a user's budgets with the spend counters of one month, in one query.
+     *
+     * @param userId      the ID of the user
+     * @param periodStart the first day of the month
+     * @return the budgets ordered by category name
+     */
+    @Query("SELECT new com.smartbudget.repository.projection.BudgetSpend(b.id, b.categoryId, c.name, b.monthlyLimit, " +
+           "p.spent, p.alertedPercent) FROM CategoryBudget b JOIN Category c ON c.id = b.categoryId " +
+           "LEFT JOIN BudgetPeriod p ON p.budgetId = b.id AND p.periodStart = :periodStart " +
+           "WHERE b.userId = :userId ORDER BY c.name")
+    List<BudgetSpend> findSpendByUserId(
+            @Param("userId") Long userId,
+            @Param("periodStart") LocalDate periodStart
+    );
+}
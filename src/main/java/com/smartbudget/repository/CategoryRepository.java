@@ -1,8 +1,15 @@
 package com.smartbudget.repository;
 
+import com.smartbudget.dto.CategoryDto;
 import com.smartbudget.entity.Category;
 import com.smartbudget.entity.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,22 +22,29 @@ import java.util.Optional;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    // selects exactly the CategoryDto columns; rows are never managed or dirty-checked
+    String DTO_SELECT = "SELECT new com.smartbudget.dto.CategoryDto(c.id, c.user.id, c.name, c.type, c.color, " +
+            "c.description, c.isDefault) FROM Category c ";
+
     /**
-     * Find all categories for a specific user.
+     * Find a category by ID as a DTO projection.
      *
-     * @param userId the ID of the user
-     * @return a list of categories belonging to the user
+     * @param id the ID of the category
+     * @return an Optional containing the category if found
      */
-    List<Category> findByUserId(Long userId);
+    @Query(DTO_SELECT + "WHERE c.id = :id")
+    Optional<CategoryDto> findDtoById(@Param("id") Long id);
 
     /**
-     * Find all categories of a specific type (INCOME or EXPENSE) for a user.
+     * Find all categories for a specific user as DTO projections.
+     * Served from the query cache until the categories table changes.
      *
      * @param userId the ID of the user
-     * @param type   the transaction type (INCOME or EXPENSE)
-     * @return a list of categories of the specified type
+     * @return a list of categories belonging to the user
      */
-    List<Category> findByUserIdAndType(Long userId, TransactionType type);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(DTO_SELECT + "WHERE c.user.id = :userId")
+    List<CategoryDto> findDtosByUserId(@Param("userId") Long userId);
 
     /**
      * Find a category by user ID and category name.
@@ -57,4 +71,24 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      * @return true if category exists, false otherwise
      */
     boolean existsByUserIdAndName(Long userId, String name);
+
+    /**
+     * Check if a category exists and belongs to a specific user.
+     *
+     * @param id     the ID of the category
+     * @param userId the ID of the user
+     * @return true if the user owns the category, false otherwise
+     */
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Delete a category with one DELETE, without loading it or its transactions collection.
+     * Its transactions must have been reassigned before.
+     *
+     * @param id the ID of the category
+     * @return the number of deleted rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Category c WHERE c.id = :id")
+    int deleteDirectlyById(@Param("id") Long id);
 }
@@ -0,0 +1,77 @@
+package com.smartbudget.repository;
+
+import com.smartbudget.entity.RecurringRule;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for RecurringRule entity.
+ */
+@Repository
+public interface RecurringRuleRepository extends JpaRepository<RecurringRule, Long> {
+
+    List<RecurringRule> findByUserIdOrderById(Long userId);
+
+    /**
+     * Claim a batch of due rules: lock the rules with an occurrence on or before the given day,
+     * oldest first, skipping the rules locked by another scheduler (FOR UPDATE SKIP LOCKED), so
+     * concurrent instances split the due rules instead of queueing behind each other.
+     *
+     * @param today    the last day to materialize
+     * @param pageable the batch size
+     * @return the claimed rules, locked until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2")) // LockOptions.SKIP_LOCKED
+    @Query("SELECT r FROM RecurringRule r WHERE r.nextRunDate <= :today ORDER BY r.nextRunDate, r.id")
+    List<RecurringRule> claimDue(@Param("today") LocalDate today, Pageable pageable);
+
+    /**
+     * {@link #claimDue} for databases without SKIP LOCKED (H2 before 2.2): waits for the rules
+     * locked by another scheduler instead of skipping them.
+     *
+     * @param today    the last day to materialize
+     * @param pageable the batch size
+     * @return the locked rules
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RecurringRule r WHERE r.nextRunDate <= :today ORDER BY r.nextRunDate, r.id")
+    List<RecurringRule> lockDue(@Param("today") LocalDate today, Pageable pageable);
+
+    /**
+     * Find and lock a rule by ID, waiting for a scheduler that is materializing it.
+     *
+     * @param id the rule ID
+     * @return the locked rule
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RecurringRule r WHERE r.id = :id")
+    Optional<RecurringRule> findForUpdateById(@Param("id") Long id);
+
+    /**
+     * Move all rules of a category to another category in one statement, without loading them.
+     *
+     * @param categoryId the category the rules leave
+     * @param target     the category the rules move to, or null to uncategorize them
+     * @param updatedAt  the modification time to stamp
+     * @return the number of rules moved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RecurringRule r SET r.categoryId = :target, r.updatedAt = :updatedAt WHERE r.categoryId = :categoryId")
+    int reassignCategory(@Param("categoryId") Long categoryId, @Param("target") Long target,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+}
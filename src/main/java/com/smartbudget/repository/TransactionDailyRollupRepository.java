@@ -0,0 +1,170 @@
+package com.smartbudget.repository;
+
+import com.smartbudget.entity.TransactionDailyRollup;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.repository.projection.CategoryTotal;
+import com.smartbudget.repository.projection.DailyTotal;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for TransactionDailyRollup entity.
+ * Provides delta updates for the write path and aggregate reads for summaries.
+ */
+@Repository
+public interface TransactionDailyRollupRepository extends JpaRepository<TransactionDailyRollup, Long> {
+
+    /**
+     * Add an amount and count delta to the existing rollup row of a key.
+     *
+     * @param userId     the ID of the user
+     * @param rollupDate the day of the rollup
+     * @param categoryId the ID of the category (may be null)
+     * @param type       the transaction type (INCOME or EXPENSE)
+     * @param amount     the amount delta (may be negative)
+     * @param count      the transaction count delta (may be negative)
+     * @return the number of updated rows, 0 if no row exists for the key yet
+     */
+    @Modifying
+    @Query("UPDATE TransactionDailyRollup r SET r.amount = r.amount + :amount, " +
+           "r.transactionCount = r.transactionCount + :count " +
+           "WHERE r.userId = :userId AND r.rollupDate = :rollupDate AND r.type = :type " +
+           "AND (r.categoryId = :categoryId OR (r.categoryId IS NULL AND :categoryId IS NULL))")
+    int addToRollup(
+            @Param("userId") Long userId,
+            @Param("rollupDate") LocalDate rollupDate,
+            @Param("categoryId") Long categoryId,
+            @Param("type") TransactionType type,
+            @Param("amount") BigDecimal amount,
+            @Param("count") long count
+    );
+
+    /**
+     * Find and lock the rollup rows of a user within a date range, for read-modify-write
+     * of many keys at once. Rows are locked in key order (day, category with the uncategorized
+     * first, type), the order in which the single-key path updates them, so concurrent writers
+     * cannot deadlock.
+     *
+     * @param userId    the ID of the user
+     * @param startDate the start date (inclusive)
+     * @param endDate   the end date (inclusive)
+     * @return a list of locked rollup rows
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM TransactionDailyRollup r WHERE r.userId = :userId " +
+           "AND r.rollupDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY r.rollupDate, r.categoryId NULLS FIRST, r.type")
+    List<TransactionDailyRollup> findForUpdate(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Aggregate amount and count per type and category for a user within a date range,
+     * in a single round-trip. Totals, net balance and the category breakdown are all derived
+     * from this result. Groups without remaining transactions are skipped.
+     *
+     * @param userId    the ID of the user
+     * @param startDate the start date (inclusive)
+     * @param endDate   the end date (inclusive)
+     * @return a list of totals per type and category
+     */
+    @Query("SELECT new com.smartbudget.repository.projection.CategoryTotal(" +
+           "r.type, r.categoryId, c.name, SUM(r.amount), SUM(r.transactionCount)) " +
+           "FROM TransactionDailyRollup r LEFT JOIN Category c ON c.id = r.categoryId " +
+           "WHERE r.userId = :userId AND r.rollupDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY r.type, r.categoryId, c.name HAVING SUM(r.transactionCount) > 0")
+    List<CategoryTotal> summarizeByUserAndDateRange(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Aggregate amount per day and type for a user within a date range, in a single round-trip.
+     * Days without transactions are absent; callers zero-fill them.
+     *
+     * @param userId    the ID of the user
+     * @param startDate the start date (inclusive)
+     * @param endDate   the end date (inclusive)
+     * @return a list of totals per day and type, ordered by day
+     */
+    @Query("SELECT new com.smartbudget.repository.projection.DailyTotal(r.rollupDate, r.type, SUM(r.amount)) " +
+           "FROM TransactionDailyRollup r " +
+           "WHERE r.userId = :userId AND r.rollupDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY r.rollupDate, r.type ORDER BY r.rollupDate")
+    List<DailyTotal> sumByDayAndType(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Sum a user's EXPENSE amounts of one category within a date range, e.g. to start a budget's
+     * spend counter for a month.
+     *
+     * @param userId     the ID of the user
+     * @param categoryId the ID of the category
+     * @param startDate  the start date (inclusive)
+     * @param endDate    the end date (inclusive)
+     * @return the sum, 0 if there are no such transactions
+     */
+    @Query("SELECT COALESCE(SUM(r.amount), 0) FROM TransactionDailyRollup r " +
+           "WHERE r.userId = :userId AND r.categoryId = :categoryId " +
+           "AND r.type = 'EXPENSE' " +
+           "AND r.rollupDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumExpenseByCategoryAndDateRange(
+            @Param("userId") Long userId,
+            @Param("categoryId") Long categoryId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Delete a user's rollup rows of two categories, before they are rebuilt with {@link #rebuildForCategory}.
+     *
+     * @param userId          the ID of the user
+     * @param categoryId      the ID of a category
+     * @param otherCategoryId the ID of the other category, or null for the uncategorized rows
+     * @return the number of deleted rollup rows
+     */
+    @Modifying
+    @Query("DELETE FROM TransactionDailyRollup r WHERE r.userId = :userId " +
+           "AND (r.categoryId = :categoryId OR r.categoryId = :otherCategoryId " +
+           "OR (:otherCategoryId IS NULL AND r.categoryId IS NULL))")
+    int deleteForCategories(
+            @Param("userId") Long userId,
+            @Param("categoryId") Long categoryId,
+            @Param("otherCategoryId") Long otherCategoryId
+    );
+
+    /**
+     * Rebuild a user's rollup rows of one category from its non-deleted transactions. Native, since
+     * Hibernate renders an HQL insert into a sequence-keyed entity of an explicit schema as an invalid
+     * CTE; every row takes a whole sequence value, which the pooled optimizer never hands out again.
+     *
+     * @param userId     the ID of the user
+     * @param categoryId the ID of the category, or null for the uncategorized transactions
+     * @return the number of inserted rollup rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_daily_rollups (id, user_id, rollup_date, category_id, type, amount, transaction_count) " +
+           "SELECT nextval('transaction_daily_rollups_id_seq'), t.user_id, t.transaction_date, t.category_id, t.type, " +
+           "SUM(t.amount), COUNT(*) FROM transactions t WHERE t.user_id = :userId AND t.is_deleted = false " +
+           "AND (t.category_id = CAST(:categoryId AS BIGINT) OR (CAST(:categoryId AS BIGINT) IS NULL AND t.category_id IS NULL)) " +
+           "GROUP BY t.user_id, t.transaction_date, t.category_id, t.type", nativeQuery = true)
+    int rebuildForCategory(
+            @Param("userId") Long userId,
+            @Param("categoryId") Long categoryId
+    );
+}
@@ -1,17 +1,30 @@
 package com.smartbudget.repository;
 
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Category;
 import com.smartbudget.entity.Transaction;
 import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.repository.projection.DailyCategoryTotal;
+import com.smartbudget.repository.projection.TransactionChange;
+import com.smartbudget.repository.projection.TransactionWriteState;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for Transaction entity.
@@ -20,6 +33,10 @@ import java.util.List;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    // selects exactly the TransactionDto columns; rows are never managed or dirty-checked
+    String DTO_SELECT = "SELECT new com.smartbudget.dto.TransactionDto(t.id, t.user.id, t.category.id, t.amount, t.type, " +
+            "t.description, t.notes, t.transactionDate) FROM Transaction t ";
+
     /**
      * Find all non-deleted transactions for a specific user.
      *
@@ -28,6 +45,190 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      */
     List<Transaction> findByUserIdAndIsDeletedFalse(Long userId);
 
+    /**
+     * Find a transaction by ID as a DTO projection.
+     *
+     * @param id the ID of the transaction
+     * @return an Optional containing the transaction if found
+     */
+    @Query(DTO_SELECT + "WHERE t.id = :id")
+    Optional<TransactionDto> findDtoById(@Param("id") Long id);
+
+    /**
+     * Find all non-deleted transactions for a specific user as DTO projections.
+     *
+     * @param userId the ID of the user
+     * @return a list of transactions belonging to the user
+     */
+    @Query(DTO_SELECT + "WHERE t.user.id = :userId AND t.isDeleted = false")
+    List<TransactionDto> findDtosByUserId(@Param("userId") Long userId);
+
+    /**
+     * Find all non-deleted transactions for a user within a date range as DTO projections, newest first.
+     *
+     * @param userId    the ID of the user
+     * @param startDate the start date (inclusive)
+     * @param endDate   the end date (inclusive)
+     * @return a list of transactions
+     */
+    @Query(DTO_SELECT + "WHERE t.user.id = :userId AND t.isDeleted = false " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
+    List<TransactionDto> findDtosByUserIdAndDateRange(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Read the state an update of a transaction needs and, in the same statement, check that the
+     * requested category exists and belongs to the requesting user.
+     *
+     * @param id         the ID of the transaction
+     * @param categoryId the ID of the requested category (may be null)
+     * @param userId     the ID of the requesting user
+     * @return an Optional containing the state if the transaction exists
+     */
+    @Query("SELECT new com.smartbudget.repository.projection.TransactionWriteState(t.user.id, t.category.id, t.amount, t.type, " +
+           "t.transactionDate, t.isDeleted, t.version, " +
+           "(SELECT COUNT(c) FROM Category c WHERE c.id = :categoryId AND c.user.id = :userId)) " +
+           "FROM Transaction t WHERE t.id = :id")
+    Optional<TransactionWriteState> findWriteStateById(
+            @Param("id") Long id,
+            @Param("categoryId") Long categoryId,
+            @Param("userId") Long userId
+    );
+
+    /**
+     * Overwrite a transaction in one UPDATE if it still has the given version, and increment the version.
+     * Pending changes are flushed first and the persistence context is cleared afterwards, so that no
+     * stale managed copy of the row survives.
+     *
+     * @return the number of updated rows, 0 if the transaction was changed concurrently
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.user = :user, t.category = :category, t.amount = :amount, t.type = :type, " +
+           "t.description = :description, t.notes = :notes, t.transactionDate = :transactionDate, " +
+           "t.updatedAt = :updatedAt, t.changeVersion = :changeVersion, t.version = t.version + 1 " +
+           "WHERE t.id = :id AND t.version = :version")
+    int updateIfVersion(
+            @Param("id") Long id,
+            @Param("version") Long version,
+            @Param("user") User user,
+            @Param("category") Category category,
+            @Param("amount") BigDecimal amount,
+            @Param("type") TransactionType type,
+            @Param("description") String description,
+            @Param("notes") String notes,
+            @Param("transactionDate") LocalDate transactionDate,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("changeVersion") Long changeVersion
+    );
+
+    /**
+     * Soft-delete or restore the listed transactions of a user in one UPDATE. Rows of other users and rows
+     * already in the requested state are left alone; changed rows get a new version, the given updatedAt
+     * and the given change version.
+     *
+     * @return the number of changed rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.isDeleted = :deleted, t.updatedAt = :updatedAt, " +
+           "t.changeVersion = :changeVersion, t.version = t.version + 1 " +
+           "WHERE t.user.id = :userId AND t.id IN :ids AND t.isDeleted <> :deleted")
+    int setDeletedByIds(
+            @Param("userId") Long userId,
+            @Param("ids") List<Long> ids,
+            @Param("deleted") boolean deleted,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("changeVersion") Long changeVersion
+    );
+
+    /**
+     * Soft-delete or restore a user's transactions within a date range, optionally of one category,
+     * in one UPDATE. Changed rows get a new version, the given updatedAt and the given change version.
+     *
+     * @return the number of changed rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.isDeleted = :deleted, t.updatedAt = :updatedAt, " +
+           "t.changeVersion = :changeVersion, t.version = t.version + 1 " +
+           "WHERE t.user.id = :userId AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "AND (:categoryId IS NULL OR t.category.id = :categoryId) AND t.isDeleted <> :deleted")
+    int setDeletedByFilter(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryId") Long categoryId,
+            @Param("deleted") boolean deleted,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("changeVersion") Long changeVersion
+    );
+
+    /**
+     * Amount and count per rollup key of the rows just changed by {@link #setDeletedByIds}, recognized by
+     * the change version it set. Those rows stay locked by the updating transaction until it commits.
+     */
+    @Query("SELECT new com.smartbudget.repository.projection.DailyCategoryTotal(" +
+           "t.transactionDate, t.category.id, t.type, SUM(t.amount), COUNT(t)) FROM Transaction t " +
+           "WHERE t.user.id = :userId AND t.id IN :ids AND t.isDeleted = :deleted AND t.changeVersion = :changeVersion " +
+           "GROUP BY t.transactionDate, t.category.id, t.type")
+    List<DailyCategoryTotal> sumChangedByIds(
+            @Param("userId") Long userId,
+            @Param("ids") List<Long> ids,
+            @Param("deleted") boolean deleted,
+            @Param("changeVersion") Long changeVersion
+    );
+
+    /**
+     * Amount and count per rollup key of the rows just changed by {@link #setDeletedByFilter}.
+     */
+    @Query("SELECT new com.smartbudget.repository.projection.DailyCategoryTotal(" +
+           "t.transactionDate, t.category.id, t.type, SUM(t.amount), COUNT(t)) FROM Transaction t " +
+           "WHERE t.user.id = :userId AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "AND (:categoryId IS NULL OR t.category.id = :categoryId) AND t.isDeleted = :deleted AND t.changeVersion = :changeVersion " +
+           "GROUP BY t.transactionDate, t.category.id, t.type")
+    List<DailyCategoryTotal> sumChangedByFilter(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryId") Long categoryId,
+            @Param("deleted") boolean deleted,
+            @Param("changeVersion") Long changeVersion
+    );
+
+    /**
+     * Move all transactions of a category, deleted ones included, to another category in one UPDATE.
+     * Changed rows get a new version, the given updatedAt and the given change version.
+     *
+     * @return the number of moved rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.category = :target, t.updatedAt = :updatedAt, " +
+           "t.changeVersion = :changeVersion, t.version = t.version + 1 " +
+           "WHERE t.category.id = :categoryId")
+    int reassignCategory(
+            @Param("categoryId") Long categoryId,
+            @Param("target") Category target,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("changeVersion") Long changeVersion
+    );
+
+    /**
+     * Make all transactions of a category, deleted ones included, uncategorized in one UPDATE.
+     * Changed rows get a new version, the given updatedAt and the given change version.
+     *
+     * @return the number of changed rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.category = NULL, t.updatedAt = :updatedAt, " +
+           "t.changeVersion = :changeVersion, t.version = t.version + 1 " +
+           "WHERE t.category.id = :categoryId")
+    int clearCategory(
+            @Param("categoryId") Long categoryId,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("changeVersion") Long changeVersion
+    );
+
     /**
      * Find paginated transactions for a user within a date range.
      *
@@ -46,6 +247,68 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             Pageable pageable
     );
 
+    /**
+     * Find the next page of non-deleted transactions for a user, ordered by date and id (newest first).
+     * Keyset pagination: only rows strictly after the cursor position are returned, so deep pages
+     * cost the same as the first one.
+     *
+     * @param userId     the ID of the user
+     * @param cursorDate the transaction date of the last row of the previous page
+     * @param cursorId   the ID of the last row of the previous page
+     * @param pageable   the page size (page number must be 0)
+     * @return a list of transactions as DTO projections
+     */
+    @Query(DTO_SELECT + "WHERE t.user.id = :userId AND t.isDeleted = false " +
+           "AND (t.transactionDate, t.id) < (:cursorDate, :cursorId) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDto> findPageByUserId(
+            @Param("userId") Long userId,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    /**
+     * Find the next page of non-deleted transactions for a user within a date range,
+     * ordered by date and id (newest first).
+     *
+     * @param userId     the ID of the user
+     * @param startDate  the start date (inclusive)
+     * @param endDate    the end date (inclusive)
+     * @param cursorDate the transaction date of the last row of the previous page
+     * @param cursorId   the ID of the last row of the previous page
+     * @param pageable   the page size (page number must be 0)
+     * @return a list of transactions as DTO projections
+     */
+    @Query(DTO_SELECT + "WHERE t.user.id = :userId AND t.isDeleted = false " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "AND (t.transactionDate, t.id) < (:cursorDate, :cursorId) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDto> findPageByUserIdAndDateRange(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    /**
+     * Stream all non-deleted transactions of a user, newest first, with their category.
+     * Rows are read through a forward-only cursor in chunks of the fetch size and are not
+     * snapshotted for dirty-checking. Must be consumed inside a transaction and closed.
+     *
+     * @param userId the ID of the user
+     * @return a stream of transactions
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.category WHERE t.user.id = :userId AND t.isDeleted = false " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    Stream<Transaction> streamByUserId(@Param("userId") Long userId);
+
     /**
      * Find transactions by user, type, and date range.
      *
@@ -116,6 +379,31 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("endDate") LocalDate endDate
     );
 
+    /**
+     * Find a page of a user's transactions created, updated or soft-deleted after a sync position
+     * and up to a given change version, oldest change first. Deleted rows are included as tombstones.
+     * The redundant lower bound on changeVersion keeps the index range tight on every database.
+     *
+     * @param userId             the ID of the user
+     * @param sinceChangeVersion the change version of the last row already synced
+     * @param sinceId            the ID of the last row already synced
+     * @param untilChangeVersion the latest change version to include
+     * @param pageable           the page size (page number must be 0)
+     * @return the changed rows with their deleted flag and change version
+     */
+    @Query("SELECT new com.smartbudget.repository.projection.TransactionChange(t.id, t.user.id, t.category.id, t.amount, t.type, " +
+           "t.description, t.notes, t.transactionDate, t.isDeleted, t.changeVersion) FROM Transaction t " +
+           "WHERE t.user.id = :userId AND t.changeVersion >= :sinceChangeVersion " +
+           "AND (t.changeVersion, t.id) > (:sinceChangeVersion, :sinceId) AND t.changeVersion <= :untilChangeVersion " +
+           "ORDER BY t.changeVersion, t.id")
+    List<TransactionChange> findChangesByUserId(
+            @Param("userId") Long userId,
+            @Param("sinceChangeVersion") Long sinceChangeVersion,
+            @Param("sinceId") Long sinceId,
+            @Param("untilChangeVersion") Long untilChangeVersion,
+            Pageable pageable
+    );
+
     /**
      * Find all transactions for a specific category.
      *
@@ -0,0 +1,34 @@
+package com.smartbudget.repository;
+
+import com.smartbudget.entity.UserChangeVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the per-user change counters.
+ */
+@Repository
+public interface UserChangeVersionRepository extends JpaRepository<UserChangeVersion, Long> {
+
+    /**
+     * Current change version of a user; 0 before the first write.
+     *
+     * @param userId the user ID
+     * @return the sum over the user's counter rows
+     */
+    @Query("SELECT COALESCE(SUM(v.version), 0) FROM UserChangeVersion v WHERE v.userId = :userId")
+    long sumVersionByUserId(@Param("userId") Long userId);
+
+    /**
+     * Increment the counter rows of a user.
+     *
+     * @param userId the user ID
+     * @return number of rows incremented, 0 if the user has none yet
+     */
+    @Modifying
+    @Query("UPDATE UserChangeVersion v SET v.version = v.version + 1 WHERE v.userId = :userId")
+    int increment(@Param("userId") Long userId);
+}
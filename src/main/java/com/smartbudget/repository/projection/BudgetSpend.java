@@ -0,0 +1,17 @@
+package com.smartbudget.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * A budget with its category name and the spend counter of one month.
+ * spent and alertedPercent are null if no counter row exists for that month yet.
+ */
+public record BudgetSpend(
+        Long budgetId,
+        Long categoryId,
+        String categoryName,
+        BigDecimal monthlyLimit,
+        BigDecimal spent,
+        Integer alertedPercent
+) {
+}
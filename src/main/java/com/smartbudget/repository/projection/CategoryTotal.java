@@ -0,0 +1,18 @@
+package com.smartbudget.repository.projection;
+
+import com.smartbudget.entity.TransactionType;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated amount and transaction count per (type, category) within a period.
+ * categoryId and categoryName are null for uncategorized transactions.
+ */
+public record CategoryTotal(
+        TransactionType type,
+        Long categoryId,
+        String categoryName,
+        BigDecimal amount,
+        Long count
+) {
+}
@@ -0,0 +1,19 @@
+package com.smartbudget.repository.projection;
+
+import com.smartbudget.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aggregated amount and transaction count per (day, category, type), the grain of the daily rollups.
+ * categoryId is null for uncategorized transactions.
+ */
+public record DailyCategoryTotal(
+        LocalDate date,
+        Long categoryId,
+        TransactionType type,
+        BigDecimal amount,
+        Long count
+) {
+}
@@ -0,0 +1,16 @@
+package com.smartbudget.repository.projection;
+
+import com.smartbudget.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aggregated amount per day and type.
+ */
+public record DailyTotal(
+        LocalDate date,
+        TransactionType type,
+        BigDecimal amount
+) {
+}
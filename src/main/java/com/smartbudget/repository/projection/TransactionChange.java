@@ -0,0 +1,24 @@
+package com.smartbudget.repository.projection;
+
+import com.smartbudget.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Current state of a changed transaction for delta sync, including soft-deleted rows (tombstones)
+ * and the change version the sync position is keyed by.
+ */
+public record TransactionChange(
+        Long id,
+        Long userId,
+        Long categoryId,
+        BigDecimal amount,
+        TransactionType type,
+        String description,
+        String notes,
+        LocalDate transactionDate,
+        Boolean isDeleted,
+        Long changeVersion
+) {
+}
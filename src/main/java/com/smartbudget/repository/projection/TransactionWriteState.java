@@ -0,0 +1,26 @@
+package com.smartbudget.repository.projection;
+
+import com.smartbudget.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Persisted state of a transaction that an update needs: the columns its rollup contribution
+ * is keyed by, its version, and how many categories with the requested id the requesting user owns (0 or 1).
+ */
+public record TransactionWriteState(
+        Long userId,
+        Long categoryId,
+        BigDecimal amount,
+        TransactionType type,
+        LocalDate transactionDate,
+        Boolean isDeleted,
+        Long version,
+        Long ownedCategoryCount
+) {
+
+    public boolean categoryOwnedByUser() {
+        return ownedCategoryCount > 0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.smartbudget.service;
+
+import com.smartbudget.dto.BudgetAlertDto;
+import com.smartbudget.dto.BudgetStatusDto;
+import com.smartbudget.dto.CategoryBudgetDto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface BudgetService {
+
+    CategoryBudgetDto save(CategoryBudgetDto budgetDto);
+
+    List<BudgetStatusDto> findStatusByUserId(Long userId, YearMonth month);
+
+    List<BudgetAlertDto> findAlertsByUserId(Long userId);
+
+    void delete(Long budgetId);
+}
@@ -13,4 +13,6 @@ public interface CategoryService {
     List<CategoryDto> findAllByUserId(Long userId);
 
     void delete(Long categoryId);
+
+    CategoryDto merge(Long categoryId, Long targetCategoryId);
 }
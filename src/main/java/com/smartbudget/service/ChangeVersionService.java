@@ -0,0 +1,25 @@
+package com.smartbudget.service;
+
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+
+/**
+ * Per-user change versions for conditional GETs: the version changes with every write of the
+ * user's transactions or categories, so a client holding the current version can be answered
+ * without running the read itself.
+ */
+public interface ChangeVersionService {
+
+    /**
+     * A read result with the change version it reflects; {@code value} is null if the read was skipped.
+     */
+    record Versioned<T>(long version, T value) {
+    }
+
+    /**
+     * Read the user's change version and, unless {@code unchanged} accepts it, run {@code read} in the
+     * same read-only transaction. The version is read first, so the data is never older than it;
+     * {@code read} gets it, so that results cached outside the transaction can be keyed by it.
+     */
+    <T> Versioned<T> readIfChanged(Long userId, LongPredicate unchanged, LongFunction<T> read);
+}
@@ -0,0 +1,37 @@
+package com.smartbudget.service;
+
+import com.smartbudget.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+/**
+ * Supported formats of the transaction export.
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    ExportFormat(String mediaType, String fileExtension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static ExportFormat fromParameter(String value) {
+        for (ExportFormat format : values()) {
+            if (format.fileExtension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported export format: " + value);
+    }
+}
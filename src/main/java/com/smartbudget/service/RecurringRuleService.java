@@ -0,0 +1,14 @@
+package com.smartbudget.service;
+
+import com.smartbudget.dto.RecurringRuleDto;
+
+import java.util.List;
+
+public interface RecurringRuleService {
+
+    RecurringRuleDto save(RecurringRuleDto ruleDto);
+
+    List<RecurringRuleDto> findAllByUserId(Long userId);
+
+    void delete(Long ruleId);
+}
@@ -0,0 +1,10 @@
+package com.smartbudget.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+
+public interface SummaryStreamService {
+
+    SseEmitter subscribe(Long userId, LocalDate start, LocalDate end);
+}
@@ -0,0 +1,55 @@
+package com.smartbudget.service;
+
+import com.smartbudget.exception.BadRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket sizes of the cash-flow time series. Buckets are labelled by their first day,
+ * like date_trunc: weeks start on Monday, months on the 1st.
+ */
+public enum TimeSeriesGranularity {
+    DAY(ChronoUnit.DAYS),
+    WEEK(ChronoUnit.WEEKS),
+    MONTH(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    TimeSeriesGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * First day of the bucket containing the given date.
+     */
+    public LocalDate truncate(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Number of whole buckets between two bucket starts.
+     */
+    public int bucketsBetween(LocalDate firstBucket, LocalDate bucket) {
+        return (int) unit.between(firstBucket, bucket);
+    }
+
+    public LocalDate plusBuckets(LocalDate bucket, long buckets) {
+        return bucket.plus(buckets, unit);
+    }
+
+    public static TimeSeriesGranularity fromParameter(String value) {
+        for (TimeSeriesGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new BadRequestException("Unsupported granularity: " + value);
+    }
+}
@@ -0,0 +1,9 @@
+package com.smartbudget.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TransactionExportService {
+
+    void exportByUserId(Long userId, ExportFormat format, OutputStream out) throws IOException;
+}
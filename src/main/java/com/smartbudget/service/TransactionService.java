@@ -1,7 +1,13 @@
 package com.smartbudget.service;
 
+import com.smartbudget.dto.SummaryCacheStatsDto;
 import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.dto.TimeSeriesDto;
+import com.smartbudget.dto.TransactionBatchResultDto;
+import com.smartbudget.dto.TransactionBulkRequestDto;
+import com.smartbudget.dto.TransactionBulkResultDto;
 import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.dto.TransactionPageDto;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -10,13 +16,33 @@ public interface TransactionService {
 
     TransactionDto save(TransactionDto transactionDto);
 
+    TransactionBatchResultDto saveBatch(List<TransactionDto> transactionDtos);
+
     TransactionDto findById(Long id);
 
     List<TransactionDto> findAllByUserId(Long userId);
 
     List<TransactionDto> findByUserIdAndDateRange(Long userId, LocalDate start, LocalDate end);
 
+    TransactionPageDto findPageByUserId(Long userId, String cursor, Integer limit);
+
+    TransactionPageDto findPageByUserIdAndDateRange(Long userId, LocalDate start, LocalDate end, String cursor, Integer limit);
+
     void delete(Long transactionId);
 
+    TransactionBulkResultDto deleteBulk(TransactionBulkRequestDto request);
+
+    TransactionBulkResultDto restoreBulk(TransactionBulkRequestDto request);
+
     SummaryDto getSummary(Long userId, LocalDate start, LocalDate end);
+
+    /**
+     * {@link #getSummary(Long, LocalDate, LocalDate)} as of the given change version, read in the
+     * same transaction; a summary cached at another version is not used.
+     */
+    SummaryDto getSummary(Long userId, LocalDate start, LocalDate end, long changeVersion);
+
+    SummaryCacheStatsDto getSummaryCacheStats();
+
+    TimeSeriesDto getTimeSeries(Long userId, LocalDate start, LocalDate end, TimeSeriesGranularity granularity);
 }
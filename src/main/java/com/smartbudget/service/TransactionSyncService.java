@@ -0,0 +1,8 @@
+package com.smartbudget.service;
+
+import com.smartbudget.dto.TransactionChangesDto;
+
+public interface TransactionSyncService {
+
+    TransactionChangesDto findChanges(Long userId, String since, Integer limit);
+}
@@ -0,0 +1,145 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.BudgetAlertDto;
+import com.smartbudget.dto.BudgetStatusDto;
+import com.smartbudget.dto.CategoryBudgetDto;
+import com.smartbudget.entity.BudgetAlert;
+import com.smartbudget.entity.CategoryBudget;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.exception.BadRequestException;
+import com.smartbudget.exception.ConflictException;
+import com.smartbudget.exception.ResourceNotFoundException;
+import com.smartbudget.repository.BudgetAlertRepository;
+import com.smartbudget.repository.CategoryBudgetRepository;
+import com.smartbudget.repository.CategoryRepository;
+import com.smartbudget.repository.TransactionDailyRollupRepository;
+import com.smartbudget.repository.projection.BudgetSpend;
+import com.smartbudget.repository.projection.CategoryTotal;
+import com.smartbudget.service.BudgetService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class BudgetServiceImpl implements BudgetService {
+
+    static final int MAX_ALERTS = 100;
+
+    private final CategoryBudgetRepository budgetRepository;
+    private final BudgetAlertRepository alertRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionDailyRollupRepository rollupRepository;
+    private final BudgetTracker budgetTracker;
+    private final ReadYourWrites readYourWrites;
+
+    public BudgetServiceImpl(CategoryBudgetRepository budgetRepository, BudgetAlertRepository alertRepository,
+                             CategoryRepository categoryRepository, TransactionDailyRollupRepository rollupRepository,
+                             BudgetTracker budgetTracker, ReadYourWrites readYourWrites) {
+        this.budgetRepository = budgetRepository;
+        this.alertRepository = alertRepository;
+        this.categoryRepository = categoryRepository;
+        this.rollupRepository = rollupRepository;
+        this.budgetTracker = budgetTracker;
+        this.readYourWrites = readYourWrites;
+    }
+
+    /**
+     * Create the budget of a category or change its limit. The thresholds of the current month are
+     * checked right away, so a limit below the spend so far is alerted without waiting for the next write.
+     */
+    @Override
+    public CategoryBudgetDto save(CategoryBudgetDto budgetDto) {
+        CategoryBudget budget;
+        if (budgetDto.getId() != null) {
+            budget = budgetRepository.findForUpdateById(budgetDto.getId())
+                    .filter(existing -> existing.getUserId().equals(budgetDto.getUserId()))
+                    .orElseThrow(() -> new ResourceNotFoundException("Budget not found with id=" + budgetDto.getId()));
+            if (!budget.getCategoryId().equals(budgetDto.getCategoryId())) {
+                throw new BadRequestException("The category of a budget cannot be changed");
+            }
+            budget.setMonthlyLimit(budgetDto.getMonthlyLimit());
+        } else {
+            if (!categoryRepository.existsByIdAndUserId(budgetDto.getCategoryId(), budgetDto.getUserId())) {
+                throw new ResourceNotFoundException("Category not found with id=" + budgetDto.getCategoryId());
+            }
+            if (budgetRepository.findByCategoryId(budgetDto.getCategoryId()).isPresent()) {
+                throw new ConflictException("Category " + budgetDto.getCategoryId() + " already has a budget");
+            }
+            budget = budgetRepository.save(new CategoryBudget(null, budgetDto.getUserId(), budgetDto.getCategoryId(),
+                    budgetDto.getMonthlyLimit(), null, null));
+        }
+        budgetTracker.record(budget, LocalDate.now().withDayOfMonth(1), BigDecimal.ZERO);
+        return toDto(budget);
+    }
+
+    /**
+     * The state of a user's budgets in a month, from the spend counters. Budgets without a counter for
+     * that month (no write since the budget was created) are filled in from one grouped rollup query.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<BudgetStatusDto> findStatusByUserId(Long userId, YearMonth month) {
+        readYourWrites.reading(userId);
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+        List<BudgetSpend> rows = budgetRepository.findSpendByUserId(userId, start);
+
+        Map<Long, BigDecimal> uncounted = new HashMap<>();
+        if (rows.stream().anyMatch(row -> row.spent() == null)) {
+            for (CategoryTotal total : rollupRepository.summarizeByUserAndDateRange(userId, start, end)) {
+                if (total.type() == TransactionType.EXPENSE && total.categoryId() != null) {
+                    uncounted.put(total.categoryId(), total.amount());
+                }
+            }
+        }
+
+        List<BudgetStatusDto> statuses = new ArrayList<>(rows.size());
+        for (BudgetSpend row : rows) {
+            BigDecimal spent = row.spent() != null ? row.spent() : uncounted.getOrDefault(row.categoryId(), BigDecimal.ZERO);
+            int percentUsed = spent.movePointRight(2).divide(row.monthlyLimit(), 0, RoundingMode.FLOOR).intValue();
+            statuses.add(new BudgetStatusDto(row.budgetId(), row.categoryId(), row.categoryName(), start, end,
+                    row.monthlyLimit(), spent, row.monthlyLimit().subtract(spent), percentUsed,
+                    row.alertedPercent() != null ? row.alertedPercent() : 0));
+        }
+        return statuses;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BudgetAlertDto> findAlertsByUserId(Long userId) {
+        readYourWrites.reading(userId);
+        return alertRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, PageRequest.of(0, MAX_ALERTS)).stream()
+                .map(BudgetServiceImpl::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Delete a budget together with its counters and alerts.
+     */
+    @Override
+    public void delete(Long budgetId) {
+        CategoryBudget budget = budgetRepository.findById(budgetId)
+                .orElseThrow(() -> new ResourceNotFoundException("Budget not found with id=" + budgetId));
+        budgetRepository.delete(budget);
+    }
+
+    static CategoryBudgetDto toDto(CategoryBudget budget) {
+        return new CategoryBudgetDto(budget.getId(), budget.getUserId(), budget.getCategoryId(), budget.getMonthlyLimit());
+    }
+
+    static BudgetAlertDto toDto(BudgetAlert alert) {
+        return new BudgetAlertDto(alert.getId(), alert.getBudgetId(), alert.getCategoryId(), alert.getPeriodStart(),
+                alert.getThresholdPercent(), alert.getSpent(), alert.getMonthlyLimit(), alert.getCreatedAt());
+    }
+}
@@ -0,0 +1,132 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.entity.BudgetAlert;
+import com.smartbudget.entity.BudgetPeriod;
+import com.smartbudget.entity.CategoryBudget;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.repository.BudgetAlertRepository;
+import com.smartbudget.repository.BudgetPeriodRepository;
+import com.smartbudget.repository.CategoryBudgetRepository;
+import com.smartbudget.repository.TransactionDailyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the monthly spend counters of category budgets in step with the transaction write path and
+ * raises the threshold alerts. Must run inside the transaction that changes the underlying
+ * transactions, after the daily rollups were updated.
+ * <p>
+ * Every update locks the budget row first, so the writers of one budget are serialized until they
+ * commit: a month's counter row is created once, and a threshold is alerted once per month because
+ * alertedPercent only grows. Writes without budgeted EXPENSE changes issue no statement.
+ */
+@Component
+public class BudgetTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetTracker.class);
+
+    static final int[] THRESHOLDS = {80, 100};
+
+    private final CategoryBudgetRepository budgetRepository;
+    private final BudgetPeriodRepository periodRepository;
+    private final BudgetAlertRepository alertRepository;
+    private final TransactionDailyRollupRepository rollupRepository;
+
+    public BudgetTracker(CategoryBudgetRepository budgetRepository, BudgetPeriodRepository periodRepository,
+                         BudgetAlertRepository alertRepository, TransactionDailyRollupRepository rollupRepository) {
+        this.budgetRepository = budgetRepository;
+        this.periodRepository = periodRepository;
+        this.alertRepository = alertRepository;
+        this.rollupRepository = rollupRepository;
+    }
+
+    /**
+     * Add the EXPENSE changes of a unit of work to the counters of the affected budgets.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(RollupDelta delta) {
+        // category -> month -> amount
+        Map<Long, Map<LocalDate, BigDecimal>> spend = new HashMap<>();
+        delta.getChanges().forEach((key, change) -> {
+            if (key.type() == TransactionType.EXPENSE && key.categoryId() != null) {
+                spend.computeIfAbsent(key.categoryId(), id -> new TreeMap<>())
+                        .merge(key.date().withDayOfMonth(1), change.amount(), BigDecimal::add);
+            }
+        });
+        if (spend.isEmpty()) {
+            return;
+        }
+        for (CategoryBudget budget : budgetRepository.findForUpdateByCategoryIds(spend.keySet())) {
+            spend.get(budget.getCategoryId()).forEach((month, amount) -> record(budget, month, amount));
+        }
+    }
+
+    /**
+     * Recompute the counters of a category's budget after its rollups were rebuilt, e.g. by a category
+     * merge, then check the thresholds of the current month.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recompute(Long categoryId) {
+        for (CategoryBudget budget : budgetRepository.findForUpdateByCategoryIds(List.of(categoryId))) {
+            periodRepository.recomputeFromRollups(budget.getId(), budget.getUserId(), budget.getCategoryId());
+            record(budget, LocalDate.now().withDayOfMonth(1), BigDecimal.ZERO);
+        }
+    }
+
+    /**
+     * Add an amount to a budget's counter of a month (zero just checks the thresholds, e.g. after the
+     * limit changed) and raise the thresholds newly reached. The caller holds the budget lock.
+     *
+     * @return the counter
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BudgetPeriod record(CategoryBudget budget, LocalDate month, BigDecimal amount) {
+        BudgetPeriod period = periodRepository.findByBudgetIdAndPeriodStart(budget.getId(), month).orElse(null);
+        if (period == null) {
+            // first change of the month since the budget exists: start from the rollups, which
+            // already contain the changes of this transaction
+            LocalDate end = month.plusMonths(1).minusDays(1);
+            BigDecimal spent = rollupRepository.sumExpenseByCategoryAndDateRange(budget.getUserId(), budget.getCategoryId(), month, end);
+            period = periodRepository.save(new BudgetPeriod(null, budget.getId(), month, end, spent, 0));
+        } else {
+            period.setSpent(period.getSpent().add(amount));
+        }
+
+        int reached = reachedThreshold(period.getSpent(), budget.getMonthlyLimit());
+        for (int threshold : THRESHOLDS) {
+            if (threshold > period.getAlertedPercent() && threshold <= reached) {
+                alertRepository.save(new BudgetAlert(null, budget.getId(), budget.getUserId(), budget.getCategoryId(),
+                        month, threshold, period.getSpent(), budget.getMonthlyLimit(), null));
+                log.info("Budget {} of user {} reached {}% in {}", budget.getId(), budget.getUserId(), threshold, month);
+            }
+        }
+        if (reached > period.getAlertedPercent()) {
+            period.setAlertedPercent(reached);
+        }
+        return period;
+    }
+
+    /**
+     * The highest threshold that the spend has reached, 0 if none.
+     */
+    static int reachedThreshold(BigDecimal spent, BigDecimal limit) {
+        int reached = 0;
+        BigDecimal hundredfold = spent.movePointRight(2);
+        for (int threshold : THRESHOLDS) {
+            if (hundredfold.compareTo(limit.multiply(BigDecimal.valueOf(threshold))) >= 0) {
+                reached = threshold;
+            }
+        }
+        return reached;
+    }
+}
@@ -3,15 +3,20 @@ package com.smartbudget.service.impl;
 import com.smartbudget.dto.CategoryDto;
 import com.smartbudget.entity.Category;
 import com.smartbudget.entity.User;
+import com.smartbudget.exception.BadRequestException;
 import com.smartbudget.exception.ResourceNotFoundException;
 import com.smartbudget.repository.CategoryRepository;
+import com.smartbudget.repository.RecurringRuleRepository;
+import com.smartbudget.repository.TransactionDailyRollupRepository;
+import com.smartbudget.repository.TransactionRepository;
 import com.smartbudget.repository.UserRepository;
 import com.smartbudget.service.CategoryService;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -19,10 +24,29 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionDailyRollupRepository rollupRepository;
+    private final RecurringRuleRepository ruleRepository;
+    private final BudgetTracker budgetTracker;
+    private final SummaryCache summaryCache;
+    private final ChangeVersionServiceImpl changeVersions;
+    private final ReadYourWrites readYourWrites;
+    private final EntityManager entityManager;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository, UserRepository userRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, UserRepository userRepository,
+                               TransactionRepository transactionRepository, TransactionDailyRollupRepository rollupRepository,
+                               RecurringRuleRepository ruleRepository, BudgetTracker budgetTracker, SummaryCache summaryCache, ChangeVersionServiceImpl changeVersions,
+                               ReadYourWrites readYourWrites, EntityManager entityManager) {
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.rollupRepository = rollupRepository;
+        this.ruleRepository = ruleRepository;
+        this.budgetTracker = budgetTracker;
+        this.summaryCache = summaryCache;
+        this.changeVersions = changeVersions;
+        this.readYourWrites = readYourWrites;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -43,37 +67,89 @@ public class CategoryServiceImpl implements CategoryService {
         category.setDescription(categoryDto.getDescription());
         category.setIsDefault(categoryDto.getIsDefault());
 
+        // like every write, take the user's change version first (see ChangeVersionServiceImpl.changed)
+        changeVersions.changed(user.getId());
         Category saved = categoryRepository.save(category);
+        if (categoryDto.getId() != null) {
+            // cached summaries show category names in their breakdown
+            summaryCache.invalidateUser(user.getId());
+        }
         return toDto(saved);
     }
 
     @Override
     @Transactional(readOnly = true)
     public CategoryDto findById(Long categoryId) {
-        Category category = categoryRepository.findById(categoryId)
+        return categoryRepository.findDtoById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id=" + categoryId));
-        return toDto(category);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CategoryDto> findAllByUserId(Long userId) {
-        return categoryRepository.findByUserId(userId)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        readYourWrites.reading(userId);
+        return categoryRepository.findDtosByUserId(userId);
     }
 
+    /**
+     * Delete a category; its transactions and recurring rules become uncategorized and its budget is deleted with it
+     * (ON DELETE CASCADE). A constant number of statements regardless of how many transactions use the category, none
+     * of which are loaded.
+     */
     @Override
     public void delete(Long categoryId) {
-        if (!categoryRepository.existsById(categoryId)) {
-            throw new ResourceNotFoundException("Category not found with id=" + categoryId);
+        CategoryDto category = findById(categoryId);
+        // Rules before the change version: the materializer locks them in that order
+        ruleRepository.reassignCategory(categoryId, null, LocalDateTime.now());
+        long changeVersion = changeVersions.changed(category.getUserId());
+        if (transactionRepository.clearCategory(categoryId, LocalDateTime.now(), changeVersion) > 0) {
+            rebuildRollups(category.getUserId(), categoryId, null);
+        }
+        categoryRepository.deleteDirectlyById(categoryId);
+        summaryCache.invalidateUser(category.getUserId());
+    }
+
+    /**
+     * Move all transactions and recurring rules of a category to another category of the same user and type, then
+     * delete it.
+     */
+    @Override
+    public CategoryDto merge(Long categoryId, Long targetCategoryId) {
+        if (categoryId.equals(targetCategoryId)) {
+            throw new BadRequestException("A category cannot be merged into itself");
         }
-        // Consider reassigning transactions or blocking delete if in use
-        categoryRepository.deleteById(categoryId);
+        CategoryDto source = findById(categoryId);
+        CategoryDto target = findById(targetCategoryId);
+        if (!source.getUserId().equals(target.getUserId())) {
+            throw new ResourceNotFoundException("Category not found with id=" + targetCategoryId);
+        }
+        if (source.getType() != target.getType()) {
+            throw new BadRequestException("Only categories of the same type can be merged");
+        }
+
+        // Rules before the change version: the materializer locks them in that order
+        ruleRepository.reassignCategory(categoryId, targetCategoryId, LocalDateTime.now());
+        long changeVersion = changeVersions.changed(source.getUserId());
+        if (transactionRepository.reassignCategory(categoryId, entityManager.getReference(Category.class, targetCategoryId),
+                LocalDateTime.now(), changeVersion) > 0) {
+            rebuildRollups(source.getUserId(), categoryId, targetCategoryId);
+            budgetTracker.recompute(targetCategoryId);
+        }
+        categoryRepository.deleteDirectlyById(categoryId);
+        summaryCache.invalidateUser(source.getUserId());
+        return target;
+    }
+
+    /**
+     * Recompute the rollup rows of the category that received the transactions from the transactions
+     * themselves (one DELETE, one INSERT ... SELECT), instead of adding the old rows into the new ones key by key.
+     */
+    private void rebuildRollups(Long userId, Long categoryId, Long targetCategoryId) {
+        rollupRepository.deleteForCategories(userId, categoryId, targetCategoryId);
+        rollupRepository.rebuildForCategory(userId, targetCategoryId);
     }
 
-    private CategoryDto toDto(Category category) {
+    static CategoryDto toDto(Category category) {
         CategoryDto dto = new CategoryDto();
         dto.setId(category.getId());
         dto.setUserId(category.getUser().getId());
@@ -0,0 +1,80 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.entity.UserChangeVersion;
+import com.smartbudget.repository.UserChangeVersionRepository;
+import com.smartbudget.repository.UserRepository;
+import com.smartbudget.service.ChangeVersionService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+
+@Service
+public class ChangeVersionServiceImpl implements ChangeVersionService {
+
+    private final UserChangeVersionRepository versionRepository;
+    private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
+
+    public ChangeVersionServiceImpl(UserChangeVersionRepository versionRepository, UserRepository userRepository,
+                                    ReadYourWrites readYourWrites) {
+        this.versionRepository = versionRepository;
+        this.userRepository = userRepository;
+        this.readYourWrites = readYourWrites;
+    }
+
+    /**
+     * Record a change of the user's data and return the user's new version: one UPDATE of the user's
+     * counter (an INSERT on the first write) and one SELECT, committed with the change itself.
+     * <p>
+     * Call it before writing the user's rows and stamp them with the result. The counter stays locked
+     * until the transaction ends, so the versions of a user's writes are committed in increasing order,
+     * which is what the delta sync relies on.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long changed(Long userId) {
+        readYourWrites.wrote(userId);
+        if (versionRepository.increment(userId) > 0) {
+            return versionRepository.sumVersionByUserId(userId);
+        }
+        // first write of the user: the user row serializes concurrent first writes, so only one inserts a counter
+        userRepository.findForUpdateById(userId);
+        if (versionRepository.increment(userId) > 0) {
+            return versionRepository.sumVersionByUserId(userId);
+        }
+        versionRepository.save(new UserChangeVersion(null, userId, 1L));
+        return 1L;
+    }
+
+    /**
+     * {@link #changed(Long)} for several users, taken in user id order so that concurrent writers
+     * touching the same users cannot deadlock on the counters.
+     *
+     * @return the new version of every user
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Long> changed(Collection<Long> userIds) {
+        Map<Long, Long> versions = new TreeMap<>();
+        for (Long userId : new TreeSet<>(userIds)) {
+            versions.put(userId, changed(userId));
+        }
+        return versions;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> Versioned<T> readIfChanged(Long userId, LongPredicate unchanged, LongFunction<T> read) {
+        readYourWrites.reading(userId);
+        long version = versionRepository.sumVersionByUserId(userId);
+        if (unchanged.test(version)) {
+            return new Versioned<>(version, null);
+        }
+        return new Versioned<>(version, read.apply(version));
+    }
+}
@@ -0,0 +1,91 @@
+package com.smartbudget.service.impl;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable sum of money amounts, kept as a {@code long} number of cents so that adding a row
+ * allocates nothing. Amounts with more than two decimals, or sums leaving the {@code long}
+ * range, switch the accumulator to an exact {@link BigDecimal} sum. Convert with
+ * {@link #toBigDecimal()} only where the value leaves the service (DTOs, entities).
+ */
+final class MoneyAccumulator {
+
+    /** Scale of {@code transactions.amount}, NUMERIC(14,2). */
+    static final int SCALE = 2;
+
+    // with at most 15 digits the amount's double value is within 2^-3 of the cents, see toCents
+    private static final int MAX_CENT_DIGITS = 15;
+    private static final long NOT_CENTS = Long.MIN_VALUE;
+
+    private long cents;
+    // non-null once the sum no longer fits the cents representation
+    private BigDecimal exact;
+
+    void add(BigDecimal amount) {
+        if (exact == null) {
+            long amountCents = toCents(amount);
+            if (amountCents != NOT_CENTS) {
+                addCents(amountCents);
+                return;
+            }
+            exact = BigDecimal.valueOf(cents, SCALE);
+        }
+        exact = exact.add(amount);
+    }
+
+    void subtract(BigDecimal amount) {
+        if (exact == null) {
+            long amountCents = toCents(amount);
+            if (amountCents != NOT_CENTS) {
+                addCents(-amountCents);
+                return;
+            }
+            exact = BigDecimal.valueOf(cents, SCALE);
+        }
+        exact = exact.subtract(amount);
+    }
+
+    void add(MoneyAccumulator other) {
+        if (exact == null && other.exact == null) {
+            addCents(other.cents);
+        } else {
+            exact = toBigDecimal().add(other.toBigDecimal());
+        }
+    }
+
+    void addCents(long amountCents) {
+        if (exact != null) {
+            exact = exact.add(BigDecimal.valueOf(amountCents, SCALE));
+            return;
+        }
+        long sum = cents + amountCents;
+        if (((cents ^ sum) & (amountCents ^ sum)) < 0) {
+            // long overflow: continue exactly
+            exact = BigDecimal.valueOf(cents, SCALE).add(BigDecimal.valueOf(amountCents, SCALE));
+            return;
+        }
+        cents = sum;
+    }
+
+    boolean isZero() {
+        return exact == null ? cents == 0 : exact.signum() == 0;
+    }
+
+    BigDecimal toBigDecimal() {
+        return exact != null ? exact : BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * The amount in cents, or NOT_CENTS if it has more than two decimals or too many digits.
+     * For amounts below 10^15 cents BigDecimal.doubleValue() is a single, correctly rounded
+     * division of the unscaled value and allocates nothing; its error is far below half a cent,
+     * so rounding the scaled double recovers the exact number of cents.
+     */
+    private static long toCents(BigDecimal amount) {
+        int scale = amount.scale();
+        if (scale < 0 || scale > SCALE || amount.precision() + (SCALE - scale) > MAX_CENT_DIGITS) {
+            return NOT_CENTS;
+        }
+        return Math.round(amount.doubleValue() * 100);
+    }
+}
@@ -0,0 +1,92 @@
+package com.smartbudget.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users wrote within the last {@code window} so that their read-only transactions
+ * stay on the primary database while the replicas may still lag behind the write (see
+ * {@link com.smartbudget.config.ReplicaRoutingDataSource}). Only tracks anything when replicas are
+ * configured and the window is positive.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final Cache<Long, Boolean> recentWriters;
+    private final ThreadLocal<Boolean> primaryRequired = new ThreadLocal<>();
+
+    @Autowired
+    public ReadYourWrites(@Value("${smartbudget.replicas.urls:}") String replicaUrls,
+                          @Value("${smartbudget.replicas.read-your-writes:5s}") Duration window) {
+        this(StringUtils.hasText(replicaUrls) ? window : Duration.ZERO);
+    }
+
+    ReadYourWrites(Duration window) {
+        this.recentWriters = window.isZero() || window.isNegative() ? null : Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * Record a write of the user. The window starts again when the surrounding transaction
+     * completes, since the replicas only receive the change after the commit.
+     */
+    public void wrote(Long userId) {
+        if (recentWriters == null) {
+            return;
+        }
+        recentWriters.put(userId, Boolean.TRUE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    recentWriters.put(userId, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    /**
+     * Declare whose data the current read-only transaction reads. Must be called before its first
+     * statement, which is when the connection is chosen; keeps the transaction on the primary if
+     * the user wrote within the window.
+     */
+    public void reading(Long userId) {
+        if (recentWriters != null && userId != null && recentWriters.getIfPresent(userId) != null) {
+            requirePrimary();
+        }
+    }
+
+    /**
+     * Keep the current read-only transaction on the primary regardless of recent writes, for reads
+     * that must not miss any committed change. Must be called before its first statement.
+     */
+    public void requirePrimary() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || primaryRequired.get() != null) {
+            return;
+        }
+        primaryRequired.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                primaryRequired.remove();
+            }
+        });
+    }
+
+    /**
+     * Whether the current transaction has to read from the primary.
+     */
+    public boolean isPrimaryRequired() {
+        return primaryRequired.get() != null;
+    }
+}
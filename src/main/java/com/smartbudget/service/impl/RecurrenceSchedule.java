@@ -0,0 +1,74 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.entity.RecurrenceFrequency;
+import com.smartbudget.entity.RecurringRule;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Occurrence dates of a recurring rule. DAILY, WEEKLY and MONTHLY rules occur every
+ * {@code intervalCount} days, weeks or months counted from the start date; a monthly rule starting
+ * on the 31st falls on the last day of shorter months. CRON rules occur on the days matched by the
+ * day-of-month, month and day-of-week fields of a cron expression, e.g. {@code "1,15 * *"} or
+ * {@code "L * *"}.
+ */
+final class RecurrenceSchedule {
+
+    private RecurrenceSchedule() {
+    }
+
+    /**
+     * Parse the three date fields of a CRON rule.
+     *
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    static CronExpression parseCron(String dateFields) {
+        return CronExpression.parse("0 0 0 " + dateFields.trim());
+    }
+
+    /**
+     * The first occurrence on or after the start date, or null if there is none until the end date.
+     */
+    static LocalDate first(RecurringRule rule) {
+        return next(rule, rule.getStartDate().minusDays(1));
+    }
+
+    /**
+     * The first occurrence strictly after the given day, or null if there is none until the end date.
+     */
+    static LocalDate next(RecurringRule rule, LocalDate after) {
+        LocalDate start = rule.getStartDate();
+        if (after.isBefore(start)) {
+            after = start.minusDays(1);
+        }
+
+        LocalDate next;
+        if (rule.getFrequency() == RecurrenceFrequency.CRON) {
+            LocalDateTime match = parseCron(rule.getCronExpression()).next(after.atStartOfDay());
+            next = match != null ? match.toLocalDate() : null;
+        } else {
+            ChronoUnit unit = unit(rule.getFrequency());
+            long every = rule.getIntervalCount();
+            // count from the start date, so the 31st is not lost after a short month
+            long steps = Math.max(0, unit.between(start, after)) / every * every;
+            next = start.plus(steps, unit);
+            while (!next.isAfter(after)) {
+                steps += every;
+                next = start.plus(steps, unit);
+            }
+        }
+        return next == null || (rule.getEndDate() != null && next.isAfter(rule.getEndDate())) ? null : next;
+    }
+
+    private static ChronoUnit unit(RecurrenceFrequency frequency) {
+        return switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS;
+            case WEEKLY -> ChronoUnit.WEEKS;
+            case MONTHLY -> ChronoUnit.MONTHS;
+            case CRON -> throw new IllegalArgumentException("No fixed interval for " + frequency);
+        };
+    }
+}
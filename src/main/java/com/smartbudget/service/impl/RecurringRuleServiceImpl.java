@@ -0,0 +1,114 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.RecurringRuleDto;
+import com.smartbudget.entity.RecurrenceFrequency;
+import com.smartbudget.entity.RecurringRule;
+import com.smartbudget.exception.BadRequestException;
+import com.smartbudget.exception.ResourceNotFoundException;
+import com.smartbudget.repository.CategoryRepository;
+import com.smartbudget.repository.RecurringRuleRepository;
+import com.smartbudget.service.RecurringRuleService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class RecurringRuleServiceImpl implements RecurringRuleService {
+
+    private final RecurringRuleRepository ruleRepository;
+    private final CategoryRepository categoryRepository;
+    private final ReadYourWrites readYourWrites;
+
+    public RecurringRuleServiceImpl(RecurringRuleRepository ruleRepository, CategoryRepository categoryRepository,
+                                    ReadYourWrites readYourWrites) {
+        this.ruleRepository = ruleRepository;
+        this.categoryRepository = categoryRepository;
+        this.readYourWrites = readYourWrites;
+    }
+
+    /**
+     * Create a rule or change its schedule and template. The next run date is recomputed from the
+     * new schedule, continuing after the last occurrence already created, so a change never creates
+     * an occurrence twice. Occurrences up to today are created by the next scheduler run.
+     */
+    @Override
+    public RecurringRuleDto save(RecurringRuleDto ruleDto) {
+        validate(ruleDto);
+        RecurringRule rule;
+        if (ruleDto.getId() != null) {
+            // waits for a scheduler that is materializing the rule
+            rule = ruleRepository.findForUpdateById(ruleDto.getId())
+                    .filter(existing -> existing.getUserId().equals(ruleDto.getUserId()))
+                    .orElseThrow(() -> new ResourceNotFoundException("Recurring rule not found with id=" + ruleDto.getId()));
+        } else {
+            rule = new RecurringRule();
+            rule.setUserId(ruleDto.getUserId());
+        }
+        rule.setCategoryId(ruleDto.getCategoryId());
+        rule.setAmount(ruleDto.getAmount());
+        rule.setType(ruleDto.getType());
+        rule.setDescription(ruleDto.getDescription());
+        rule.setFrequency(ruleDto.getFrequency());
+        rule.setIntervalCount(ruleDto.getIntervalCount() != null ? ruleDto.getIntervalCount() : 1);
+        rule.setCronExpression(ruleDto.getFrequency() == RecurrenceFrequency.CRON ? ruleDto.getCronExpression().trim() : null);
+        rule.setStartDate(ruleDto.getStartDate());
+        rule.setEndDate(ruleDto.getEndDate());
+        rule.setNextRunDate(rule.getLastRunDate() != null
+                ? RecurrenceSchedule.next(rule, rule.getLastRunDate())
+                : RecurrenceSchedule.first(rule));
+
+        RecurringRule saved = ruleRepository.save(rule);
+        readYourWrites.wrote(saved.getUserId());
+        return toDto(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RecurringRuleDto> findAllByUserId(Long userId) {
+        readYourWrites.reading(userId);
+        return ruleRepository.findByUserIdOrderById(userId).stream()
+                .map(RecurringRuleServiceImpl::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Delete a rule. The transactions it created are kept.
+     */
+    @Override
+    public void delete(Long ruleId) {
+        RecurringRule rule = ruleRepository.findForUpdateById(ruleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurring rule not found with id=" + ruleId));
+        ruleRepository.delete(rule);
+        readYourWrites.wrote(rule.getUserId());
+    }
+
+    private void validate(RecurringRuleDto ruleDto) {
+        if (ruleDto.getEndDate() != null && ruleDto.getEndDate().isBefore(ruleDto.getStartDate())) {
+            throw new BadRequestException("The end date must not be before the start date");
+        }
+        if (ruleDto.getFrequency() == RecurrenceFrequency.CRON) {
+            if (!StringUtils.hasText(ruleDto.getCronExpression())) {
+                throw new BadRequestException("A CRON rule requires a cron expression");
+            }
+            try {
+                RecurrenceSchedule.parseCron(ruleDto.getCronExpression());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cron expression '" + ruleDto.getCronExpression() + "': " + e.getMessage());
+            }
+        }
+        if (ruleDto.getCategoryId() != null
+                && !categoryRepository.existsByIdAndUserId(ruleDto.getCategoryId(), ruleDto.getUserId())) {
+            throw new ResourceNotFoundException("Category not found with id=" + ruleDto.getCategoryId());
+        }
+    }
+
+    static RecurringRuleDto toDto(RecurringRule rule) {
+        return new RecurringRuleDto(rule.getId(), rule.getUserId(), rule.getCategoryId(), rule.getAmount(), rule.getType(),
+                rule.getDescription(), rule.getFrequency(), rule.getIntervalCount(), rule.getCronExpression(),
+                rule.getStartDate(), rule.getEndDate(), rule.getLastRunDate(), rule.getNextRunDate());
+    }
+}
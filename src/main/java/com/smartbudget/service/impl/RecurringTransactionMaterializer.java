@@ -0,0 +1,112 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.RecurringRule;
+import com.smartbudget.entity.Transaction;
+import com.smartbudget.entity.User;
+import com.smartbudget.repository.RecurringRuleRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the transactions of due recurring rules, one bounded batch per call. Must run inside the
+ * transaction that commits the batch.
+ * <p>
+ * A batch claims at most {@code batchSize} due rules and creates at most {@code batchSize}
+ * transactions: all missed occurrences of a rule up to today (after downtime, too) while the budget
+ * lasts, a rule cut short keeping its earliest missing occurrence as next run date. The inserts go
+ * out as JDBC batches, and rollups, budget counters and cached summaries are updated once for
+ * the whole batch. The rules advance in the same transaction, so an occurrence
+ * is created exactly once whether the batch commits or rolls back.
+ */
+@Component
+public class RecurringTransactionMaterializer {
+
+    private final RecurringRuleRepository ruleRepository;
+    private final TransactionRollupUpdater rollupUpdater;
+    private final BudgetTracker budgetTracker;
+    private final SummaryCache summaryCache;
+    private final ChangeVersionServiceImpl changeVersions;
+    private final EntityManager entityManager;
+    // null until the first batch; H2 2.1 rejects FOR UPDATE SKIP LOCKED (whatever dialect is configured)
+    private volatile Boolean skipLocked;
+
+    public RecurringTransactionMaterializer(RecurringRuleRepository ruleRepository, TransactionRollupUpdater rollupUpdater,
+                                            BudgetTracker budgetTracker, SummaryCache summaryCache,
+                                            ChangeVersionServiceImpl changeVersions, EntityManager entityManager) {
+        this.ruleRepository = ruleRepository;
+        this.rollupUpdater = rollupUpdater;
+        this.budgetTracker = budgetTracker;
+        this.summaryCache = summaryCache;
+        this.changeVersions = changeVersions;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Materialize one batch of due rules.
+     *
+     * @param today     the last day to create transactions for
+     * @param batchSize the maximum number of rules claimed and of transactions created
+     * @return the number of transactions created; 0 when no unclaimed rule is due
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int materializeDue(LocalDate today, int batchSize) {
+        List<RecurringRule> rules = skipLocked()
+                ? ruleRepository.claimDue(today, PageRequest.of(0, batchSize))
+                : ruleRepository.lockDue(today, PageRequest.of(0, batchSize));
+        // every claimed rule is due, so each of its users gets a change version before any row is written
+        Map<Long, Long> changeVersionByUser = changeVersions.changed(rules.stream().map(RecurringRule::getUserId).toList());
+        RollupDelta delta = new RollupDelta();
+        int created = 0;
+        for (RecurringRule rule : rules) {
+            LocalDate date = rule.getNextRunDate();
+            while (date != null && !date.isAfter(today) && created < batchSize) {
+                Transaction transaction = toTransaction(rule, date);
+                transaction.setChangeVersion(changeVersionByUser.get(rule.getUserId()));
+                entityManager.persist(transaction);
+                delta.add(transaction);
+                created++;
+                rule.setLastRunDate(date);
+                date = RecurrenceSchedule.next(rule, date);
+            }
+            rule.setNextRunDate(date);
+        }
+
+        if (created > 0) {
+            rollupUpdater.apply(delta);
+            budgetTracker.apply(delta);
+            summaryCache.invalidate(delta);
+        }
+        return created;
+    }
+
+    private boolean skipLocked() {
+        if (skipLocked == null) {
+            skipLocked = !"H2".equals(entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return skipLocked;
+    }
+
+    private Transaction toTransaction(RecurringRule rule, LocalDate date) {
+        Transaction transaction = new Transaction();
+        // the rule's user and category exist (foreign keys); references avoid loading them
+        transaction.setUser(entityManager.getReference(User.class, rule.getUserId()));
+        if (rule.getCategoryId() != null) {
+            transaction.setCategory(entityManager.getReference(Category.class, rule.getCategoryId()));
+        }
+        transaction.setAmount(rule.getAmount());
+        transaction.setType(rule.getType());
+        transaction.setDescription(rule.getDescription());
+        transaction.setTransactionDate(date);
+        return transaction;
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartbudget.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Creates the transactions of recurring rules on startup (catching up after downtime) and then
+ * periodically: one transaction per batch of {@code batch-size} (see
+ * {@link RecurringTransactionMaterializer}) until no unclaimed rule is due. Instances running at the
+ * same time skip each other's claimed rules, so they split the work without creating an occurrence twice.
+ */
+@Component
+@ConditionalOnProperty(name = "smartbudget.recurring.enabled", havingValue = "true")
+public class RecurringTransactionScheduler implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringTransactionScheduler.class);
+
+    private final RecurringTransactionMaterializer materializer;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public RecurringTransactionScheduler(RecurringTransactionMaterializer materializer,
+                                         TransactionTemplate transactionTemplate,
+                                         @Value("${smartbudget.recurring.batch-size:500}") int batchSize) {
+        this.materializer = materializer;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            materialize();
+        } catch (RuntimeException e) {
+            // The catch-up must not keep the application from starting; the next scheduled run retries it
+            log.error("Startup catch-up of recurring transactions failed", e);
+        }
+    }
+
+    @Scheduled(cron = "${smartbudget.recurring.cron:0 5 * * * *}")
+    public void materialize() {
+        LocalDate today = LocalDate.now();
+        long total = 0;
+        int created;
+        do {
+            created = transactionTemplate.execute(status -> materializer.materializeDue(today, batchSize));
+            total += created;
+        } while (created > 0);
+        if (total > 0) {
+            log.info("Created {} recurring transactions up to {}", total, today);
+        }
+    }
+}
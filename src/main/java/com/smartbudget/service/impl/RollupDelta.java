@@ -0,0 +1,119 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.entity.Transaction;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.repository.projection.DailyCategoryTotal;
+import com.smartbudget.repository.projection.TransactionWriteState;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Accumulates rollup changes of one unit of work, keyed by (user, day, category, type),
+ * so that each affected rollup key is written once no matter how many transactions touch it.
+ */
+public class RollupDelta {
+
+    public record Key(Long userId, LocalDate date, Long categoryId, TransactionType type) {
+    }
+
+    public record Change(BigDecimal amount, long count) {
+    }
+
+    // running sums per key; the immutable Change view is built once, when the delta is read
+    private final Map<Key, Running> running = new LinkedHashMap<>();
+    private Map<Key, Change> changes;
+
+    private static final class Running {
+        private final MoneyAccumulator amount = new MoneyAccumulator();
+        private long count;
+    }
+
+    /**
+     * Add the contribution of a transaction. Deleted transactions contribute nothing.
+     */
+    public void add(Transaction transaction) {
+        apply(transaction, 1);
+    }
+
+    /**
+     * Remove the contribution of a transaction. Must be called with the persisted state,
+     * i.e. before the entity is modified.
+     */
+    public void subtract(Transaction transaction) {
+        apply(transaction, -1);
+    }
+
+    /**
+     * Remove the contribution of a transaction given its persisted state.
+     */
+    public void subtract(TransactionWriteState state) {
+        apply(state.userId(), state.transactionDate(), state.categoryId(), state.type(), state.amount(), state.isDeleted(), -1);
+    }
+
+    /**
+     * Add the contribution of a group of a user's transactions, e.g. restored in bulk.
+     */
+    public void add(Long userId, DailyCategoryTotal total) {
+        merge(new Key(userId, total.date(), total.categoryId(), total.type()), total.amount(), total.count(), 1);
+    }
+
+    /**
+     * Remove the contribution of a group of a user's transactions, e.g. deleted in bulk.
+     */
+    public void subtract(Long userId, DailyCategoryTotal total) {
+        merge(new Key(userId, total.date(), total.categoryId(), total.type()), total.amount(), total.count(), -1);
+    }
+
+    public boolean isEmpty() {
+        return running.isEmpty();
+    }
+
+    /**
+     * Users with at least one changed rollup key.
+     */
+    public Set<Long> userIds() {
+        Set<Long> userIds = new HashSet<>();
+        running.keySet().forEach(key -> userIds.add(key.userId()));
+        return userIds;
+    }
+
+    public Map<Key, Change> getChanges() {
+        if (changes == null) {
+            changes = new LinkedHashMap<>(running.size() * 4 / 3 + 1);
+            running.forEach((key, sum) -> changes.put(key, new Change(sum.amount.toBigDecimal(), sum.count)));
+        }
+        return changes;
+    }
+
+    private void apply(Transaction t, int sign) {
+        apply(t.getUser().getId(), t.getTransactionDate(), t.getCategory() != null ? t.getCategory().getId() : null,
+                t.getType(), t.getAmount(), t.getIsDeleted(), sign);
+    }
+
+    private void apply(Long userId, LocalDate date, Long categoryId, TransactionType type, BigDecimal transactionAmount,
+                       Boolean deleted, int sign) {
+        if (Boolean.TRUE.equals(deleted) || transactionAmount == null) {
+            return;
+        }
+        merge(new Key(userId, date, categoryId, type), transactionAmount, 1, sign);
+    }
+
+    private void merge(Key key, BigDecimal amount, long count, int sign) {
+        Running sum = running.computeIfAbsent(key, k -> new Running());
+        if (sign > 0) {
+            sum.amount.add(amount);
+        } else {
+            sum.amount.subtract(amount);
+        }
+        sum.count += sign * count;
+        if (sum.count == 0 && sum.amount.isZero()) {
+            running.remove(key);
+        }
+        changes = null;
+    }
+}
@@ -0,0 +1,226 @@
+package com.smartbudget.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.smartbudget.dto.SummaryDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of computed summaries keyed by (user, start, end) and, for summaries served under
+ * an ETag, the user's change version, so that a summary computed before another instance's write is
+ * never served under the version of that write.
+ * Writers invalidate the entries of the changed user whose range covers a changed date;
+ * listeners learn about the change once it is committed. The entries are indexed by user, so an
+ * invalidation only looks at the entries of the users it changed.
+ */
+@Component
+public class SummaryCache {
+
+    public record Key(Long userId, LocalDate start, LocalDate end, Long changeVersion) {
+
+        boolean coversAny(NavigableSet<LocalDate> dates) {
+            LocalDate first = dates.ceiling(start);
+            return first != null && !first.isAfter(end);
+        }
+    }
+
+    // a cached summary; compared by identity, so the index only drops the entry the cache removed
+    private static final class Entry {
+        private final SummaryDto summary;
+
+        private Entry(SummaryDto summary) {
+            this.summary = summary;
+        }
+    }
+
+    /**
+     * Told about every committed change to a user's summaries, on the committing thread.
+     */
+    public interface Listener {
+
+        /**
+         * @param from the first changed date, or null if any date may have changed
+         * @param to   the last changed date, or null if any date may have changed
+         */
+        void summariesChanged(Long userId, LocalDate from, LocalDate to);
+    }
+
+    // invalidation counters striped by user; a summary computed while its stripe moved is not stored
+    private static final int STRIPES = 64;
+
+    private final Cache<Key, Entry> cache;
+    // the cached entries of each user; updated under the user's mapping, so no entry is left unindexed
+    private final Map<Long, Map<Key, Entry>> entriesByUser = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public SummaryCache(@Value("${smartbudget.summary-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${smartbudget.summary-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this(maximumSize, expireAfterWrite, ForkJoinPool.commonPool());
+    }
+
+    // maintenance (eviction) runs on the executor; tests pass a direct one
+    SummaryCache(long maximumSize, Duration expireAfterWrite, Executor executor) {
+        this.cache = Caffeine.newBuilder()
+                .executor(executor)
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> unindex(key, entry))
+                .recordStats()
+                .build();
+    }
+
+    public SummaryDto get(Long userId, LocalDate start, LocalDate end, Supplier<SummaryDto> loader) {
+        return get(userId, start, end, null, loader);
+    }
+
+    /**
+     * @param changeVersion the user's change version the loader reads at, or null if not known
+     */
+    public SummaryDto get(Long userId, LocalDate start, LocalDate end, Long changeVersion, Supplier<SummaryDto> loader) {
+        Key key = new Key(userId, start, end, changeVersion);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.summary;
+        }
+        long generation = generations.get(stripe(userId));
+        SummaryDto summary = loader.get();
+        if (generations.get(stripe(userId)) == generation) {
+            Entry entry = new Entry(summary);
+            entriesByUser.compute(userId, (id, entries) -> {
+                Map<Key, Entry> indexed = entries != null ? entries : new ConcurrentHashMap<>();
+                indexed.put(key, entry);
+                return indexed;
+            });
+            cache.put(key, entry);
+            // a writer that bumped the stripe after the check may already have scanned past this key
+            if (generations.get(stripe(userId)) != generation) {
+                cache.invalidate(key);
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Drop the cached summaries affected by the given rollup changes. Runs immediately and again
+     * when the surrounding transaction completes, so that no reader keeps a summary computed
+     * from the state before the commit (or from rolled back changes).
+     */
+    public void invalidate(RollupDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        // the changed dates of each user
+        Map<Long, NavigableSet<LocalDate>> changed = new HashMap<>();
+        for (RollupDelta.Key key : delta.getChanges().keySet()) {
+            changed.computeIfAbsent(key.userId(), userId -> new TreeSet<>()).add(key.date());
+        }
+        runNowAndAfterCompletion(() -> changed.forEach((userId, dates) -> {
+            generations.incrementAndGet(stripe(userId));
+            removeEntries(userId, key -> key.coversAny(dates));
+        }));
+        if (!listeners.isEmpty()) {
+            afterCommit(() -> changed.forEach((userId, dates) ->
+                    listeners.forEach(listener -> listener.summariesChanged(userId, dates.first(), dates.last()))));
+        }
+    }
+
+    /**
+     * Drop every cached summary of a user, e.g. after a category rename changes the breakdown labels.
+     */
+    public void invalidateUser(Long userId) {
+        runNowAndAfterCompletion(() -> {
+            generations.incrementAndGet(stripe(userId));
+            removeEntries(userId, key -> true);
+        });
+        if (!listeners.isEmpty()) {
+            afterCommit(() -> listeners.forEach(listener -> listener.summariesChanged(userId, null, null)));
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void removeEntries(Long userId, Predicate<Key> affected) {
+        Map<Key, Entry> entries = entriesByUser.get(userId);
+        if (entries == null) {
+            return;
+        }
+        for (Key key : entries.keySet()) {
+            if (affected.test(key)) {
+                // the removal listener drops the entry from the index
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    private void unindex(Key key, Entry entry) {
+        entriesByUser.computeIfPresent(key.userId(), (userId, entries) -> {
+            entries.remove(key, entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private static void runNowAndAfterCompletion(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    // registered after the invalidation, so listeners never see the entries from before the commit
+    private static void afterCommit(Runnable notification) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notification.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    notification.run();
+                }
+            }
+        });
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(userId.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,309 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.service.SummaryStreamService;
+import com.smartbudget.service.TransactionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes a user's summary for a period over Server-Sent Events whenever a committed write changes it.
+ * <p>
+ * The connections are asynchronous requests and hold no request thread while idle. Committed changes
+ * are only recorded per user (as the range of changed dates); one flush per {@code coalesce} window
+ * recomputes the summaries of the affected subscriptions, so a bulk import results in one push per
+ * open stream. An event is sent only if the summary differs from the last one sent on that stream.
+ * Comment lines every {@code heartbeat} keep proxies from closing idle streams and reveal dead clients.
+ * <p>
+ * The scheduler thread only recomputes summaries; the blocking writes to the clients run on a pool of
+ * {@code senders} threads, at most one task per stream, which sends the latest summary when it gets to
+ * run. A send still blocked after {@code send-timeout} (a client that stopped reading) ends its stream.
+ * <p>
+ * Only writes committed on this instance are pushed, since the changes come from the local
+ * {@link SummaryCache}. With several instances behind a load balancer, a stream misses the writes
+ * made through the other instances until the client reconnects, which sends the current summary.
+ */
+@Service
+public class SummaryStreamServiceImpl implements SummaryStreamService, SummaryCache.Listener, MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryStreamServiceImpl.class);
+
+    private record Range(LocalDate from, LocalDate to) {
+
+        static final Range ALL = new Range(LocalDate.MIN, LocalDate.MAX);
+
+        Range span(Range other) {
+            return new Range(from.isBefore(other.from) ? from : other.from, to.isAfter(other.to) ? to : other.to);
+        }
+    }
+
+    private static final class Subscription {
+        private final Long userId;
+        private final LocalDate start;
+        private final LocalDate end;
+        private final SseEmitter emitter;
+        // the summary to send next, and whether a sender task is queued or running
+        private final AtomicReference<SummaryDto> next = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private SummaryDto lastSent;
+
+        private Subscription(Long userId, LocalDate start, LocalDate end, SseEmitter emitter) {
+            this.userId = userId;
+            this.start = start;
+            this.end = end;
+            this.emitter = emitter;
+        }
+
+        private boolean overlaps(Range range) {
+            return !range.to.isBefore(start) && !range.from.isAfter(end);
+        }
+    }
+
+    private final TransactionService transactionService;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders;
+    private final Duration coalesce;
+    private final Duration timeout;
+    private final Duration sendTimeout;
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<Long, Range> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicInteger open = new AtomicInteger();
+
+    @Autowired
+    public SummaryStreamServiceImpl(TransactionService transactionService, SummaryCache summaryCache,
+                                    @Value("${smartbudget.summary-stream.coalesce:1s}") Duration coalesce,
+                                    @Value("${smartbudget.summary-stream.heartbeat:30s}") Duration heartbeat,
+                                    @Value("${smartbudget.summary-stream.timeout:30m}") Duration timeout,
+                                    @Value("${smartbudget.summary-stream.senders:4}") int senders,
+                                    @Value("${smartbudget.summary-stream.send-timeout:10s}") Duration sendTimeout) {
+        this(transactionService, summaryCache, coalesce, heartbeat, timeout, sendTimeout,
+                Executors.newSingleThreadScheduledExecutor(daemonThreads("summary-stream")),
+                Executors.newFixedThreadPool(senders, daemonThreads("summary-stream-send")));
+    }
+
+    SummaryStreamServiceImpl(TransactionService transactionService, SummaryCache summaryCache, Duration coalesce,
+                             Duration heartbeat, Duration timeout, Duration sendTimeout,
+                             ScheduledExecutorService scheduler, ExecutorService senders) {
+        this.transactionService = transactionService;
+        this.scheduler = scheduler;
+        this.senders = senders;
+        this.coalesce = coalesce;
+        this.timeout = timeout;
+        this.sendTimeout = sendTimeout;
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        summaryCache.addListener(this);
+    }
+
+    /**
+     * Open a stream that starts with the current summary. The subscription is registered before the
+     * summary is read, so a write committed in between is pushed afterwards rather than lost.
+     */
+    @Override
+    public SseEmitter subscribe(Long userId, LocalDate start, LocalDate end) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscription subscription = new Subscription(userId, start, end, emitter);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+        subscriptions.compute(userId, (id, set) -> {
+            Set<Subscription> subscribed = set != null ? set : ConcurrentHashMap.newKeySet();
+            subscribed.add(subscription);
+            return subscribed;
+        });
+        open.incrementAndGet();
+        SummaryDto summary;
+        try {
+            summary = transactionService.getSummary(userId, start, end);
+        } catch (RuntimeException e) {
+            remove(subscription);
+            throw e;
+        }
+        send(subscription, summary);
+        return emitter;
+    }
+
+    @Override
+    public void summariesChanged(Long userId, LocalDate from, LocalDate to) {
+        if (!subscriptions.containsKey(userId)) {
+            return;
+        }
+        pending.merge(userId, from == null || to == null ? Range.ALL : new Range(from, to), Range::span);
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, coalesce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Push the summaries changed since the last flush.
+     */
+    void flush() {
+        // changes recorded from here on schedule the next flush
+        flushScheduled.set(false);
+        for (Long userId : pending.keySet()) {
+            Range changed = pending.remove(userId);
+            Set<Subscription> subscribed = subscriptions.get(userId);
+            if (changed == null || subscribed == null) {
+                continue;
+            }
+            for (Subscription subscription : subscribed) {
+                if (subscription.overlaps(changed)) {
+                    push(subscription);
+                }
+            }
+        }
+    }
+
+    int openStreams() {
+        return open.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbudget.summary.streams", open, AtomicInteger::get)
+                .description("Open summary update streams")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        subscriptions.values().forEach(subscribed -> subscribed.forEach(subscription -> subscription.emitter.complete()));
+    }
+
+    private void push(Subscription subscription) {
+        SummaryDto summary;
+        try {
+            // the summary cache serves the streams of the same period from one computation
+            summary = transactionService.getSummary(subscription.userId, subscription.start, subscription.end);
+        } catch (RuntimeException e) {
+            log.warn("Summary for the stream of user {} failed", subscription.userId, e);
+            return;
+        }
+        subscription.next.set(summary);
+        if (subscription.sending.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.sending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Send the latest summary of a stream on a sender thread, until no newer one is waiting. A send
+     * that exceeds the send timeout is interrupted and ends the stream.
+     */
+    private void drain(Subscription subscription) {
+        Thread sender = Thread.currentThread();
+        do {
+            SummaryDto summary = subscription.next.getAndSet(null);
+            if (summary != null) {
+                // whichever finishes first, the send or the watchdog; the interrupt never outlives the send
+                AtomicBoolean finished = new AtomicBoolean();
+                ScheduledFuture<?> watchdog = scheduler.schedule(() -> {
+                    synchronized (finished) {
+                        if (!finished.compareAndSet(false, true)) {
+                            return;
+                        }
+                        sender.interrupt();
+                    }
+                    log.info("Summary stream of user {} did not accept an event within {}, closing it",
+                            subscription.userId, sendTimeout);
+                    remove(subscription);
+                    subscription.emitter.completeWithError(new IOException("Send timed out"));
+                }, sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                try {
+                    send(subscription, summary);
+                } finally {
+                    synchronized (finished) {
+                        finished.set(true);
+                        Thread.interrupted();
+                    }
+                    watchdog.cancel(false);
+                }
+            }
+            subscription.sending.set(false);
+            // a summary set after the last getAndSet, whose push saw this task still running
+        } while (subscription.next.get() != null && subscription.sending.compareAndSet(false, true));
+    }
+
+    private void send(Subscription subscription, SummaryDto summary) {
+        try {
+            synchronized (subscription) {
+                if (Objects.equals(summary, subscription.lastSent)) {
+                    return;
+                }
+                subscription.emitter.send(SseEmitter.event().name("summary").data(summary, MediaType.APPLICATION_JSON));
+                subscription.lastSent = summary;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client went away; the container completes the emitter
+            remove(subscription);
+        }
+    }
+
+    private void heartbeat() {
+        for (Set<Subscription> subscribed : subscriptions.values()) {
+            for (Subscription subscription : subscribed) {
+                if (subscription.sending.get()) {
+                    // a sender is writing to this stream; the heartbeat would only wait for it
+                    continue;
+                }
+                try {
+                    synchronized (subscription) {
+                        subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    remove(subscription);
+                }
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.userId, (id, subscribed) -> {
+            if (subscribed.remove(subscription)) {
+                open.decrementAndGet();
+            }
+            return subscribed.isEmpty() ? null : subscribed;
+        });
+    }
+}
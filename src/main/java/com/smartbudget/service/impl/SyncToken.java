@@ -0,0 +1,54 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Delta sync position in the (change_version, id) ordering: everything up to and including this
+ * position has been handed to the client. Encoded as an opaque URL-safe token.
+ */
+record SyncToken(long changeVersion, long id) implements Comparable<SyncToken> {
+
+    /**
+     * Position before every row, used when the client has not synced yet.
+     */
+    static final SyncToken START = new SyncToken(0L, 0L);
+
+    /**
+     * Position after every row changed up to the given change version.
+     */
+    static SyncToken through(long changeVersion) {
+        return new SyncToken(changeVersion, Long.MAX_VALUE);
+    }
+
+    static SyncToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('/');
+            String position = raw.substring(0, separator);
+            if (position.indexOf('T') > 0) {
+                // a token of the former updatedAt ordering: sync again from the start
+                return START;
+            }
+            return new SyncToken(Long.parseLong(position), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid sync token");
+        }
+    }
+
+    String encode() {
+        String raw = changeVersion + "/" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int compareTo(SyncToken other) {
+        int byVersion = Long.compare(changeVersion, other.changeVersion);
+        return byVersion != 0 ? byVersion : Long.compare(id, other.id);
+    }
+}
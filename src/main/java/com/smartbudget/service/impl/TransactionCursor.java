@@ -0,0 +1,43 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (transaction_date DESC, id DESC) ordering.
+ * Encoded as an opaque URL-safe token so clients cannot depend on its format.
+ */
+record TransactionCursor(LocalDate transactionDate, Long id) {
+
+    /**
+     * Position before the newest possible row, used when no cursor is given.
+     */
+    static final TransactionCursor START = new TransactionCursor(LocalDate.of(9999, 12, 31), Long.MAX_VALUE);
+
+    static TransactionCursor after(TransactionDto t) {
+        return new TransactionCursor(t.getTransactionDate(), t.getId());
+    }
+
+    static TransactionCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new TransactionCursor(LocalDate.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = transactionDate + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
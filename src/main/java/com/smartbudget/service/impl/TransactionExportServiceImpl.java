@@ -0,0 +1,121 @@
+package com.smartbudget.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.Transaction;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.repository.TransactionRepository;
+import com.smartbudget.service.ExportFormat;
+import com.smartbudget.service.TransactionExportService;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's transactions row by row from a forward-only cursor to the output,
+ * so heap use does not depend on the number of exported rows.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private record ExportRow(Long id, LocalDate transactionDate, TransactionType type, BigDecimal amount,
+                             Long categoryId, String categoryName, String description, String notes) {
+    }
+
+    private static final String CSV_HEADER = "id,transaction_date,type,amount,category_id,category_name,description,notes";
+
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public TransactionExportServiceImpl(TransactionRepository transactionRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void exportByUserId(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<Transaction> transactions = transactionRepository.streamByUserId(userId)) {
+            Iterator<Transaction> rows = transactions.iterator();
+            if (format == ExportFormat.CSV) {
+                writeCsv(rows, writer);
+            } else {
+                writeNdjson(rows, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsv(Iterator<Transaction> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            Transaction t = rows.next();
+            writer.write(String.valueOf(t.getId()));
+            writer.write(',');
+            writer.write(t.getTransactionDate().toString());
+            writer.write(',');
+            writer.write(t.getType().name());
+            writer.write(',');
+            writer.write(t.getAmount().toPlainString());
+            writer.write(',');
+            writer.write(t.getCategory() != null ? String.valueOf(t.getCategory().getId()) : "");
+            writer.write(',');
+            writeCsvField(writer, t.getCategory() != null ? t.getCategory().getName() : null);
+            writer.write(',');
+            writeCsvField(writer, t.getDescription());
+            writer.write(',');
+            writeCsvField(writer, t.getNotes());
+            writer.write('\n');
+            entityManager.detach(t);
+        }
+    }
+
+    private void writeNdjson(Iterator<Transaction> rows, Writer writer) throws IOException {
+        ObjectWriter rowWriter = objectMapper.writerFor(ExportRow.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        try (SequenceWriter json = rowWriter.writeValues(writer)) {
+            while (rows.hasNext()) {
+                Transaction t = rows.next();
+                Category category = t.getCategory();
+                json.write(new ExportRow(t.getId(), t.getTransactionDate(), t.getType(), t.getAmount(),
+                        category != null ? category.getId() : null, category != null ? category.getName() : null,
+                        t.getDescription(), t.getNotes()));
+                entityManager.detach(t);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,202 @@
+package com.smartbudget.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the range partitions of the transactions table (profile "partitioned", see
+ * db/migration/postgresql-partitioned) ahead of the calendar: on startup and daily it creates the
+ * missing partitions up to {@code premake} intervals after the current one and, when
+ * {@code detach-after} is set, detaches the partitions that ended before that period. Detached tables
+ * are left in place for archiving or dropping.
+ * <p>
+ * A detach also deletes the daily rollups and budget counters of its range, drops the cached
+ * summaries of the affected users and bumps their change versions, so that summaries, budgets and
+ * ETags stop counting the detached rows. Delta sync gets no tombstones for them: clients keep the
+ * detached rows until they sync again from the start.
+ */
+@Component
+@ConditionalOnProperty(name = "smartbudget.partitioning.enabled", havingValue = "true")
+public class TransactionPartitionMaintenance implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionPartitionMaintenance.class);
+
+    // pg_get_expr(relpartbound) of a range partition: FOR VALUES FROM ('2024-01-01') TO ('2025-01-01')
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\('([0-9-]+)'\\) TO \\('([0-9-]+)'\\)");
+
+    private static final String LIST_PARTITIONS =
+            "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'transactions'::regclass";
+
+    public enum Interval {
+        YEAR, MONTH;
+
+        LocalDate start(LocalDate date) {
+            return this == YEAR ? date.withDayOfYear(1) : date.withDayOfMonth(1);
+        }
+
+        LocalDate next(LocalDate start) {
+            return this == YEAR ? start.plusYears(1) : start.plusMonths(1);
+        }
+
+        String tableName(LocalDate start) {
+            return "transactions_" + (this == YEAR
+                    ? "y" + start.getYear()
+                    : start.format(DateTimeFormatter.ofPattern("'m'yyyy_MM")));
+        }
+    }
+
+    /**
+     * Existing range partition, [from, to).
+     */
+    public record Partition(String name, LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * Partitions to create and to detach.
+     */
+    public record Plan(List<Partition> create, List<Partition> detach) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeVersionServiceImpl changeVersions;
+    private final SummaryCache summaryCache;
+    private final Interval interval;
+    private final int premake;
+    private final Period detachAfter;
+
+    public TransactionPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                           TransactionTemplate transactionTemplate,
+                                           ChangeVersionServiceImpl changeVersions,
+                                           SummaryCache summaryCache,
+                                           @Value("${smartbudget.partitioning.interval:month}") String interval,
+                                           @Value("${smartbudget.partitioning.premake:3}") int premake,
+                                           @Value("${smartbudget.partitioning.detach-after:}") String detachAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.changeVersions = changeVersions;
+        this.summaryCache = summaryCache;
+        this.interval = Interval.valueOf(interval.trim().toUpperCase(Locale.ROOT));
+        this.premake = premake;
+        this.detachAfter = StringUtils.hasText(detachAfter) ? Period.parse(detachAfter.trim()) : null;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        maintain();
+    }
+
+    @Scheduled(cron = "${smartbudget.partitioning.cron:0 15 3 * * *}")
+    public void maintain() {
+        Plan plan = plan(listPartitions(), LocalDate.now(), interval, premake, detachAfter);
+        for (Partition partition : plan.create()) {
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition.name() +
+                        " PARTITION OF transactions FOR VALUES FROM ('" + partition.from() + "') TO ('" + partition.to() + "')");
+                log.info("Created partition {} for [{}, {})", partition.name(), partition.from(), partition.to());
+            } catch (DataAccessException e) {
+                // e.g. rows for the range already landed in the default partition
+                log.warn("Could not create partition {} for [{}, {}): {}", partition.name(), partition.from(), partition.to(),
+                        e.getMostSpecificCause().getMessage());
+            }
+        }
+        for (Partition partition : plan.detach()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> detach(partition));
+                log.info("Detached partition {} for [{}, {})", partition.name(), partition.from(), partition.to());
+            } catch (DataAccessException e) {
+                log.warn("Could not detach partition {}: {}", partition.name(), e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    /**
+     * Detach a partition and remove what was derived from its rows. The change versions are taken
+     * first, like every writer does, so that the table lock never waits for a writer holding a counter.
+     */
+    private void detach(Partition partition) {
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT user_id FROM transaction_daily_rollups WHERE rollup_date >= ? AND rollup_date < ?",
+                Long.class, partition.from(), partition.to());
+        changeVersions.changed(userIds);
+        jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + partition.name());
+        // summaries and budgets must not keep counting the detached rows
+        jdbcTemplate.update("DELETE FROM transaction_daily_rollups WHERE rollup_date >= ? AND rollup_date < ?",
+                partition.from(), partition.to());
+        jdbcTemplate.update("DELETE FROM budget_periods WHERE period_start >= ? AND period_start < ?",
+                partition.from(), partition.to());
+        userIds.forEach(summaryCache::invalidateUser);
+    }
+
+    /**
+     * Decide which partitions are missing from the current interval up to {@code premake} intervals
+     * ahead (ranges already covered by an existing partition, e.g. a yearly one, are skipped) and which
+     * existing partitions ended before {@code today - detachAfter}. The default partition has no range
+     * and is never detached.
+     */
+    static Plan plan(List<Partition> existing, LocalDate today, Interval interval, int premake, Period detachAfter) {
+        List<Partition> create = new ArrayList<>();
+        LocalDate from = interval.start(today);
+        for (int i = 0; i <= premake; i++) {
+            LocalDate to = interval.next(from);
+            if (!overlaps(existing, from, to)) {
+                create.add(new Partition(interval.tableName(from), from, to));
+            }
+            from = to;
+        }
+
+        List<Partition> detach = new ArrayList<>();
+        if (detachAfter != null) {
+            LocalDate cutoff = today.minus(detachAfter);
+            for (Partition partition : existing) {
+                if (!partition.to().isAfter(cutoff)) {
+                    detach.add(partition);
+                }
+            }
+        }
+        return new Plan(create, detach);
+    }
+
+    private static boolean overlaps(List<Partition> existing, LocalDate from, LocalDate to) {
+        for (Partition partition : existing) {
+            if (partition.from().isBefore(to) && from.isBefore(partition.to())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Partition> listPartitions() {
+        return jdbcTemplate.query(LIST_PARTITIONS, (rs, rowNum) -> {
+                    Matcher bound = RANGE_BOUND.matcher(rs.getString(2));
+                    return bound.find()
+                            ? new Partition(rs.getString(1), LocalDate.parse(bound.group(1)), LocalDate.parse(bound.group(2)))
+                            : null;
+                }).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
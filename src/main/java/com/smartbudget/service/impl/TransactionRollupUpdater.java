@@ -0,0 +1,195 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.entity.TransactionDailyRollup;
+import com.smartbudget.repository.TransactionDailyRollupRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Writes accumulated rollup changes to the daily rollup table.
+ * Must run inside the transaction that changes the underlying transactions.
+ * <p>
+ * Each key has at most one row (unique index on user, day, category, type). Keys without a row are
+ * upserted, so a writer that lost the race for a key's first insert adds to the winner's row.
+ */
+@Component
+public class TransactionRollupUpdater {
+
+    // above this many keys, locking and rewriting the rows beats one UPDATE per key
+    static final int BULK_THRESHOLD = 8;
+
+    // both paths lock the rows of their keys in this order (findForUpdate sorts the same way),
+    // so that concurrent writers cannot deadlock
+    static final Comparator<RollupDelta.Key> LOCK_ORDER = Comparator.comparing(RollupDelta.Key::userId)
+            .thenComparing(RollupDelta.Key::date)
+            .thenComparing(RollupDelta.Key::categoryId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(key -> key.type().name()); // the stored value, as the database sorts it
+
+    private static final String UPSERT =
+            "INSERT INTO transaction_daily_rollups (id, user_id, rollup_date, category_id, type, amount, transaction_count) " +
+            "VALUES (nextval('transaction_daily_rollups_id_seq'), ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, rollup_date, COALESCE(category_id, 0), type) DO UPDATE SET " +
+            "amount = transaction_daily_rollups.amount + EXCLUDED.amount, " +
+            "transaction_count = transaction_daily_rollups.transaction_count + EXCLUDED.transaction_count";
+
+    // H2 has no ON CONFLICT DO UPDATE; category_key is its generated COALESCE(category_id, 0)
+    private static final String H2_UPSERT =
+            "MERGE INTO transaction_daily_rollups r USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS BIGINT), " +
+            "CAST(? AS VARCHAR(10)), CAST(? AS NUMERIC(16, 2)), CAST(? AS BIGINT))) " +
+            "v (user_id, rollup_date, category_id, type, amount, transaction_count) " +
+            "ON r.user_id = v.user_id AND r.rollup_date = v.rollup_date AND r.category_key = COALESCE(v.category_id, 0) " +
+            "AND r.type = v.type " +
+            "WHEN MATCHED THEN UPDATE SET amount = r.amount + v.amount, transaction_count = r.transaction_count + v.transaction_count " +
+            "WHEN NOT MATCHED THEN INSERT (id, user_id, rollup_date, category_id, type, amount, transaction_count) " +
+            "VALUES (nextval('transaction_daily_rollups_id_seq'), v.user_id, v.rollup_date, v.category_id, v.type, v.amount, " +
+            "v.transaction_count)";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final int MAX_H2_ATTEMPTS = 3;
+
+    private final TransactionDailyRollupRepository rollupRepository;
+    private final EntityManager entityManager;
+    // null until the first upsert
+    private volatile Boolean h2;
+
+    public TransactionRollupUpdater(TransactionDailyRollupRepository rollupRepository, EntityManager entityManager) {
+        this.rollupRepository = rollupRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(RollupDelta delta) {
+        if (delta.getChanges().size() > BULK_THRESHOLD) {
+            applyBulk(delta);
+            return;
+        }
+        List<Map.Entry<RollupDelta.Key, RollupDelta.Change>> missing = new ArrayList<>();
+        delta.getChanges().entrySet().stream().sorted(Map.Entry.comparingByKey(LOCK_ORDER)).forEach(entry -> {
+            RollupDelta.Key key = entry.getKey();
+            RollupDelta.Change change = entry.getValue();
+            int updated = rollupRepository.addToRollup(
+                    key.userId(), key.date(), key.categoryId(), key.type(), change.amount(), change.count());
+            if (updated == 0) {
+                missing.add(entry);
+            }
+        });
+        upsert(missing);
+    }
+
+    /**
+     * Lock the affected rows of each user (in user and key order) with one query, then let Hibernate send the
+     * updates as JDBC batches on flush; the keys without a row are upserted in one batch.
+     */
+    private void applyBulk(RollupDelta delta) {
+        Map<Long, List<RollupDelta.Key>> keysByUser = delta.getChanges().keySet().stream()
+                .collect(Collectors.groupingBy(RollupDelta.Key::userId, TreeMap::new, Collectors.toList()));
+        List<Map.Entry<RollupDelta.Key, RollupDelta.Change>> missing = new ArrayList<>();
+        keysByUser.forEach((userId, keys) -> {
+            LocalDate from = keys.stream().map(RollupDelta.Key::date).min(LocalDate::compareTo).orElseThrow();
+            LocalDate to = keys.stream().map(RollupDelta.Key::date).max(LocalDate::compareTo).orElseThrow();
+            Map<RollupDelta.Key, TransactionDailyRollup> existing = new HashMap<>();
+            for (TransactionDailyRollup row : rollupRepository.findForUpdate(userId, from, to)) {
+                existing.putIfAbsent(new RollupDelta.Key(row.getUserId(), row.getRollupDate(), row.getCategoryId(), row.getType()), row);
+            }
+            for (RollupDelta.Key key : keys) {
+                RollupDelta.Change change = delta.getChanges().get(key);
+                TransactionDailyRollup row = existing.get(key);
+                if (row == null) {
+                    missing.add(Map.entry(key, change));
+                } else {
+                    row.setAmount(row.getAmount().add(change.amount()));
+                    row.setTransactionCount(row.getTransactionCount() + change.count());
+                }
+            }
+        });
+        missing.sort(Map.Entry.comparingByKey(LOCK_ORDER));
+        upsert(missing);
+    }
+
+    /**
+     * Insert the rows of keys that had none, or add to the row a concurrent writer inserted since,
+     * as one JDBC batch. Prepared through Hibernate, so it runs on the transaction's connection.
+     */
+    void upsert(List<Map.Entry<RollupDelta.Key, RollupDelta.Change>> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        boolean h2 = isH2();
+        String sql = h2 ? H2_UPSERT : UPSERT;
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql);
+        try {
+            List<Map.Entry<RollupDelta.Key, RollupDelta.Change>> pending = changes;
+            for (int attempt = 1; ; attempt++) {
+                for (Map.Entry<RollupDelta.Key, RollupDelta.Change> entry : pending) {
+                    bind(statement, entry.getKey(), entry.getValue());
+                    statement.addBatch();
+                }
+                try {
+                    statement.executeBatch();
+                    return;
+                } catch (BatchUpdateException e) {
+                    // H2's MERGE does not lock the missing key, so a concurrent insert of it fails the row;
+                    // merged again, it finds that row (H2 runs the rest of the batch and keeps the transaction)
+                    if (!h2 || !UNIQUE_VIOLATION.equals(e.getSQLState()) || attempt == MAX_H2_ATTEMPTS) {
+                        throw e;
+                    }
+                    int[] counts = e.getUpdateCounts();
+                    List<Map.Entry<RollupDelta.Key, RollupDelta.Change>> failed = new ArrayList<>();
+                    for (int i = 0; i < pending.size(); i++) {
+                        if (i >= counts.length || counts[i] == Statement.EXECUTE_FAILED) {
+                            failed.add(pending.get(i));
+                        }
+                    }
+                    pending = failed;
+                }
+            }
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "Could not upsert daily rollups", sql);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+
+    private static void bind(PreparedStatement statement, RollupDelta.Key key, RollupDelta.Change change) throws SQLException {
+        statement.setLong(1, key.userId());
+        statement.setObject(2, key.date());
+        if (key.categoryId() != null) {
+            statement.setLong(3, key.categoryId());
+        } else {
+            statement.setNull(3, Types.BIGINT);
+        }
+        statement.setString(4, key.type().name());
+        statement.setBigDecimal(5, change.amount());
+        statement.setLong(6, change.count());
+    }
+
+    private boolean isH2() {
+        if (h2 == null) {
+            h2 = "H2".equals(entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return h2;
+    }
+}
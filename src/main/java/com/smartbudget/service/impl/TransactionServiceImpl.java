@@ -1,136 +1,497 @@
 package com.smartbudget.service.impl;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.smartbudget.dto.SummaryCacheStatsDto;
 import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.dto.TimeSeriesDto;
+import com.smartbudget.dto.TransactionBatchResultDto;
+import com.smartbudget.dto.TransactionBatchRowResultDto;
+import com.smartbudget.dto.TransactionBulkRequestDto;
+import com.smartbudget.dto.TransactionBulkResultDto;
 import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.dto.TransactionPageDto;
 import com.smartbudget.entity.Category;
 import com.smartbudget.entity.Transaction;
 import com.smartbudget.entity.TransactionType;
 import com.smartbudget.entity.User;
+import com.smartbudget.exception.BadRequestException;
+import com.smartbudget.exception.ConflictException;
 import com.smartbudget.exception.ResourceNotFoundException;
 import com.smartbudget.repository.CategoryRepository;
+import com.smartbudget.repository.TransactionDailyRollupRepository;
 import com.smartbudget.repository.TransactionRepository;
 import com.smartbudget.repository.UserRepository;
+import com.smartbudget.repository.projection.CategoryTotal;
+import com.smartbudget.repository.projection.DailyCategoryTotal;
+import com.smartbudget.repository.projection.DailyTotal;
+import com.smartbudget.repository.projection.TransactionWriteState;
+import com.smartbudget.service.TimeSeriesGranularity;
 import com.smartbudget.service.TransactionService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TransactionServiceImpl implements TransactionService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 10_000;
+    static final int MAX_TIME_SERIES_BUCKETS = 5_000;
+    // rows persisted between flushes, a multiple of hibernate.jdbc.batch_size
+    private static final int BATCH_FLUSH_SIZE = 1_000;
+
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final TransactionDailyRollupRepository rollupRepository;
+    private final TransactionRollupUpdater rollupUpdater;
+    private final BudgetTracker budgetTracker;
+    private final SummaryCache summaryCache;
+    private final ChangeVersionServiceImpl changeVersions;
+    private final ReadYourWrites readYourWrites;
+    private final EntityManager entityManager;
+    private final Validator validator;
 
-    public TransactionServiceImpl(TransactionRepository transactionRepository, UserRepository userRepository, CategoryRepository categoryRepository) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository, UserRepository userRepository, CategoryRepository categoryRepository,
+                                  TransactionDailyRollupRepository rollupRepository, TransactionRollupUpdater rollupUpdater,
+                                  BudgetTracker budgetTracker, SummaryCache summaryCache, ChangeVersionServiceImpl changeVersions,
+                                  ReadYourWrites readYourWrites, EntityManager entityManager, Validator validator) {
         this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
+        this.rollupRepository = rollupRepository;
+        this.rollupUpdater = rollupUpdater;
+        this.budgetTracker = budgetTracker;
+        this.summaryCache = summaryCache;
+        this.changeVersions = changeVersions;
+        this.readYourWrites = readYourWrites;
+        this.entityManager = entityManager;
+        this.validator = validator;
     }
 
     @Override
     public TransactionDto save(TransactionDto transactionDto) {
-        User user = userRepository.findById(transactionDto.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id=" + transactionDto.getUserId()));
-
-        Category category = null;
-        if (transactionDto.getCategoryId() != null) {
-            category = categoryRepository.findById(transactionDto.getCategoryId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Category not found with id=" + transactionDto.getCategoryId()));
-        }
-
-        Transaction transaction;
+        Long userId = transactionDto.getUserId();
+        Long categoryId = transactionDto.getCategoryId();
         if (transactionDto.getId() != null) {
-            transaction = transactionRepository.findById(transactionDto.getId())
-                    .orElse(new Transaction());
-        } else {
-            transaction = new Transaction();
+            Optional<TransactionWriteState> current = transactionRepository.findWriteStateById(transactionDto.getId(), categoryId, userId);
+            if (current.isPresent()) {
+                return update(transactionDto, current.get());
+            }
         }
 
-        transaction.setUser(user);
-        transaction.setCategory(category);
-        transaction.setAmount(transactionDto.getAmount());
-        transaction.setType(transactionDto.getType());
-        transaction.setDescription(transactionDto.getDescription());
-        transaction.setNotes(transactionDto.getNotes());
-        transaction.setTransactionDate(transactionDto.getTransactionDate());
+        // one query proves that the user exists and owns the category; the rows themselves are never loaded
+        boolean owned = categoryId != null
+                ? categoryRepository.existsByIdAndUserId(categoryId, userId)
+                : userRepository.existsById(userId);
+        if (!owned) {
+            throw ownershipFailure(userId, categoryId);
+        }
 
+        Transaction transaction = toEntity(transactionDto,
+                entityManager.getReference(User.class, userId),
+                categoryId != null ? entityManager.getReference(Category.class, categoryId) : null);
+        transaction.setChangeVersion(changeVersions.changed(userId));
         Transaction saved = transactionRepository.save(transaction);
+        RollupDelta delta = new RollupDelta();
+        delta.add(saved);
+        rollupUpdater.apply(delta);
+        budgetTracker.apply(delta);
+        summaryCache.invalidate(delta);
         return toDto(saved);
     }
 
+    /**
+     * Overwrite an existing transaction with one versioned UPDATE. The rollup delta is computed from
+     * the state read just before, which the version guard proves is still the persisted one.
+     */
+    private TransactionDto update(TransactionDto transactionDto, TransactionWriteState current) {
+        Long userId = transactionDto.getUserId();
+        Long categoryId = transactionDto.getCategoryId();
+        if (categoryId != null ? !current.categoryOwnedByUser()
+                : !userId.equals(current.userId()) && !userRepository.existsById(userId)) {
+            throw ownershipFailure(userId, categoryId);
+        }
+
+        Transaction transaction = toEntity(transactionDto,
+                entityManager.getReference(User.class, userId),
+                categoryId != null ? entityManager.getReference(Category.class, categoryId) : null);
+        transaction.setId(transactionDto.getId());
+        transaction.setIsDeleted(current.isDeleted());
+        transaction.setVersion(current.version() + 1);
+        // a transaction moved to another user changes both users' data
+        transaction.setChangeVersion(changeVersions.changed(List.of(userId, current.userId())).get(userId));
+        int updated = transactionRepository.updateIfVersion(transaction.getId(), current.version(),
+                transaction.getUser(), transaction.getCategory(), transaction.getAmount(), transaction.getType(),
+                transaction.getDescription(), transaction.getNotes(), transaction.getTransactionDate(), LocalDateTime.now(),
+                transaction.getChangeVersion());
+        if (updated == 0) {
+            throw new ConflictException("Transaction was modified concurrently, id=" + transaction.getId());
+        }
+
+        RollupDelta delta = new RollupDelta();
+        delta.subtract(current);
+        delta.add(transaction);
+        rollupUpdater.apply(delta);
+        budgetTracker.apply(delta);
+        summaryCache.invalidate(delta);
+        return toDto(transaction);
+    }
+
+    // only runs when the ownership check failed, to tell a missing user from a missing category
+    private ResourceNotFoundException ownershipFailure(Long userId, Long categoryId) {
+        if (categoryId == null || !userRepository.existsById(userId)) {
+            return new ResourceNotFoundException("User not found with id=" + userId);
+        }
+        return new ResourceNotFoundException("Category not found with id=" + categoryId);
+    }
+
+    @Override
+    public TransactionBatchResultDto saveBatch(List<TransactionDto> transactionDtos) {
+        if (transactionDtos.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("A batch may contain at most " + MAX_BATCH_SIZE + " transactions");
+        }
+
+        // resolve all referenced users and categories with one query each
+        Map<Long, User> users = userRepository.findAllById(distinctIds(transactionDtos, TransactionDto::getUserId))
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Category> categories = categoryRepository.findAllById(distinctIds(transactionDtos, TransactionDto::getCategoryId))
+                .stream().collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        // validate first: the change versions of the users with valid rows are taken before any row is written
+        String[] errors = new String[transactionDtos.size()];
+        Set<Long> changedUserIds = new HashSet<>();
+        for (int index = 0; index < transactionDtos.size(); index++) {
+            TransactionDto dto = transactionDtos.get(index);
+            errors[index] = validateBatchRow(dto, users, categories);
+            if (errors[index] == null) {
+                changedUserIds.add(dto.getUserId());
+            }
+        }
+        Map<Long, Long> changeVersionByUser = changeVersions.changed(changedUserIds);
+
+        List<TransactionBatchRowResultDto> results = new ArrayList<>(transactionDtos.size());
+        RollupDelta delta = new RollupDelta();
+        int created = 0;
+        for (int index = 0; index < transactionDtos.size(); index++) {
+            TransactionDto dto = transactionDtos.get(index);
+            if (errors[index] != null) {
+                results.add(new TransactionBatchRowResultDto(index, TransactionBatchRowResultDto.Status.REJECTED, null, errors[index]));
+                continue;
+            }
+
+            Transaction transaction = toEntity(dto, users.get(dto.getUserId()),
+                    dto.getCategoryId() != null ? categories.get(dto.getCategoryId()) : null);
+            transaction.setChangeVersion(changeVersionByUser.get(dto.getUserId()));
+            entityManager.persist(transaction);
+            delta.add(transaction);
+            results.add(new TransactionBatchRowResultDto(index, TransactionBatchRowResultDto.Status.CREATED, transaction.getId(), null));
+
+            // keep the persistence context small; inserts go out as JDBC batches on flush
+            if (++created % BATCH_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        rollupUpdater.apply(delta);
+        budgetTracker.apply(delta);
+        summaryCache.invalidate(delta);
+        return new TransactionBatchResultDto(created, transactionDtos.size() - created, results);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public TransactionDto findById(Long id) {
-        Transaction transaction = transactionRepository.findById(id)
+        return transactionRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id=" + id));
-        return toDto(transaction);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransactionDto> findAllByUserId(Long userId) {
-        return transactionRepository.findByUserIdAndIsDeletedFalse(userId)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        readYourWrites.reading(userId);
+        return transactionRepository.findDtosByUserId(userId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransactionDto> findByUserIdAndDateRange(Long userId, LocalDate start, LocalDate end) {
-        return transactionRepository.findByUserIdAndDateRange(userId, start, end, org.springframework.data.domain.Pageable.unpaged())
-            .getContent()
-            .stream()
-            .map(this::toDto)
-            .collect(Collectors.toList());
+        readYourWrites.reading(userId);
+        return transactionRepository.findDtosByUserIdAndDateRange(userId, start, end);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionPageDto findPageByUserId(Long userId, String cursor, Integer limit) {
+        readYourWrites.reading(userId);
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        int pageSize = pageSize(limit);
+        List<TransactionDto> rows = transactionRepository.findPageByUserId(
+                userId, position.transactionDate(), position.id(), PageRequest.of(0, pageSize + 1));
+        return toPage(rows, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionPageDto findPageByUserIdAndDateRange(Long userId, LocalDate start, LocalDate end, String cursor, Integer limit) {
+        readYourWrites.reading(userId);
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        int pageSize = pageSize(limit);
+        List<TransactionDto> rows = transactionRepository.findPageByUserIdAndDateRange(
+                userId, start, end, position.transactionDate(), position.id(), PageRequest.of(0, pageSize + 1));
+        return toPage(rows, pageSize);
     }
 
     @Override
     public void delete(Long transactionId) {
         Transaction transaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id=" + transactionId));
+        RollupDelta delta = new RollupDelta();
+        delta.subtract(transaction);
         transaction.setIsDeleted(true);
+        transaction.setChangeVersion(changeVersions.changed(transaction.getUser().getId()));
         transactionRepository.save(transaction);
+        rollupUpdater.apply(delta);
+        budgetTracker.apply(delta);
+        summaryCache.invalidate(delta);
+    }
+
+    @Override
+    public TransactionBulkResultDto deleteBulk(TransactionBulkRequestDto request) {
+        return setDeleted(request, true);
+    }
+
+    @Override
+    public TransactionBulkResultDto restoreBulk(TransactionBulkRequestDto request) {
+        return setDeleted(request, false);
+    }
+
+    /**
+     * Flip the soft-delete flag of the selected rows with one UPDATE, then read what changed per rollup key
+     * with one grouped SELECT, recognizing the changed rows by the change version the UPDATE set. Rollups and
+     * cached summaries are adjusted once for the whole selection.
+     */
+    private TransactionBulkResultDto setDeleted(TransactionBulkRequestDto request, boolean deleted) {
+        Long userId = request.getUserId();
+        LocalDateTime now = LocalDateTime.now();
+        int affected;
+        List<DailyCategoryTotal> changed;
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            if (request.getStartDate() != null || request.getEndDate() != null || request.getCategoryId() != null) {
+                throw new BadRequestException("Select transactions either by ids or by startDate and endDate, not both");
+            }
+            if (request.getIds().size() > MAX_BATCH_SIZE) {
+                throw new BadRequestException("A bulk request may list at most " + MAX_BATCH_SIZE + " ids");
+            }
+            long changeVersion = changeVersions.changed(userId);
+            affected = transactionRepository.setDeletedByIds(userId, request.getIds(), deleted, now, changeVersion);
+            changed = affected == 0 ? List.of()
+                    : transactionRepository.sumChangedByIds(userId, request.getIds(), deleted, changeVersion);
+        } else {
+            LocalDate start = request.getStartDate();
+            LocalDate end = request.getEndDate();
+            if (start == null || end == null) {
+                throw new BadRequestException("Either ids or startDate and endDate are required");
+            }
+            if (end.isBefore(start)) {
+                throw new BadRequestException("endDate must not be before startDate");
+            }
+            long changeVersion = changeVersions.changed(userId);
+            affected = transactionRepository.setDeletedByFilter(userId, start, end, request.getCategoryId(), deleted, now, changeVersion);
+            changed = affected == 0 ? List.of()
+                    : transactionRepository.sumChangedByFilter(userId, start, end, request.getCategoryId(), deleted, changeVersion);
+        }
+
+        RollupDelta delta = new RollupDelta();
+        for (DailyCategoryTotal total : changed) {
+            if (deleted) {
+                delta.subtract(userId, total);
+            } else {
+                delta.add(userId, total);
+            }
+        }
+        rollupUpdater.apply(delta);
+        budgetTracker.apply(delta);
+        summaryCache.invalidate(delta);
+        return new TransactionBulkResultDto(affected);
     }
 
     @Override
     @Transactional(readOnly = true)
     public SummaryDto getSummary(Long userId, LocalDate start, LocalDate end) {
-        BigDecimal totalIncome = transactionRepository.sumIncomeByUserAndDateRange(userId, start, end);
-        BigDecimal totalExpense = transactionRepository.sumExpenseByUserAndDateRange(userId, start, end);
-        BigDecimal net = totalIncome.subtract(totalExpense);
+        readYourWrites.reading(userId);
+        // one grouped query over the daily rollups provides totals and breakdown, unless cached
+        return summaryCache.get(userId, start, end,
+                () -> toSummary(userId, start, end, rollupRepository.summarizeByUserAndDateRange(userId, start, end)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SummaryDto getSummary(Long userId, LocalDate start, LocalDate end, long changeVersion) {
+        readYourWrites.reading(userId);
+        return summaryCache.get(userId, start, end, changeVersion,
+                () -> toSummary(userId, start, end, rollupRepository.summarizeByUserAndDateRange(userId, start, end)));
+    }
 
-        Map<String, BigDecimal> breakdown = new HashMap<>();
-        // build breakdown by category names
-        List<Transaction> transactions = transactionRepository.findByUserIdAndDateRange(userId, start, end, org.springframework.data.domain.Pageable.unpaged())
-            .getContent();
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SummaryCacheStatsDto getSummaryCacheStats() {
+        CacheStats stats = summaryCache.stats();
+        return new SummaryCacheStatsDto(stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount(), summaryCache.size());
+    }
 
-        Map<String, BigDecimal> map = transactions.stream()
-                .filter(t -> t.getCategory() != null)
-                .collect(Collectors.groupingBy(t -> t.getCategory().getName(), Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+    static SummaryDto toSummary(Long userId, LocalDate start, LocalDate end, List<CategoryTotal> rows) {
+        MoneyAccumulator totalIncome = new MoneyAccumulator();
+        MoneyAccumulator totalExpense = new MoneyAccumulator();
+        Map<String, MoneyAccumulator> sums = new HashMap<>();
 
-        breakdown.putAll(map);
+        for (CategoryTotal row : rows) {
+            if (row.type() == TransactionType.INCOME) {
+                totalIncome.add(row.amount());
+            } else {
+                totalExpense.add(row.amount());
+            }
+            if (row.categoryName() != null) {
+                sums.computeIfAbsent(row.categoryName(), name -> new MoneyAccumulator()).add(row.amount());
+            }
+        }
+        Map<String, BigDecimal> breakdown = new HashMap<>(sums.size() * 4 / 3 + 1);
+        sums.forEach((name, sum) -> breakdown.put(name, sum.toBigDecimal()));
+        BigDecimal income = totalIncome.toBigDecimal();
+        BigDecimal expense = totalExpense.toBigDecimal();
 
         SummaryDto dto = new SummaryDto();
         dto.setUserId(userId);
         dto.setPeriodStart(start);
         dto.setPeriodEnd(end);
-        dto.setTotalIncome(totalIncome);
-        dto.setTotalExpense(totalExpense);
-        dto.setNetBalance(net);
+        dto.setTotalIncome(income);
+        dto.setTotalExpense(expense);
+        dto.setNetBalance(income.subtract(expense));
         dto.setCategoryBreakdown(breakdown);
         return dto;
     }
 
-    private TransactionDto toDto(Transaction t) {
+    @Override
+    @Transactional(readOnly = true)
+    public TimeSeriesDto getTimeSeries(Long userId, LocalDate start, LocalDate end, TimeSeriesGranularity granularity) {
+        readYourWrites.reading(userId);
+        if (end.isBefore(start)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+        LocalDate firstBucket = granularity.truncate(start);
+        int buckets = granularity.bucketsBetween(firstBucket, granularity.truncate(end)) + 1;
+        if (buckets > MAX_TIME_SERIES_BUCKETS) {
+            throw new BadRequestException("A time series may contain at most " + MAX_TIME_SERIES_BUCKETS + " buckets");
+        }
+
+        MoneyAccumulator[] incomeSums = new MoneyAccumulator[buckets];
+        MoneyAccumulator[] expenseSums = new MoneyAccumulator[buckets];
+        for (int i = 0; i < buckets; i++) {
+            incomeSums[i] = new MoneyAccumulator();
+            expenseSums[i] = new MoneyAccumulator();
+        }
+        // one grouped query over the daily rollups; days are folded into buckets here
+        for (DailyTotal row : rollupRepository.sumByDayAndType(userId, start, end)) {
+            int bucket = granularity.bucketsBetween(firstBucket, granularity.truncate(row.date()));
+            if (row.type() == TransactionType.INCOME) {
+                incomeSums[bucket].add(row.amount());
+            } else {
+                expenseSums[bucket].add(row.amount());
+            }
+        }
+
+        List<LocalDate> periodStarts = new ArrayList<>(buckets);
+        List<BigDecimal> income = new ArrayList<>(buckets);
+        List<BigDecimal> expense = new ArrayList<>(buckets);
+        List<BigDecimal> net = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            periodStarts.add(granularity.plusBuckets(firstBucket, i));
+            income.add(incomeSums[i].toBigDecimal());
+            expense.add(expenseSums[i].toBigDecimal());
+            net.add(income.get(i).subtract(expense.get(i)));
+        }
+        return new TimeSeriesDto(userId, granularity, periodStarts, income, expense, net);
+    }
+
+    private static Set<Long> distinctIds(List<TransactionDto> dtos, Function<TransactionDto, Long> id) {
+        return dtos.stream().filter(Objects::nonNull).map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private String validateBatchRow(TransactionDto dto, Map<Long, User> users, Map<Long, Category> categories) {
+        if (dto == null) {
+            return "Transaction must not be null";
+        }
+        Set<ConstraintViolation<TransactionDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!users.containsKey(dto.getUserId())) {
+            return "User not found with id=" + dto.getUserId();
+        }
+        if (dto.getCategoryId() != null) {
+            Category category = categories.get(dto.getCategoryId());
+            if (category == null || !category.getUser().getId().equals(dto.getUserId())) {
+                return "Category not found with id=" + dto.getCategoryId();
+            }
+        }
+        return null;
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // rows holds up to pageSize + 1 entries; the extra one only signals that another page exists
+    private TransactionPageDto toPage(List<TransactionDto> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionDto> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? TransactionCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new TransactionPageDto(page, nextCursor);
+    }
+
+    private static Transaction toEntity(TransactionDto dto, User user, Category category) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setCategory(category);
+        transaction.setAmount(dto.getAmount());
+        transaction.setType(dto.getType());
+        transaction.setDescription(dto.getDescription());
+        transaction.setNotes(dto.getNotes());
+        transaction.setTransactionDate(dto.getTransactionDate());
+        return transaction;
+    }
+
+    static TransactionDto toDto(Transaction t) {
         TransactionDto dto = new TransactionDto();
         dto.setId(t.getId());
         dto.setUserId(t.getUser().getId());
@@ -0,0 +1,92 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.TransactionChangesDto;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.exception.BadRequestException;
+import com.smartbudget.repository.TransactionRepository;
+import com.smartbudget.repository.UserChangeVersionRepository;
+import com.smartbudget.repository.projection.TransactionChange;
+import com.smartbudget.service.TransactionSyncService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delta sync of a user's transactions in change version order.
+ * <p>
+ * Every write stamps the rows it changes with the user's change version, taken at its start while
+ * holding the user's counter row until it commits (see {@link ChangeVersionServiceImpl#changed(Long)}).
+ * A user's versions therefore commit in increasing order, however long a write runs: once the counter
+ * reads V, every row stamped up to V is visible and none is stamped with V or less later. Each call
+ * hands out changes up to the counter read at its start. Reads go to the primary, since a lagging
+ * replica would silently miss changes below the returned token.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TransactionSyncServiceImpl implements TransactionSyncService {
+
+    static final int DEFAULT_PAGE_SIZE = 500;
+    static final int MAX_PAGE_SIZE = 2_000;
+
+    private final TransactionRepository transactionRepository;
+    private final UserChangeVersionRepository versionRepository;
+    private final ReadYourWrites readYourWrites;
+
+    public TransactionSyncServiceImpl(TransactionRepository transactionRepository, UserChangeVersionRepository versionRepository,
+                                      ReadYourWrites readYourWrites) {
+        this.transactionRepository = transactionRepository;
+        this.versionRepository = versionRepository;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public TransactionChangesDto findChanges(Long userId, String since, Integer limit) {
+        SyncToken position = SyncToken.decode(since);
+        int pageSize = pageSize(limit);
+        readYourWrites.requirePrimary();
+        // committed writes only: a running write still holds the counter at its previous value
+        long until = versionRepository.sumVersionByUserId(userId);
+
+        List<TransactionChange> rows = transactionRepository.findChangesByUserId(
+                userId, position.changeVersion(), position.id(), until, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<TransactionDto> items = new ArrayList<>(rows.size());
+        List<Long> deletedIds = new ArrayList<>();
+        for (TransactionChange row : rows) {
+            if (Boolean.TRUE.equals(row.isDeleted())) {
+                deletedIds.add(row.id());
+            } else {
+                items.add(new TransactionDto(row.id(), row.userId(), row.categoryId(), row.amount(), row.type(),
+                        row.description(), row.notes(), row.transactionDate()));
+            }
+        }
+
+        SyncToken next;
+        if (hasMore) {
+            TransactionChange last = rows.get(rows.size() - 1);
+            next = new SyncToken(last.changeVersion(), last.id());
+        } else {
+            // caught up: everything changed up to `until` has been seen; never move backwards
+            SyncToken caughtUp = SyncToken.through(until);
+            next = caughtUp.compareTo(position) > 0 ? caughtUp : position;
+        }
+        return new TransactionChangesDto(items, deletedIds, next.encode(), hasMore);
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+}
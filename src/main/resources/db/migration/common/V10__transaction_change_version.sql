@@ -0,0 +1,5 @@
+-- The user's change version of the write that last changed a row (user_change_versions). Delta sync
+-- reads rows in this order up to the user's committed counter instead of by updated_at; existing rows
+-- keep 0, and clients holding an updated_at token sync again from the start.
+-- IF NOT EXISTS: the opt-in partitioning migration V4 adds the column too when it runs out of order.
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- Daily rollups of the transactions, maintained by the write path and backfilled from existing
+-- transactions in V1_2 (once its id sequence exists). Databases that got the table from
+-- ddl-auto=update keep theirs.
+
+CREATE TABLE IF NOT EXISTS transaction_daily_rollups (
+    id                BIGINT         NOT NULL PRIMARY KEY,
+    user_id           BIGINT         NOT NULL,
+    rollup_date       DATE           NOT NULL,
+    category_id       BIGINT,
+    type              VARCHAR(10)    NOT NULL,
+    amount            NUMERIC(16, 2) NOT NULL,
+    transaction_count BIGINT         NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_rollup_user_date ON transaction_daily_rollups (user_id, rollup_date);
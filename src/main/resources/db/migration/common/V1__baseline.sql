@@ -0,0 +1,41 @@
+-- Baseline schema, equivalent to what Hibernate generated with ddl-auto=update.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE users (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username      VARCHAR(100) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    created_at    TIMESTAMP    NOT NULL,
+    updated_at    TIMESTAMP    NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE categories (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT       NOT NULL REFERENCES users (id),
+    name        VARCHAR(100) NOT NULL,
+    type        VARCHAR(10)  NOT NULL,
+    color       VARCHAR(7),
+    description TEXT,
+    is_default  BOOLEAN      NOT NULL DEFAULT FALSE,
+    created_at  TIMESTAMP    NOT NULL,
+    CONSTRAINT uk_categories_user_name UNIQUE (user_id, name)
+);
+
+CREATE TABLE transactions (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          BIGINT         NOT NULL,
+    category_id      BIGINT,
+    amount           NUMERIC(14, 2) NOT NULL,
+    type             VARCHAR(10)    NOT NULL,
+    description      VARCHAR(255),
+    notes            TEXT,
+    transaction_date DATE           NOT NULL,
+    is_deleted       BOOLEAN        NOT NULL DEFAULT FALSE,
+    created_at       TIMESTAMP      NOT NULL,
+    updated_at       TIMESTAMP      NOT NULL,
+    CONSTRAINT fk_transactions_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id) ON DELETE SET NULL
+);
@@ -0,0 +1,2 @@
+-- Optimistic locking: updates are single UPDATE statements guarded by the version they were computed from
+ALTER TABLE transactions ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
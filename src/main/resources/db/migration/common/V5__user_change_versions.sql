@@ -0,0 +1,13 @@
+-- Per-user change counter behind the ETags of the read endpoints, bumped by every write of a user's
+-- transactions or categories. Concurrent first writes of a user may each insert a row; readers sum them.
+-- (V4 is the opt-in partitioning migration in db/migration/postgresql-partitioned.)
+
+CREATE SEQUENCE user_change_versions_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE user_change_versions (
+    id      BIGINT NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    version BIGINT NOT NULL
+);
+
+CREATE INDEX idx_user_change_versions_user ON user_change_versions (user_id, version);
@@ -0,0 +1,47 @@
+-- Monthly spending limits per category, with running spend counters per month maintained by the
+-- transaction write path and the threshold alerts raised from them. Writers lock the budget row
+-- before touching its counters, so each (budget, month) has one counter row and each threshold
+-- is raised once; the unique keys only back that up.
+
+CREATE SEQUENCE category_budgets_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE category_budgets (
+    id            BIGINT         NOT NULL PRIMARY KEY,
+    user_id       BIGINT         NOT NULL REFERENCES users (id),
+    category_id   BIGINT         NOT NULL REFERENCES categories (id) ON DELETE CASCADE,
+    monthly_limit NUMERIC(16, 2) NOT NULL,
+    created_at    TIMESTAMP      NOT NULL,
+    updated_at    TIMESTAMP      NOT NULL,
+    CONSTRAINT uk_category_budgets_category UNIQUE (category_id)
+);
+
+CREATE INDEX idx_category_budgets_user ON category_budgets (user_id);
+
+CREATE SEQUENCE budget_periods_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE budget_periods (
+    id              BIGINT         NOT NULL PRIMARY KEY,
+    budget_id       BIGINT         NOT NULL REFERENCES category_budgets (id) ON DELETE CASCADE,
+    period_start    DATE           NOT NULL,
+    period_end      DATE           NOT NULL,
+    spent           NUMERIC(16, 2) NOT NULL,
+    alerted_percent INTEGER        NOT NULL,
+    CONSTRAINT uk_budget_periods_budget_start UNIQUE (budget_id, period_start)
+);
+
+CREATE SEQUENCE budget_alerts_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE budget_alerts (
+    id                BIGINT         NOT NULL PRIMARY KEY,
+    budget_id         BIGINT         NOT NULL REFERENCES category_budgets (id) ON DELETE CASCADE,
+    user_id           BIGINT         NOT NULL,
+    category_id       BIGINT         NOT NULL,
+    period_start      DATE           NOT NULL,
+    threshold_percent INTEGER        NOT NULL,
+    spent             NUMERIC(16, 2) NOT NULL,
+    monthly_limit     NUMERIC(16, 2) NOT NULL,
+    created_at        TIMESTAMP      NOT NULL,
+    CONSTRAINT uk_budget_alerts_budget_period_threshold UNIQUE (budget_id, period_start, threshold_percent)
+);
+
+CREATE INDEX idx_budget_alerts_user_created ON budget_alerts (user_id, created_at);
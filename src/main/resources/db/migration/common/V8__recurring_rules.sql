@@ -0,0 +1,27 @@
+-- Recurring transaction rules. The scheduler claims due rules (next_run_date up to today) in
+-- bounded batches and inserts their missed occurrences in the same DB transaction that advances
+-- last_run_date and next_run_date, so an occurrence is created once however often it runs.
+-- next_run_date is NULL once the rule has ended.
+
+CREATE SEQUENCE recurring_rules_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE recurring_rules (
+    id              BIGINT         NOT NULL PRIMARY KEY,
+    user_id         BIGINT         NOT NULL REFERENCES users (id),
+    category_id     BIGINT         REFERENCES categories (id) ON DELETE SET NULL,
+    amount          NUMERIC(14, 2) NOT NULL,
+    type            VARCHAR(10)    NOT NULL,
+    description     VARCHAR(255),
+    frequency       VARCHAR(10)    NOT NULL,
+    interval_count  INTEGER        NOT NULL,
+    cron_expression VARCHAR(100),
+    start_date      DATE           NOT NULL,
+    end_date        DATE,
+    last_run_date   DATE,
+    next_run_date   DATE,
+    created_at      TIMESTAMP      NOT NULL,
+    updated_at      TIMESTAMP      NOT NULL
+);
+
+CREATE INDEX idx_recurring_rules_next_run ON recurring_rules (next_run_date, id);
+CREATE INDEX idx_recurring_rules_user ON recurring_rules (user_id);
@@ -0,0 +1,6 @@
+-- H2 counterpart of the PostgreSQL migration.
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_change_id
+    ON transactions (user_id, change_version, id);
+
+DROP INDEX IF EXISTS idx_transactions_user_updated_id;
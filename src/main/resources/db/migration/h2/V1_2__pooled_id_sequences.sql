@@ -0,0 +1,8 @@
+-- Ids of transactions and rollups come from sequences with a pooled optimizer: Hibernate reserves
+-- 50 ids per nextval, which (unlike IDENTITY) lets inserts be sent as JDBC batches.
+-- H2 databases are only created empty (tests), so the sequences start at 1.
+
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE transactions_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE transaction_daily_rollups_id_seq START WITH 1 INCREMENT BY 50;
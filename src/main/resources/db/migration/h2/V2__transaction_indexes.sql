@@ -0,0 +1,21 @@
+-- H2 counterpart of the PostgreSQL migration. H2 has no partial or covering indexes,
+-- so the same column lists are indexed in full; the index names match.
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date_id
+    ON transactions (user_id, transaction_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_type_date
+    ON transactions (user_id, type, transaction_date, amount);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_category_date
+    ON transactions (user_id, category_id, transaction_date);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_category
+    ON transactions (category_id);
+
+-- H2 backs every foreign key with an index of its own unless one with exactly the
+-- constraint columns already exists. Re-creating the category constraint lets it reuse
+-- idx_transactions_category instead of keeping a duplicate.
+ALTER TABLE transactions DROP CONSTRAINT fk_transactions_category;
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_category
+    FOREIGN KEY (category_id) REFERENCES categories (id) ON DELETE SET NULL;
@@ -0,0 +1,4 @@
+-- H2 counterpart of the PostgreSQL migration.
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_updated_id
+    ON transactions (user_id, updated_at, id);
@@ -0,0 +1,9 @@
+-- H2 counterpart of the PostgreSQL migration. H2 has no expression indexes, so the key is a
+-- generated column; the databases are only created empty (tests), so nothing is rebuilt.
+
+ALTER TABLE transaction_daily_rollups ADD COLUMN category_key BIGINT GENERATED ALWAYS AS (COALESCE(category_id, 0));
+
+CREATE UNIQUE INDEX uq_rollup_key
+    ON transaction_daily_rollups (user_id, rollup_date, category_key, type);
+
+DROP INDEX idx_rollup_user_date;
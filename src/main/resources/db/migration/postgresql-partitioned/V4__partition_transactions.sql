@@ -0,0 +1,75 @@
+-- Opt-in (profile "partitioned", PostgreSQL 12+): transactions becomes a table range-partitioned on
+-- transaction_date, so the transaction_date BETWEEN predicates of every query prune to the partitions
+-- of the requested range. The table is rewritten once under an exclusive lock; plan a maintenance
+-- window for large tables.
+-- Existing rows are split into yearly partitions. TransactionPartitionMaintenance creates the
+-- following partitions ahead of time (yearly or monthly) and can detach old ones. The default
+-- partition only catches dates no partition covers yet.
+
+-- The partition key must be part of the primary key; ids stay unique through the sequence
+CREATE TABLE transactions_partitioned (
+    id               BIGINT         NOT NULL,
+    user_id          BIGINT         NOT NULL,
+    category_id      BIGINT,
+    amount           NUMERIC(14, 2) NOT NULL,
+    type             VARCHAR(10)    NOT NULL,
+    description      VARCHAR(255),
+    notes            TEXT,
+    transaction_date DATE           NOT NULL,
+    is_deleted       BOOLEAN        NOT NULL DEFAULT FALSE,
+    created_at       TIMESTAMP      NOT NULL,
+    updated_at       TIMESTAMP      NOT NULL,
+    version          BIGINT         NOT NULL DEFAULT 0,
+    CONSTRAINT pk_transactions PRIMARY KEY (id, transaction_date),
+    CONSTRAINT fk_transactions_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id) ON DELETE SET NULL
+) PARTITION BY RANGE (transaction_date);
+
+DO $$
+DECLARE
+    first_year INT := COALESCE((SELECT EXTRACT(YEAR FROM MIN(transaction_date))::INT FROM transactions),
+                               EXTRACT(YEAR FROM CURRENT_DATE)::INT);
+    last_year  INT := GREATEST((SELECT EXTRACT(YEAR FROM MAX(transaction_date))::INT FROM transactions),
+                               EXTRACT(YEAR FROM CURRENT_DATE)::INT + 1);
+BEGIN
+    FOR y IN first_year..last_year LOOP
+        EXECUTE format('CREATE TABLE transactions_y%s PARTITION OF transactions_partitioned FOR VALUES FROM (%L) TO (%L)',
+                       y, make_date(y, 1, 1), make_date(y + 1, 1, 1));
+    END LOOP;
+END $$;
+
+CREATE TABLE transactions_default PARTITION OF transactions_partitioned DEFAULT;
+
+INSERT INTO transactions_partitioned (id, user_id, category_id, amount, type, description, notes,
+                                      transaction_date, is_deleted, created_at, updated_at, version)
+SELECT id, user_id, category_id, amount, type, description, notes,
+       transaction_date, is_deleted, created_at, updated_at, version
+FROM transactions;
+
+DROP TABLE transactions;
+ALTER TABLE transactions_partitioned RENAME TO transactions;
+
+-- The indexes of V2, created on every partition through the parent
+CREATE INDEX idx_transactions_user_date_id
+    ON transactions (user_id, transaction_date DESC, id DESC)
+    WHERE is_deleted = false;
+
+CREATE INDEX idx_transactions_user_type_date
+    ON transactions (user_id, type, transaction_date) INCLUDE (amount)
+    WHERE is_deleted = false;
+
+CREATE INDEX idx_transactions_user_category_date
+    ON transactions (user_id, category_id, transaction_date)
+    WHERE is_deleted = false;
+
+CREATE INDEX idx_transactions_category
+    ON transactions (category_id);
+
+-- The change version column of V10 and the delta sync index of V11, in case this migration runs out of
+-- order after them. The copied rows restart at change version 0; clients have synced them already.
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_change_id
+    ON transactions (user_id, change_version, id);
+
+ANALYZE transactions;
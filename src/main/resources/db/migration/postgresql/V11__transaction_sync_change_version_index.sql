@@ -0,0 +1,7 @@
+-- Delta sync (GET /api/transactions/changes) by change version replaces the updated_at index of V6:
+-- user_id = ? AND (change_version, id) > (?, ?) AND change_version <= ? ORDER BY change_version, id
+-- ${concurrently} is CONCURRENTLY, except on the partitioned table where PostgreSQL does not allow it.
+CREATE INDEX ${concurrently} IF NOT EXISTS idx_transactions_user_change_id
+    ON transactions (user_id, change_version, id);
+
+DROP INDEX ${concurrently} IF EXISTS idx_transactions_user_updated_id;
@@ -0,0 +1,23 @@
+-- Ids of transactions and rollups come from sequences with a pooled optimizer: Hibernate reserves
+-- 50 ids per nextval, which (unlike IDENTITY) lets inserts be sent as JDBC batches. Identity
+-- columns left by ddl-auto=update are turned into plain columns (dropping their sequences), and
+-- each sequence restarts so that its first block lies above the existing ids.
+
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS transactions_id_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('transactions_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM transactions;
+
+ALTER TABLE transaction_daily_rollups ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS transaction_daily_rollups_id_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('transaction_daily_rollups_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM transaction_daily_rollups;
+
+-- Backfill of an empty rollup table from the existing transactions. Migrations run before the
+-- application serves requests and one instance at a time; the ALTER above keeps transactions
+-- locked until the backfill commits, so no write is missed or counted twice.
+INSERT INTO transaction_daily_rollups (id, user_id, rollup_date, category_id, type, amount, transaction_count)
+SELECT nextval('transaction_daily_rollups_id_seq'), t.user_id, t.transaction_date, t.category_id, t.type,
+       SUM(t.amount), COUNT(*)
+FROM transactions t
+WHERE t.is_deleted = false
+  AND NOT EXISTS (SELECT 1 FROM transaction_daily_rollups)
+GROUP BY t.user_id, t.transaction_date, t.category_id, t.type;
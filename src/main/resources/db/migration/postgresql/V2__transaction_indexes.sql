@@ -0,0 +1,24 @@
+-- Partial indexes for the TransactionRepository query patterns. Every query filters on
+-- user_id and is_deleted = false, so deleted rows are left out of the indexes entirely.
+-- CONCURRENTLY keeps the table writable while the indexes are built (Flyway runs this
+-- migration outside a transaction).
+
+-- Keyset pages, date range listings, streaming export and per-user counts:
+-- user_id = ? [AND transaction_date BETWEEN ? AND ?] ORDER BY transaction_date DESC, id DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_date_id
+    ON transactions (user_id, transaction_date DESC, id DESC)
+    WHERE is_deleted = false;
+
+-- Listings by type and the income/expense sums; INCLUDE (amount) makes the sums index-only scans
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_type_date
+    ON transactions (user_id, type, transaction_date) INCLUDE (amount)
+    WHERE is_deleted = false;
+
+-- Listings by category within a date range
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_category_date
+    ON transactions (user_id, category_id, transaction_date)
+    WHERE is_deleted = false;
+
+-- findByCategoryId and the ON DELETE SET NULL of a category (includes deleted rows)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_category
+    ON transactions (category_id);
@@ -0,0 +1,6 @@
+-- Delta sync (GET /api/transactions/changes):
+-- user_id = ? AND (updated_at, id) > (?, ?) AND updated_at <= ? ORDER BY updated_at, id
+-- Not partial: soft-deleted rows are the tombstones the clients sync.
+-- ${concurrently} is CONCURRENTLY, except on the partitioned table where PostgreSQL does not allow it.
+CREATE INDEX ${concurrently} IF NOT EXISTS idx_transactions_user_updated_id
+    ON transactions (user_id, updated_at, id);
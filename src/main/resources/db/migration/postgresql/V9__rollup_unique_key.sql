@@ -0,0 +1,35 @@
+-- One rollup row per (user, day, category, type): writers add to it with INSERT ... ON CONFLICT
+-- DO UPDATE against this index, so concurrent first writes of a key no longer insert a second row.
+-- Uncategorized rows are keyed as category 0 (no category has that id).
+-- Keys that already have several rows were over-counted (every later change went to each row);
+-- they are rebuilt from the transactions, with writers blocked until the index exists.
+
+LOCK TABLE transactions IN SHARE MODE;
+LOCK TABLE transaction_daily_rollups IN EXCLUSIVE MODE;
+
+CREATE TEMPORARY TABLE duplicate_rollup_keys ON COMMIT DROP AS
+SELECT user_id, rollup_date, category_id, type
+FROM transaction_daily_rollups
+GROUP BY user_id, rollup_date, category_id, type
+HAVING COUNT(*) > 1;
+
+DELETE FROM transaction_daily_rollups r
+USING duplicate_rollup_keys d
+WHERE r.user_id = d.user_id AND r.rollup_date = d.rollup_date AND r.type = d.type
+  AND r.category_id IS NOT DISTINCT FROM d.category_id;
+
+INSERT INTO transaction_daily_rollups (id, user_id, rollup_date, category_id, type, amount, transaction_count)
+SELECT nextval('transaction_daily_rollups_id_seq'), t.user_id, t.transaction_date, t.category_id, t.type,
+       SUM(t.amount), COUNT(*)
+FROM transactions t
+JOIN duplicate_rollup_keys d
+  ON t.user_id = d.user_id AND t.transaction_date = d.rollup_date AND t.type = d.type
+ AND t.category_id IS NOT DISTINCT FROM d.category_id
+WHERE t.is_deleted = false
+GROUP BY t.user_id, t.transaction_date, t.category_id, t.type;
+
+CREATE UNIQUE INDEX uq_rollup_key
+    ON transaction_daily_rollups (user_id, rollup_date, COALESCE(category_id, 0), type);
+
+-- the unique index leads with the same columns
+DROP INDEX idx_rollup_user_date;
@@ -0,0 +1,147 @@
+package com.smartbudget.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Latency of the transaction range queries on a flat table against the same rows in a table
+ * range-partitioned by month (the layout of the "partitioned" profile), on PostgreSQL. Builds both
+ * tables in a scratch schema with {@code ROWS} transactions over {@code YEARS} years and reports the
+ * median and p95 per query and the partitions the plan touches. Run with
+ * {@code mvn test -Dtest=PartitionPruningBenchmark -Dbenchmarks=true -Dbenchmark.datasource.url=jdbc:postgresql://localhost/smartbudget}
+ * (plus benchmark.datasource.username and benchmark.datasource.password).
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@EnabledIfSystemProperty(named = "benchmark.datasource.url", matches = "jdbc:postgresql:.*")
+public class PartitionPruningBenchmark {
+
+    private static final int ROWS = 5_000_000;
+    private static final int USERS = 1_000;
+    private static final int YEARS = 6;
+    private static final int ROUNDS = 200;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+
+    private static final String SCHEMA = "partition_benchmark";
+
+    private static final String[] QUERIES = {
+            // keyset page of one month (GET /api/transactions with a date range)
+            "SELECT id, amount, transaction_date FROM %s WHERE user_id = ? AND is_deleted = false " +
+                    "AND transaction_date BETWEEN ? AND ? ORDER BY transaction_date DESC, id DESC LIMIT 50",
+            // per-user totals of one month (rollup rebuilds and the legacy summary sums)
+            "SELECT type, SUM(amount) FROM %s WHERE user_id = ? AND is_deleted = false " +
+                    "AND transaction_date BETWEEN ? AND ? GROUP BY type",
+            // totals of one month over all users (rollup backfill of a month); the user parameter is unused
+            "SELECT user_id, SUM(amount) FROM %s WHERE ? > 0 AND is_deleted = false " +
+                    "AND transaction_date BETWEEN ? AND ? GROUP BY user_id"
+    };
+
+    @Test
+    public void flatVersusPartitioned() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(System.getProperty("benchmark.datasource.url"),
+                System.getProperty("benchmark.datasource.username"), System.getProperty("benchmark.datasource.password"))) {
+            setUp(connection);
+            try {
+                for (String query : QUERIES) {
+                    String flat = measure(connection, String.format(query, SCHEMA + ".flat"));
+                    String partitioned = measure(connection, String.format(query, SCHEMA + ".partitioned"));
+                    System.out.println(query.replace("%s", "<table>"));
+                    System.out.println("  flat:        " + flat);
+                    System.out.println("  partitioned: " + partitioned);
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the query for random users and months; returns median and p95 latency and the number of
+     * partitions in the plan of the last parameters.
+     */
+    private static String measure(Connection connection, String sql) throws SQLException {
+        List<Long> latencies = new ArrayList<>(ROUNDS);
+        Random random = new Random(42);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = -20; i < ROUNDS; i++) {
+                LocalDate month = FIRST_DAY.plusMonths(random.nextInt(YEARS * 12));
+                statement.setLong(1, 1 + random.nextInt(USERS));
+                statement.setDate(2, Date.valueOf(month));
+                statement.setDate(3, Date.valueOf(month.plusMonths(1).minusDays(1)));
+                long start = System.nanoTime();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getObject(1);
+                    }
+                }
+                if (i >= 0) { // the first rounds warm up caches and the generic plan
+                    latencies.add(System.nanoTime() - start);
+                }
+            }
+        }
+        Collections.sort(latencies);
+        return String.format("median=%.2fms p95=%.2fms scans=%d",
+                latencies.get(latencies.size() / 2) / 1e6,
+                latencies.get((int) Math.ceil(latencies.size() * 0.95) - 1) / 1e6,
+                scannedRelations(connection, sql));
+    }
+
+    private static int scannedRelations(Connection connection, String sql) throws SQLException {
+        String explain = "EXPLAIN " + sql.replaceFirst("\\?", "1")
+                .replaceFirst("\\?", "DATE '" + FIRST_DAY.plusMonths(30) + "'")
+                .replaceFirst("\\?", "DATE '" + FIRST_DAY.plusMonths(31).minusDays(1) + "'");
+        int scans = 0;
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(explain)) {
+            while (rs.next()) {
+                if (rs.getString(1).matches(".*(Seq|Index|Index Only|Bitmap Heap) Scan.* on .*")) {
+                    scans++;
+                }
+            }
+        }
+        return scans;
+    }
+
+    private static void setUp(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            String columns = "(id BIGINT NOT NULL, user_id BIGINT NOT NULL, category_id BIGINT, amount NUMERIC(14, 2) NOT NULL, " +
+                    "type VARCHAR(10) NOT NULL, transaction_date DATE NOT NULL, is_deleted BOOLEAN NOT NULL DEFAULT FALSE, ";
+            statement.execute("CREATE TABLE " + SCHEMA + ".flat " + columns + "PRIMARY KEY (id))");
+            statement.execute("CREATE TABLE " + SCHEMA + ".partitioned " + columns + "PRIMARY KEY (id, transaction_date)) " +
+                    "PARTITION BY RANGE (transaction_date)");
+            for (int month = 0; month < YEARS * 12; month++) {
+                LocalDate from = FIRST_DAY.plusMonths(month);
+                statement.execute(String.format("CREATE TABLE %s.p_%d_%02d PARTITION OF %s.partitioned FOR VALUES FROM ('%s') TO ('%s')",
+                        SCHEMA, from.getYear(), from.getMonthValue(), SCHEMA, from, from.plusMonths(1)));
+            }
+            statement.execute("INSERT INTO " + SCHEMA + ".flat " +
+                    "SELECT g, 1 + g % " + USERS + ", NULL, (g % 10000) / 100.0, " +
+                    "CASE WHEN g % 5 = 0 THEN 'INCOME' ELSE 'EXPENSE' END, " +
+                    "DATE '" + FIRST_DAY + "' + (g % " + (YEARS * 365) + "), g % 50 = 0 " +
+                    "FROM generate_series(1, " + ROWS + ") g");
+            statement.execute("INSERT INTO " + SCHEMA + ".partitioned SELECT * FROM " + SCHEMA + ".flat");
+            for (String table : new String[]{"flat", "partitioned"}) {
+                statement.execute("CREATE INDEX ON " + SCHEMA + "." + table +
+                        " (user_id, transaction_date DESC, id DESC) WHERE is_deleted = false");
+                statement.execute("CREATE INDEX ON " + SCHEMA + "." + table +
+                        " (user_id, type, transaction_date) INCLUDE (amount) WHERE is_deleted = false");
+                statement.execute("ANALYZE " + SCHEMA + "." + table);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.smartbudget.benchmark;
+
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.Transaction;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.repository.TransactionRepository;
+import com.smartbudget.service.impl.TransactionServiceImpl;
+import com.smartbudget.support.ServiceJpaTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Bytes allocated and time per row when listing a user's transactions through managed entities
+ * mapped field by field (the former read path) against the DTO projection (GET /api/transactions),
+ * on embedded H2. Run with {@code mvn test -Dtest=ReadPathAllocationBenchmark -Dbenchmarks=true}.
+ */
+@ServiceJpaTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReadPathAllocationBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void entitiesVersusProjection() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long userId = tx.execute(status -> seed());
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Supplier<List<TransactionDto>> entities = () -> readOnly.execute(status -> {
+            List<Transaction> rows = transactionRepository.findByUserIdAndIsDeletedFalse(userId);
+            List<TransactionDto> dtos = new ArrayList<>(rows.size());
+            for (Transaction t : rows) {
+                dtos.add(new TransactionDto(t.getId(), t.getUser().getId(), t.getCategory() != null ? t.getCategory().getId() : null,
+                        t.getAmount(), t.getType(), t.getDescription(), t.getNotes(), t.getTransactionDate()));
+            }
+            return dtos;
+        });
+        Supplier<List<TransactionDto>> projection = () -> transactionService.findAllByUserId(userId);
+
+        // warm-up
+        measure(entities, 3);
+        measure(projection, 3);
+
+        double[] entityCost = measure(entities, ROUNDS);
+        double[] projectionCost = measure(projection, ROUNDS);
+
+        System.out.printf("bytes/row: entities=%.0f projection=%.0f; us/row: entities=%.2f projection=%.2f%n",
+                entityCost[0], projectionCost[0], entityCost[1], projectionCost[1]);
+    }
+
+    /**
+     * Returns the allocated bytes and microseconds per row, averaged over the given rounds.
+     */
+    private static double[] measure(Supplier<List<TransactionDto>> read, int rounds) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long rows = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            rows += read.get().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        return new double[]{allocated / (double) rows, elapsed / 1e3 / rows};
+    }
+
+    private Long seed() {
+        User user = new User();
+        user.setUsername("bench-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPasswordHash("hashed_password");
+        entityManager.persist(user);
+        Category category = new Category();
+        category.setUser(user);
+        category.setName("Food");
+        category.setType(TransactionType.EXPENSE);
+        entityManager.persist(category);
+        for (int i = 0; i < ROWS; i++) {
+            Transaction t = new Transaction();
+            t.setUser(user);
+            t.setCategory(i % 10 == 0 ? null : category);
+            t.setAmount(new BigDecimal("12.34"));
+            t.setType(TransactionType.EXPENSE);
+            t.setDescription("Transaction " + i);
+            t.setTransactionDate(LocalDate.of(2020, 1, 1).plusDays(i % 1_500));
+            t.setChangeVersion(0L);
+            entityManager.persist(t);
+            if (i % 1_000 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                user = entityManager.getReference(User.class, user.getId());
+                category = entityManager.getReference(Category.class, category.getId());
+            }
+        }
+        return user.getId();
+    }
+}
@@ -0,0 +1,127 @@
+package com.smartbudget.benchmark;
+
+import com.smartbudget.SmartBudgetApplication;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * p99 latency and throughput of GET /api/transactions under many concurrent clients, with the
+ * application on platform threads and on virtual threads, each against a pool of 10 connections.
+ * Build with the virtual-threads profile (otherwise both runs use platform threads):
+ * {@code mvn -Pvirtual-threads test -Dtest=RequestLoadBenchmark -Dbenchmarks=true}.
+ * Embedded H2 answers in microseconds; pass {@code -Dbenchmark.datasource.url=jdbc:postgresql://...}
+ * (with username and password) for JDBC calls that actually block.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+public class RequestLoadBenchmark {
+
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 50;
+
+    @Test
+    public void platformVersusVirtualThreads() throws Exception {
+        String platform = run(false);
+        String virtual = run(true);
+        System.out.println("platform threads: " + platform);
+        System.out.println("virtual threads:  " + virtual);
+    }
+
+    private String run(boolean virtualThreads) throws Exception {
+        String url = System.getProperty("benchmark.datasource.url", "jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SmartBudgetApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + url,
+                        "spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "sa"),
+                        "spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+                        "spring.datasource.driver-class-name=",
+                        "spring.jpa.properties.hibernate.dialect=" + (url.startsWith("jdbc:h2:")
+                                ? "org.hibernate.dialect.H2Dialect" : "org.hibernate.dialect.PostgreSQLDialect"),
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.hikari.maximum-pool-size=10",
+                        "server.tomcat.threads.max=50",
+                        "smartbudget.threads.virtual=" + virtualThreads)
+                .run()) {
+            Long userId = seed(context);
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            URI uri = URI.create("http://localhost:" + port + "/api/transactions?userId=" + userId + "&limit=50");
+            HttpClient client = HttpClient.newHttpClient();
+
+            // warm-up
+            load(client, uri, 50, 20);
+
+            long start = System.nanoTime();
+            List<Long> sorted = new ArrayList<>(load(client, uri, CLIENTS, REQUESTS_PER_CLIENT));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Collections.sort(sorted);
+            long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+            return String.format("requests/s=%.0f p99=%.1fms", sorted.size() / seconds, p99 / 1e6);
+        }
+    }
+
+    /**
+     * Every client sends its requests one after another; returns the latency of each request in nanoseconds.
+     */
+    private static List<Long> load(HttpClient client, URI uri, int clients, int requestsPerClient) throws InterruptedException {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            pool.execute(() -> {
+                for (int i = 0; i < requestsPerClient; i++) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("HTTP " + response.statusCode());
+                        }
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    latencies.add(System.nanoTime() - start);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        return latencies;
+    }
+
+    private static Long seed(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String username = "load-" + System.nanoTime();
+        jdbcTemplate.update("INSERT INTO users (username, email, password_hash, created_at, updated_at) " +
+                "VALUES (?, ?, 'hash', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", username, username + "@example.com");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+
+        List<TransactionDto> rows = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            TransactionDto dto = new TransactionDto();
+            dto.setUserId(userId);
+            dto.setAmount(new BigDecimal("12.34"));
+            dto.setType(TransactionType.EXPENSE);
+            dto.setTransactionDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            rows.add(dto);
+        }
+        context.getBean(TransactionService.class).saveBatch(rows);
+        return userId;
+    }
+}
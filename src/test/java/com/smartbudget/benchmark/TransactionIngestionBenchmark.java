@@ -0,0 +1,89 @@
+package com.smartbudget.benchmark;
+
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.service.impl.TransactionServiceImpl;
+import com.smartbudget.support.ServiceJpaTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput of the single-row create path (one transaction per row, as POST /api/transactions)
+ * against the batch path (POST /api/transactions/batch) on embedded H2.
+ * Run with {@code mvn test -Dtest=TransactionIngestionBenchmark -Dbenchmarks=true}.
+ * H2 has no network round-trips, so the gap is larger against PostgreSQL.
+ */
+@ServiceJpaTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TransactionIngestionBenchmark {
+
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void singleRowVersusBatch() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long userId = tx.execute(status -> {
+            User user = new User();
+            user.setUsername("bench-" + System.nanoTime());
+            user.setEmail(user.getUsername() + "@example.com");
+            user.setPasswordHash("hashed_password");
+            entityManager.persist(user);
+            return user.getId();
+        });
+        List<TransactionDto> rows = rows(userId);
+
+        // warm-up
+        rows.subList(0, 1_000).forEach(row -> tx.executeWithoutResult(status -> transactionService.save(row)));
+        tx.executeWithoutResult(status -> transactionService.saveBatch(rows.subList(0, 1_000)));
+
+        long start = System.nanoTime();
+        rows.forEach(row -> tx.executeWithoutResult(status -> transactionService.save(row)));
+        double singleRowPerSecond = ROWS / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        for (int from = 0; from < ROWS; from += 5_000) {
+            List<TransactionDto> chunk = rows.subList(from, from + 5_000);
+            tx.executeWithoutResult(status -> transactionService.saveBatch(chunk));
+        }
+        double batchPerSecond = ROWS / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("ingestion rows/s: single-row=%.0f batch=%.0f speedup=%.1fx%n",
+                singleRowPerSecond, batchPerSecond, batchPerSecond / singleRowPerSecond);
+    }
+
+    private static List<TransactionDto> rows(Long userId) {
+        List<TransactionDto> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            TransactionDto dto = new TransactionDto();
+            dto.setUserId(userId);
+            dto.setAmount(new BigDecimal("12.34"));
+            dto.setType(i % 10 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            dto.setTransactionDate(LocalDate.of(2020, 1, 1).plusDays(i % 1_500));
+            rows.add(dto);
+        }
+        return rows;
+    }
+}
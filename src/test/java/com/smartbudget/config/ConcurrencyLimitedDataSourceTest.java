@@ -0,0 +1,100 @@
+package com.smartbudget.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ConcurrencyLimitedDataSource using JUnit 5 and Mockito.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        dataSource = new ConcurrencyLimitedDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    /**
+     * Test: A permit is held while the connection is open and released once on close.
+     */
+    @Test
+    public void testGetConnection_releasesPermitOnClose() throws SQLException {
+        // Arrange
+        when(target.getConnection()).thenReturn(connection);
+
+        // Act
+        Connection first = dataSource.getConnection();
+        int whileOpen = dataSource.availablePermits();
+        first.close();
+        first.close();
+
+        // Assert
+        assertEquals(1, whileOpen);
+        assertEquals(2, dataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    /**
+     * Test: Callers beyond the limit time out instead of reaching the pool.
+     */
+    @Test
+    public void testGetConnection_timesOutWhenExhausted() throws SQLException {
+        // Arrange
+        when(target.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Act & Assert
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(2)).getConnection();
+    }
+
+    /**
+     * Test: A failing pool does not leak the permit.
+     */
+    @Test
+    public void testGetConnection_releasesPermitOnFailure() throws SQLException {
+        // Arrange
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        // Act & Assert
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    /**
+     * Test: Other calls go to the underlying connection.
+     */
+    @Test
+    public void testConnection_delegates() throws SQLException {
+        // Arrange
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        // Act
+        Connection wrapped = dataSource.getConnection();
+
+        // Assert
+        assertTrue(wrapped.getAutoCommit());
+    }
+}
@@ -0,0 +1,70 @@
+package com.smartbudget.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test of the Prometheus scrape endpoint against the full application on embedded H2.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureObservability(tracing = false)
+public class MetricsEndpointTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Test: Endpoint latencies, repository timers, pool and Hibernate meters are scraped, tagged by operation only.
+     */
+    @Test
+    public void testPrometheus_reportsHotPathsWithoutUserTags() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO users (username, email, password_hash, created_at, updated_at) " +
+                "VALUES ('metrics', 'metrics@example.com', 'hash', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'metrics'", Long.class);
+        assertEquals(HttpStatus.OK, rest.getForEntity("/api/transactions?userId=" + userId, String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, rest.getForEntity("/api/categories?userId=" + userId, String.class).getStatusCode());
+
+        // Act
+        ResponseEntity<String> response = rest.getForEntity("/actuator/prometheus", String.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String body = response.getBody();
+        assertNotNull(body);
+        assertTrue(body.contains("http_server_requests_seconds_bucket{"), "endpoint latency histogram");
+        assertTrue(body.contains("uri=\"/api/transactions\""), "transaction endpoint");
+        assertTrue(body.contains("uri=\"/api/categories\""), "category endpoint");
+        assertTrue(body.contains("spring_data_repository_invocations_seconds_bucket{"), "repository timers");
+        assertTrue(body.contains("repository=\"TransactionRepository\""), "transaction repository");
+        assertTrue(body.contains("repository=\"CategoryRepository\""), "category repository");
+        assertTrue(body.contains("hikaricp_connections_pending"), "connection pool saturation");
+        assertTrue(body.contains("hibernate_entities_loads_total"), "entities loaded");
+        assertTrue(body.contains("hibernate_query_executions_total"), "queries executed");
+        assertTrue(body.contains("hibernate_second_level_cache_requests_total"), "second-level cache");
+        // the test client's own http_client_requests meter is tagged with the URLs it requested
+        assertEquals(List.of(), body.lines()
+                .filter(line -> !line.startsWith("http_client_requests") && line.contains("userId"))
+                .toList(), "no per-user tags");
+    }
+}
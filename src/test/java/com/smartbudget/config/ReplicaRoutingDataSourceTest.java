@@ -0,0 +1,171 @@
+package com.smartbudget.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ReplicaRoutingDataSource with embedded H2 databases standing in for the primary and the replicas.
+ * Every database has a one-row table naming it.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private final AtomicBoolean primaryRequired = new AtomicBoolean();
+
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+
+    @BeforeEach
+    public void setUp() {
+        primary = database("primary");
+        replicaA = database("replica-a");
+        replicaB = database("replica-b");
+        primaryRequired.set(false);
+    }
+
+    /**
+     * Test: Read-only transactions read from a replica; writes and reads outside transactions use the primary.
+     */
+    @Test
+    public void testRouting_readOnlyTransactionsGoToReplica() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(List.of(replicaA), Duration.ofSeconds(30));
+
+        // Act & Assert
+        assertEquals("replica-a", readInTransaction(routing, true));
+        assertEquals("primary", readInTransaction(routing, false));
+        assertEquals("primary", new JdbcTemplate(routing).queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    /**
+     * Test: Read-only transactions alternate between the replicas.
+     */
+    @Test
+    public void testRouting_roundRobinOverReplicas() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(List.of(replicaA, replicaB), Duration.ofSeconds(30));
+
+        // Act
+        List<String> served = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            served.add(readInTransaction(routing, true));
+        }
+
+        // Assert
+        assertEquals(2, served.stream().filter("replica-a"::equals).count(), served::toString);
+        assertEquals(2, served.stream().filter("replica-b"::equals).count(), served::toString);
+    }
+
+    /**
+     * Test: A failing replica is skipped until retry-after passes; reads fall back to the primary meanwhile.
+     */
+    @Test
+    public void testRouting_failingReplicaFallsBackToPrimary() throws Exception {
+        // Arrange
+        AtomicBoolean down = new AtomicBoolean(true);
+        DataSource flaky = new FlakyDataSource(replicaA, down);
+        ReplicaRoutingDataSource routing = routing(List.of(flaky), Duration.ofMillis(200));
+
+        // Act & Assert
+        assertEquals("primary", readInTransaction(routing, true));
+        assertEquals(0, routing.availableReplicas());
+
+        down.set(false);
+        assertEquals("primary", readInTransaction(routing, true)); // still within retry-after
+        Thread.sleep(250);
+        assertEquals("replica-a", readInTransaction(routing, true));
+        assertEquals(1, routing.availableReplicas());
+    }
+
+    /**
+     * Test: Read-only transactions that must see the latest writes stay on the primary.
+     */
+    @Test
+    public void testRouting_primaryRequiredStaysOnPrimary() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(List.of(replicaA), Duration.ofSeconds(30));
+        primaryRequired.set(true);
+
+        // Act & Assert
+        assertEquals("primary", readInTransaction(routing, true));
+    }
+
+    /**
+     * Test: Connections requested with explicit credentials come from the primary, also in read-only transactions.
+     */
+    @Test
+    public void testRouting_explicitCredentialsUsePrimary() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(List.of(replicaA), Duration.ofSeconds(30));
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        tx.setReadOnly(true);
+
+        // Act
+        String served = tx.execute(status -> {
+            try (Connection connection = routing.getConnection("sa", "");
+                 ResultSet resultSet = connection.createStatement().executeQuery("SELECT name FROM marker")) {
+                resultSet.next();
+                return resultSet.getString(1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Assert
+        assertEquals("primary", served);
+    }
+
+    private ReplicaRoutingDataSource routing(List<DataSource> replicas, Duration retryAfter) {
+        return new ReplicaRoutingDataSource(primary, replicas, retryAfter, primaryRequired::get);
+    }
+
+    private static String readInTransaction(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static final class FlakyDataSource extends DelegatingDataSource {
+
+        private final AtomicBoolean down;
+
+        private FlakyDataSource(DataSource target, AtomicBoolean down) {
+            super(target);
+            this.down = down;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down.get()) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
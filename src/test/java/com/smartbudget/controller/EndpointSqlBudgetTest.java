@@ -0,0 +1,271 @@
+package com.smartbudget.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartbudget.dto.CategoryDto;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.service.CategoryService;
+import com.smartbudget.service.TransactionService;
+import com.smartbudget.support.ApplicationSqlTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.smartbudget.support.SqlStatementBudget.assertWithin;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets of the REST endpoints, run through the full stack against embedded H2.
+ * Every user owns a realistic history (three years of transactions over two dozen categories),
+ * so a statement issued per row or per category shows up as a blown budget, not as a slow test.
+ */
+@ApplicationSqlTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class EndpointSqlBudgetTest {
+
+    private static final int USERS = 3;
+    private static final int CATEGORIES_PER_USER = 24;
+    private static final int TRANSACTIONS_PER_USER = 3_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 1, 1);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<List<Long>> categoryIds = new ArrayList<>();
+
+    @BeforeAll
+    public void seed() {
+        Random random = new Random(7);
+        for (int u = 0; u < USERS; u++) {
+            String username = "budget-" + u + "-" + System.nanoTime();
+            jdbcTemplate.update("INSERT INTO users (username, email, password_hash, created_at, updated_at) " +
+                    "VALUES (?, ?, 'hash', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", username, username + "@example.com");
+            Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+            userIds.add(userId);
+
+            List<Long> categories = new ArrayList<>();
+            for (int c = 0; c < CATEGORIES_PER_USER; c++) {
+                CategoryDto category = new CategoryDto();
+                category.setUserId(userId);
+                category.setName("Category " + c);
+                category.setType(c < 3 ? TransactionType.INCOME : TransactionType.EXPENSE);
+                categories.add(categoryService.save(category).getId());
+            }
+            categoryIds.add(categories);
+
+            List<TransactionDto> rows = new ArrayList<>(TRANSACTIONS_PER_USER);
+            for (int i = 0; i < TRANSACTIONS_PER_USER; i++) {
+                int c = random.nextInt(CATEGORIES_PER_USER);
+                rows.add(transaction(userId, i % 10 == 0 ? null : categories.get(c),
+                        c < 3 ? TransactionType.INCOME : TransactionType.EXPENSE,
+                        FIRST_DAY.plusDays(random.nextInt(3 * 365)), BigDecimal.valueOf(random.nextInt(100_000) + 1, 2)));
+            }
+            assertEquals(TRANSACTIONS_PER_USER, transactionService.saveBatch(rows).getCreated());
+        }
+    }
+
+    @Test
+    public void testListTransactions_pageAndNextPage() throws Exception {
+        Long userId = userIds.get(0);
+        MvcResult first = assertWithin("GET /api/transactions", 2,
+                () -> mvc.perform(get("/api/transactions").param("userId", userId.toString()).param("limit", "100"))
+                        .andExpect(status().isOk()).andReturn());
+        String cursor = json(first).get("nextCursor").asText();
+
+        assertWithin("GET /api/transactions (next page)", 2,
+                () -> mvc.perform(get("/api/transactions").param("userId", userId.toString()).param("cursor", cursor))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    public void testListTransactionsInRange() throws Exception {
+        assertWithin("GET /api/transactions/range", 2,
+                () -> mvc.perform(get("/api/transactions/range").param("userId", userIds.get(1).toString())
+                                .param("startDate", "2023-01-01").param("endDate", "2023-06-30"))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    public void testTransactionChanges_pageAndNextPage() throws Exception {
+        Long userId = userIds.get(1);
+        // the committed change version, then the page up to it
+        MvcResult first = assertWithin("GET /api/transactions/changes", 2,
+                () -> mvc.perform(get("/api/transactions/changes").param("userId", userId.toString()).param("limit", "500"))
+                        .andExpect(status().isOk()).andReturn());
+        String token = json(first).get("nextToken").asText();
+
+        assertWithin("GET /api/transactions/changes (next page)", 2,
+                () -> mvc.perform(get("/api/transactions/changes").param("userId", userId.toString()).param("since", token))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    public void testGetTransaction() throws Exception {
+        Long id = firstTransactionId(userIds.get(0));
+        assertWithin("GET /api/transactions/{id}", 1,
+                () -> mvc.perform(get("/api/transactions/{id}", id)).andExpect(status().isOk()));
+    }
+
+    @Test
+    public void testSummary() throws Exception {
+        // a range no other test asks for, so the summary cache cannot answer it
+        assertWithin("GET /api/transactions/summary", 3,
+                () -> mvc.perform(get("/api/transactions/summary").param("userId", userIds.get(2).toString())
+                                .param("startDate", "2022-03-01").param("endDate", "2024-10-31"))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    public void testTimeSeries() throws Exception {
+        assertWithin("GET /api/transactions/timeseries", 2,
+                () -> mvc.perform(get("/api/transactions/timeseries").param("userId", userIds.get(2).toString())
+                                .param("startDate", "2022-01-01").param("endDate", "2024-12-31").param("granularity", "week"))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    public void testListCategories() throws Exception {
+        assertWithin("GET /api/categories", 2,
+                () -> mvc.perform(get("/api/categories").param("userId", userIds.get(1).toString()))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    public void testConditionalGet_notModifiedUntilUserWrites() throws Exception {
+        Long userId = userIds.get(1);
+        MvcResult first = mvc.perform(get("/api/transactions/summary").param("userId", userId.toString())
+                        .param("startDate", "2022-01-01").param("endDate", "2022-12-31"))
+                .andExpect(status().isOk()).andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        // only the change version is read
+        assertWithin("GET /api/transactions/summary (not modified)", 1,
+                () -> mvc.perform(get("/api/transactions/summary").param("userId", userId.toString())
+                                .param("startDate", "2022-01-01").param("endDate", "2022-12-31")
+                                .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                        .andExpect(status().isNotModified()));
+        assertWithin("GET /api/transactions (not modified)", 1,
+                () -> mvc.perform(get("/api/transactions").param("userId", userId.toString())
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                        .andExpect(status().isNotModified()));
+
+        // a write of another user keeps the tag, a write of the user changes it
+        categoryService.save(category(userIds.get(0), "Conditional other"));
+        mvc.perform(get("/api/categories").param("userId", userId.toString()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        categoryService.save(category(userId, "Conditional own"));
+        MvcResult changed = mvc.perform(get("/api/categories").param("userId", userId.toString()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk()).andReturn();
+        assertNotEquals(etag, changed.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testCreateUpdateDeleteTransaction() throws Exception {
+        Long userId = userIds.get(0);
+        Long food = categoryIds.get(0).get(5);
+        Long rent = categoryIds.get(0).get(6);
+
+        // ownership check, insert, the rollup upsert, the budget lookup and the change version, plus id sequence calls
+        MvcResult created = assertWithin("POST /api/transactions", 8,
+                () -> mvc.perform(post("/api/transactions").contentType(MediaType.APPLICATION_JSON)
+                                .content(body(transaction(userId, food, TransactionType.EXPENSE, LocalDate.of(2024, 5, 1), new BigDecimal("12.50")))))
+                        .andExpect(status().isCreated()).andReturn());
+        long id = json(created).get("id").asLong();
+
+        // state read, versioned update, the rollup upserts of the old and the new key, the budget lookup and the change version
+        assertWithin("PUT /api/transactions/{id}", 10,
+                () -> mvc.perform(put("/api/transactions/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                                .content(body(transaction(userId, rent, TransactionType.EXPENSE, LocalDate.of(2024, 5, 2), new BigDecimal("40.00")))))
+                        .andExpect(status().isOk()));
+
+        assertWithin("DELETE /api/transactions/{id}", 6,
+                () -> mvc.perform(delete("/api/transactions/{id}", id)).andExpect(status().isNoContent()));
+    }
+
+    @Test
+    public void testCreateBatch() throws Exception {
+        Long userId = userIds.get(1);
+        List<TransactionDto> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add(transaction(userId, categoryIds.get(1).get(3 + i % 20), TransactionType.EXPENSE,
+                    LocalDate.of(2025, 1, 1).plusDays(i % 90), new BigDecimal("9.99")));
+        }
+
+        // lookups once, inserts in JDBC batches of 50, one sequence call per 50 ids
+        assertWithin("POST /api/transactions/batch (500 rows)", 62,
+                () -> mvc.perform(post("/api/transactions/batch").contentType(MediaType.APPLICATION_JSON).content(body(rows)))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    public void testBulkDeleteAndRestore() throws Exception {
+        String selection = "{\"userId\":" + userIds.get(2) + ",\"startDate\":\"2024-04-01\",\"endDate\":\"2024-06-30\"}";
+
+        // one UPDATE, one grouped SELECT, then the rollup rows of the quarter locked and rewritten in batches
+        assertWithin("POST /api/transactions/bulk-delete", 14,
+                () -> mvc.perform(post("/api/transactions/bulk-delete").contentType(MediaType.APPLICATION_JSON).content(selection))
+                        .andExpect(status().isOk()));
+        assertWithin("POST /api/transactions/bulk-restore", 14,
+                () -> mvc.perform(post("/api/transactions/bulk-restore").contentType(MediaType.APPLICATION_JSON).content(selection))
+                        .andExpect(status().isOk()));
+    }
+
+    private Long firstTransactionId(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT MIN(id) FROM transactions WHERE user_id = ?", Long.class, userId);
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private String body(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private static CategoryDto category(Long userId, String name) {
+        CategoryDto category = new CategoryDto();
+        category.setUserId(userId);
+        category.setName(name);
+        category.setType(TransactionType.EXPENSE);
+        return category;
+    }
+
+    private static TransactionDto transaction(Long userId, Long categoryId, TransactionType type, LocalDate date, BigDecimal amount) {
+        TransactionDto dto = new TransactionDto();
+        dto.setUserId(userId);
+        dto.setCategoryId(categoryId);
+        dto.setAmount(amount);
+        dto.setType(type);
+        dto.setTransactionDate(date);
+        return dto;
+    }
+}
@@ -0,0 +1,235 @@
+package com.smartbudget.repository;
+
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.support.SqlStatementCounter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN on the SQL generated for each repository query and asserts that the
+ * Flyway-managed indexes are used instead of a table scan.
+ * The schema comes from the H2 migrations, which mirror the PostgreSQL index columns.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.smartbudget.support.SqlStatementCounter")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TransactionRepositoryIndexTest {
+
+    /**
+     * H2 keeps a single-column index behind the user foreign key and prefers it for lookups by
+     * user alone. PostgreSQL has no such index and serves these from idx_transactions_user_date_id.
+     */
+    private static final String H2_USER_FK_INDEX = "FK_TRANSACTIONS_USER";
+
+    private static final int USERS = 20;
+    private static final int CATEGORIES_PER_USER = 8;
+    private static final Long USER_ID = 1L;
+    private static final Long CATEGORY_ID = 102L;
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Seed a few users with two years of history each and refresh the optimizer statistics,
+     * so the planner has realistic selectivity to choose between indexes.
+     * ANALYZE commits, so the data is written once per class and removed afterwards.
+     */
+    @BeforeAll
+    public void seed() {
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password_hash, created_at, updated_at) " +
+                "VALUES (?, ?, ?, 'hash', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", users());
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, user_id, name, type, is_default, created_at) " +
+                "VALUES (?, ?, ?, 'EXPENSE', false, CURRENT_TIMESTAMP)", categories());
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, user_id, category_id, amount, type, transaction_date, is_deleted, created_at, updated_at) " +
+                "VALUES (?, ?, ?, 10.00, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", transactions());
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    public void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM transactions");
+        jdbcTemplate.execute("DELETE FROM categories");
+        jdbcTemplate.execute("DELETE FROM users");
+    }
+
+    @Test
+    public void testFindByUserIdAndIsDeletedFalse_usesIndex() {
+        assertIndexUsed(H2_USER_FK_INDEX,
+                () -> transactionRepository.findByUserIdAndIsDeletedFalse(USER_ID), USER_ID);
+    }
+
+    @Test
+    public void testFindDtosByUserId_usesIndex() {
+        assertIndexUsed(H2_USER_FK_INDEX,
+                () -> transactionRepository.findDtosByUserId(USER_ID), USER_ID);
+    }
+
+    @Test
+    public void testFindDtosByUserIdAndDateRange_usesIndex() {
+        assertIndexUsed("IDX_TRANSACTIONS_USER_DATE_ID",
+                () -> transactionRepository.findDtosByUserIdAndDateRange(USER_ID, START, END), USER_ID, START, END);
+    }
+
+    @Test
+    public void testFindByUserIdAndDateRange_usesIndex() {
+        assertIndexUsed("IDX_TRANSACTIONS_USER_DATE_ID",
+                () -> transactionRepository.findByUserIdAndDateRange(USER_ID, START, END, Pageable.unpaged()), USER_ID, START, END);
+    }
+
+    @Test
+    public void testFindPageByUserId_usesIndex() {
+        assertIndexUsed(H2_USER_FK_INDEX,
+                () -> transactionRepository.findPageByUserId(USER_ID, END, Long.MAX_VALUE, PageRequest.of(0, 51)),
+                USER_ID, END, Long.MAX_VALUE, 0, 51);
+    }
+
+    @Test
+    public void testFindPageByUserIdAndDateRange_usesIndex() {
+        assertIndexUsed("IDX_TRANSACTIONS_USER_DATE_ID",
+                () -> transactionRepository.findPageByUserIdAndDateRange(USER_ID, START, END, END, Long.MAX_VALUE, PageRequest.of(0, 51)),
+                USER_ID, START, END, END, Long.MAX_VALUE, 0, 51);
+    }
+
+    @Test
+    public void testStreamByUserId_usesIndex() {
+        assertIndexUsed(H2_USER_FK_INDEX, () -> {
+            try (Stream<?> rows = transactionRepository.streamByUserId(USER_ID)) {
+                rows.count();
+            }
+        }, USER_ID);
+    }
+
+    @Test
+    public void testFindByUserIdTypeAndDateRange_usesIndex() {
+        assertIndexUsed("IDX_TRANSACTIONS_USER_TYPE_DATE",
+                () -> transactionRepository.findByUserIdTypeAndDateRange(USER_ID, TransactionType.EXPENSE, START, END),
+                USER_ID, TransactionType.EXPENSE.name(), START, END);
+    }
+
+    @Test
+    public void testFindByUserIdCategoryAndDateRange_usesIndex() {
+        assertIndexUsed("IDX_TRANSACTIONS_USER_CATEGORY_DATE",
+                () -> transactionRepository.findByUserIdCategoryAndDateRange(USER_ID, CATEGORY_ID, START, END),
+                USER_ID, CATEGORY_ID, START, END);
+    }
+
+    @Test
+    public void testSumIncomeByUserAndDateRange_usesCoveringIndex() {
+        assertIndexUsed("IDX_TRANSACTIONS_USER_TYPE_DATE",
+                () -> transactionRepository.sumIncomeByUserAndDateRange(USER_ID, START, END), USER_ID, START, END);
+    }
+
+    @Test
+    public void testSumExpenseByUserAndDateRange_usesCoveringIndex() {
+        assertIndexUsed("IDX_TRANSACTIONS_USER_TYPE_DATE",
+                () -> transactionRepository.sumExpenseByUserAndDateRange(USER_ID, START, END), USER_ID, START, END);
+    }
+
+    @Test
+    public void testFindByCategoryId_usesIndex() {
+        assertIndexUsed("IDX_TRANSACTIONS_CATEGORY",
+                () -> transactionRepository.findByCategoryId(CATEGORY_ID), CATEGORY_ID);
+    }
+
+    @Test
+    public void testCountByUserIdAndIsDeletedFalse_usesIndex() {
+        assertIndexUsed(H2_USER_FK_INDEX,
+                () -> transactionRepository.countByUserIdAndIsDeletedFalse(USER_ID), USER_ID);
+    }
+
+    @Test
+    public void testFindChangesByUserId_usesIndex() {
+        assertIndexUsed("IDX_TRANSACTIONS_USER_CHANGE_ID",
+                () -> transactionRepository.findChangesByUserId(USER_ID, 10L, 0L, 20L, PageRequest.of(0, 501)),
+                USER_ID, 10L, 10L, 0L, 20L, 0, 501);
+    }
+
+    @Test
+    public void testSummarizeRollups_usesIndex() {
+        assertIndexUsed("UQ_ROLLUP_KEY",
+                () -> rollupRepository.summarizeByUserAndDateRange(USER_ID, START, END), USER_ID, START, END);
+    }
+
+    @Test
+    public void testSumRollupsByDayAndType_usesIndex() {
+        assertIndexUsed("UQ_ROLLUP_KEY",
+                () -> rollupRepository.sumByDayAndType(USER_ID, START, END), USER_ID, START, END);
+    }
+
+    @Test
+    public void testFindRollupsForUpdate_usesIndex() {
+        assertIndexUsed("UQ_ROLLUP_KEY",
+                () -> rollupRepository.findForUpdate(USER_ID, START, END), USER_ID, START, END);
+    }
+
+    private static List<Object[]> users() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long user = 1; user <= USERS; user++) {
+            rows.add(new Object[]{user, "user" + user, "user" + user + "@example.com"});
+        }
+        return rows;
+    }
+
+    private static List<Object[]> categories() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long user = 1; user <= USERS; user++) {
+            for (int category = 0; category < CATEGORIES_PER_USER; category++) {
+                rows.add(new Object[]{user * 100 + category, user, "category" + category});
+            }
+        }
+        return rows;
+    }
+
+    private static List<Object[]> transactions() {
+        List<Object[]> rows = new ArrayList<>();
+        long id = 1;
+        for (long user = 1; user <= USERS; user++) {
+            for (int day = 0; day < 2 * 365; day++) {
+                String type = day % 10 == 0 ? "INCOME" : "EXPENSE";
+                rows.add(new Object[]{id++, user, user * 100 + day % CATEGORIES_PER_USER, type,
+                        LocalDate.of(2023, 1, 1).plusDays(day), day % 50 == 0});
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Run the repository call, capture the SQL it issued and EXPLAIN it with the given parameters.
+     */
+    private void assertIndexUsed(String index, Runnable query, Object... params) {
+        SqlStatementCounter.reset();
+        query.run();
+        List<String> statements = SqlStatementCounter.statements();
+        assertEquals(1, statements.size(), () -> "Statements: " + statements);
+        String sql = statements.get(0);
+
+        List<Object> args = new ArrayList<>(Arrays.asList(params));
+        assertEquals(sql.chars().filter(c -> c == '?').count(), args.size(), () -> "Parameters of: " + sql);
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args.toArray()));
+
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+        assertFalse(plan.contains("tableScan"), () -> "Unexpected table scan in plan:\n" + plan);
+    }
+}
@@ -0,0 +1,209 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.BudgetAlertDto;
+import com.smartbudget.dto.BudgetStatusDto;
+import com.smartbudget.dto.CategoryBudgetDto;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.support.ServiceJpaTest;
+import com.smartbudget.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for category budgets against the real JPA layer (embedded H2): spend counters
+ * maintained by the transaction write path and threshold alerts. Every call commits on its own,
+ * so concurrent writers really contend for the budget lock.
+ */
+@ServiceJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BudgetTrackingTest {
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private BudgetServiceImpl budgetService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+    private Long food;
+    private Long rent;
+
+    @BeforeEach
+    public void setUp() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            User user = new User();
+            user.setUsername("budget-" + System.nanoTime());
+            user.setEmail(user.getUsername() + "@example.com");
+            user.setPasswordHash("hashed_password");
+            entityManager.persist(user);
+            userId = user.getId();
+            food = persistCategory(user, "Food");
+            rent = persistCategory(user, "Rent");
+        });
+    }
+
+    /**
+     * Test: Spend counters follow creates, updates and deletes, including category moves and income.
+     */
+    @Test
+    public void testStatus_followsWrites() {
+        // Arrange
+        budgetService.save(budget(food, "200.00"));
+        budgetService.save(budget(rent, "1000.00"));
+
+        // Act
+        TransactionDto lunch = transactionService.save(expense(food, "30.00", today()));
+        transactionService.save(expense(food, "20.00", today()));
+        transactionService.save(expense(food, "99.00", today().minusMonths(1)));
+        TransactionDto salary = expense(food, "500.00", today());
+        salary.setType(TransactionType.INCOME);
+        transactionService.save(salary);
+        lunch.setCategoryId(rent);
+        lunch.setAmount(new BigDecimal("35.00"));
+        transactionService.save(lunch);
+        TransactionDto deleted = transactionService.save(expense(rent, "15.00", today()));
+        transactionService.delete(deleted.getId());
+
+        // Assert
+        List<BudgetStatusDto> statuses = budgetService.findStatusByUserId(userId, YearMonth.now());
+        assertEquals(List.of("Food", "Rent"), statuses.stream().map(BudgetStatusDto::getCategoryName).collect(Collectors.toList()));
+        assertEquals(new BigDecimal("20.00"), statuses.get(0).getSpent());
+        assertEquals(new BigDecimal("180.00"), statuses.get(0).getRemaining());
+        assertEquals(10, statuses.get(0).getPercentUsed());
+        assertEquals(new BigDecimal("35.00"), statuses.get(1).getSpent());
+        assertEquals(new BigDecimal("99.00"), budgetService.findStatusByUserId(userId, YearMonth.now().minusMonths(1)).get(0).getSpent());
+    }
+
+    /**
+     * Test: Creating a budget picks up the spend of the month so far, and reading the status is a
+     * single query once the month has a counter.
+     */
+    @Test
+    public void testStatus_startsFromExistingSpend() {
+        // Arrange
+        transactionService.save(expense(food, "45.00", today()));
+        budgetService.save(budget(food, "50.00"));
+
+        // Act
+        SqlStatementCounter.reset();
+        List<BudgetStatusDto> statuses = budgetService.findStatusByUserId(userId, YearMonth.now());
+
+        // Assert
+        assertEquals(1, SqlStatementCounter.count(), () -> "Statements: " + SqlStatementCounter.statements());
+        assertEquals(new BigDecimal("45.00"), statuses.get(0).getSpent());
+        assertEquals(90, statuses.get(0).getPercentUsed());
+        assertEquals(80, statuses.get(0).getAlertedPercent());
+        assertEquals(List.of(80), thresholdsAlerted());
+    }
+
+    /**
+     * Test: Each threshold is alerted once per month, however often the spend crosses it.
+     */
+    @Test
+    public void testAlerts_oncePerThresholdAndMonth() {
+        // Arrange
+        budgetService.save(budget(food, "100.00"));
+
+        // Act
+        transactionService.save(expense(food, "50.00", today()));
+        TransactionDto crossing = transactionService.save(expense(food, "30.00", today()));
+        transactionService.delete(crossing.getId());
+        transactionService.save(expense(food, "30.00", today()));
+        transactionService.save(expense(food, "25.00", today()));
+        transactionService.save(expense(food, "10.00", today()));
+        transactionService.save(expense(food, "90.00", today().minusMonths(1)));
+
+        // Assert
+        assertEquals(List.of(80, 80, 100), thresholdsAlerted());
+    }
+
+    /**
+     * Test: Concurrent writes that together cross a threshold raise its alert exactly once.
+     */
+    @Test
+    public void testAlerts_exactlyOnceUnderConcurrentWrites() throws Exception {
+        // Arrange
+        budgetService.save(budget(food, "100.00"));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Callable<TransactionDto>> writes = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            writes.add(() -> transactionService.save(expense(food, "10.00", today())));
+        }
+
+        // Act
+        try {
+            for (Future<TransactionDto> write : pool.invokeAll(writes)) {
+                write.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        assertEquals(new BigDecimal("160.00"), budgetService.findStatusByUserId(userId, YearMonth.now()).get(0).getSpent());
+        assertEquals(List.of(80, 100), thresholdsAlerted());
+    }
+
+    private List<Integer> thresholdsAlerted() {
+        return budgetService.findAlertsByUserId(userId).stream()
+                .map(BudgetAlertDto::getThresholdPercent)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now();
+    }
+
+    private CategoryBudgetDto budget(Long categoryId, String limit) {
+        return new CategoryBudgetDto(null, userId, categoryId, new BigDecimal(limit));
+    }
+
+    private TransactionDto expense(Long categoryId, String amount, LocalDate date) {
+        TransactionDto dto = new TransactionDto();
+        dto.setUserId(userId);
+        dto.setCategoryId(categoryId);
+        dto.setAmount(new BigDecimal(amount));
+        dto.setType(TransactionType.EXPENSE);
+        dto.setTransactionDate(date);
+        return dto;
+    }
+
+    private Long persistCategory(User user, String name) {
+        Category category = new Category();
+        category.setUser(user);
+        category.setName(name);
+        category.setType(TransactionType.EXPENSE);
+        entityManager.persist(category);
+        return category.getId();
+    }
+}
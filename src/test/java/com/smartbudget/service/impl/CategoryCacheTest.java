@@ -0,0 +1,109 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.CategoryDto;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.support.ServiceJpaTest;
+import com.smartbudget.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the second-level and query caches of User and Category (embedded H2).
+ * Every call runs in its own transaction, so repeated reads can only be served by the shared caches.
+ */
+@ServiceJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CategoryCacheTest {
+
+    @Autowired
+    private CategoryServiceImpl categoryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Long userId;
+
+    @BeforeEach
+    public void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        userId = tx.execute(status -> {
+            User user = new User();
+            user.setUsername("cache-" + System.nanoTime());
+            user.setEmail(user.getUsername() + "@example.com");
+            user.setPasswordHash("hashed_password");
+            entityManager.persist(user);
+            return user.getId();
+        });
+    }
+
+    /**
+     * Test: Listing a user's categories twice runs the query once.
+     */
+    @Test
+    public void testFindAllByUserId_servedFromQueryCache() {
+        // Arrange
+        categoryService.save(categoryDto(null, "Food"));
+        categoryNames();
+
+        // Act
+        SqlStatementCounter.reset();
+        List<String> names = categoryNames();
+
+        // Assert
+        assertEquals(List.of("Food"), names);
+        assertEquals(0, SqlStatementCounter.count(), () -> "Statements: " + SqlStatementCounter.statements());
+    }
+
+    /**
+     * Test: Creating, renaming and deleting a category is visible to the next cached read.
+     */
+    @Test
+    public void testFindAllByUserId_invalidatedByCategoryWrites() {
+        // Arrange
+        CategoryDto food = categoryService.save(categoryDto(null, "Food"));
+        categoryNames();
+
+        // Act & Assert
+        CategoryDto rent = categoryService.save(categoryDto(null, "Rent"));
+        assertEquals(List.of("Food", "Rent"), categoryNames());
+
+        categoryService.save(categoryDto(food.getId(), "Groceries"));
+        assertEquals(List.of("Groceries", "Rent"), categoryNames());
+        assertEquals("Groceries", categoryService.findById(food.getId()).getName());
+
+        categoryService.delete(rent.getId());
+        assertEquals(List.of("Groceries"), categoryNames());
+    }
+
+    private List<String> categoryNames() {
+        return categoryService.findAllByUserId(userId).stream()
+                .map(CategoryDto::getName)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private CategoryDto categoryDto(Long id, String name) {
+        CategoryDto dto = new CategoryDto();
+        dto.setId(id);
+        dto.setUserId(userId);
+        dto.setName(name);
+        dto.setType(TransactionType.EXPENSE);
+        return dto;
+    }
+}
@@ -0,0 +1,224 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.RecurrenceFrequency;
+import com.smartbudget.entity.RecurringRule;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.exception.BadRequestException;
+import com.smartbudget.exception.ResourceNotFoundException;
+import com.smartbudget.support.ServiceJpaTest;
+import com.smartbudget.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for set-based category deletion and merging against the real JPA layer (embedded H2).
+ */
+@ServiceJpaTest
+public class CategoryDeleteMergeTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private CategoryServiceImpl categoryService;
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private Category food;
+    private Category groceries;
+    private Category salary;
+
+    @BeforeEach
+    public void setUp() {
+        user = new User();
+        user.setUsername("merge-user");
+        user.setEmail("merge@example.com");
+        user.setPasswordHash("hashed_password");
+        entityManager.persist(user);
+        food = persistCategory("Food", TransactionType.EXPENSE);
+        groceries = persistCategory("Groceries", TransactionType.EXPENSE);
+        salary = persistCategory("Salary", TransactionType.INCOME);
+        entityManager.flush();
+    }
+
+    /**
+     * Test: Merging moves every transaction and its rollup totals to the target category and deletes the source.
+     */
+    @Test
+    public void testMerge_movesTransactionsAndTotals() {
+        // Arrange
+        seed(food, 40, "10.00");
+        seed(groceries, 20, "5.00");
+        TransactionDto deleted = transactionService.save(dto(food, "99.00", START));
+        transactionService.delete(deleted.getId());
+        flushAndClear();
+
+        // Act
+        categoryService.merge(food.getId(), groceries.getId());
+        flushAndClear();
+
+        // Assert
+        SummaryDto summary = transactionService.getSummary(user.getId(), START, END);
+        assertEquals(new BigDecimal("500.00"), summary.getCategoryBreakdown().get("Groceries"));
+        assertNull(summary.getCategoryBreakdown().get("Food"));
+        assertEquals(new BigDecimal("500.00"), summary.getTotalExpense());
+        assertEquals(groceries.getId(), transactionService.findById(deleted.getId()).getCategoryId());
+        assertThrows(ResourceNotFoundException.class, () -> categoryService.findById(food.getId()));
+    }
+
+    /**
+     * Test: Deleting keeps the transactions as uncategorized ones.
+     */
+    @Test
+    public void testDelete_transactionsBecomeUncategorized() {
+        // Arrange
+        seed(food, 10, "10.00");
+        transactionService.save(dto(null, "7.00", START));
+        flushAndClear();
+
+        // Act
+        categoryService.delete(food.getId());
+        flushAndClear();
+
+        // Assert
+        SummaryDto summary = transactionService.getSummary(user.getId(), START, END);
+        assertEquals(new BigDecimal("107.00"), summary.getTotalExpense());
+        assertTrue(summary.getCategoryBreakdown().isEmpty());
+        assertTrue(transactionService.findAllByUserId(user.getId()).stream().allMatch(t -> t.getCategoryId() == null));
+        assertThrows(ResourceNotFoundException.class, () -> categoryService.findById(food.getId()));
+    }
+
+    /**
+     * Test: Merging moves the recurring rules to the target category; deleting leaves them uncategorized.
+     */
+    @Test
+    public void testMergeAndDelete_moveRecurringRules() {
+        // Arrange
+        RecurringRule rent = persistRule(food);
+        RecurringRule gym = persistRule(groceries);
+        flushAndClear();
+
+        // Act
+        categoryService.merge(food.getId(), groceries.getId());
+        Long mergedCategoryId = entityManager.find(RecurringRule.class, rent.getId()).getCategoryId();
+        categoryService.delete(groceries.getId());
+        flushAndClear();
+
+        // Assert
+        assertEquals(groceries.getId(), mergedCategoryId);
+        assertNull(entityManager.find(RecurringRule.class, rent.getId()).getCategoryId());
+        assertNull(entityManager.find(RecurringRule.class, gym.getId()).getCategoryId());
+    }
+
+    /**
+     * Test: Delete and merge issue the same statements on transactions and categories for 10 and 500 transactions.
+     */
+    @Test
+    public void testDeleteAndMerge_constantStatements() {
+        // Arrange
+        Category small = persistCategory("Small", TransactionType.EXPENSE);
+        Category large = persistCategory("Large", TransactionType.EXPENSE);
+        Category smallMerged = persistCategory("Small merged", TransactionType.EXPENSE);
+        Category largeMerged = persistCategory("Large merged", TransactionType.EXPENSE);
+        seed(small, 10, "1.00");
+        seed(large, 500, "1.00");
+        seed(smallMerged, 10, "1.00");
+        seed(largeMerged, 500, "1.00");
+        flushAndClear();
+
+        // Act
+        int deleteSmall = statementsOf(() -> categoryService.delete(small.getId()));
+        int deleteLarge = statementsOf(() -> categoryService.delete(large.getId()));
+        int mergeSmall = statementsOf(() -> categoryService.merge(smallMerged.getId(), food.getId()));
+        int mergeLarge = statementsOf(() -> categoryService.merge(largeMerged.getId(), groceries.getId()));
+
+        // Assert
+        assertEquals(deleteSmall, deleteLarge);
+        assertEquals(mergeSmall, mergeLarge);
+        assertTrue(mergeLarge <= 6, () -> "Statements: " + mergeLarge);
+    }
+
+    /**
+     * Test: Only categories of the same type can be merged, and never into themselves.
+     */
+    @Test
+    public void testMerge_rejectsInvalidTarget() {
+        assertThrows(BadRequestException.class, () -> categoryService.merge(food.getId(), salary.getId()));
+        assertThrows(BadRequestException.class, () -> categoryService.merge(food.getId(), food.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> categoryService.merge(food.getId(), -1L));
+    }
+
+    // the rollup rebuild scales with the days of history, not with the number of transactions, and is left out
+    private int statementsOf(Runnable operation) {
+        SqlStatementCounter.reset();
+        operation.run();
+        entityManager.flush();
+        return (int) SqlStatementCounter.statements().stream()
+                .filter(sql -> sql.contains(" public.transactions ") || sql.contains(" public.categories "))
+                .count();
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void seed(Category category, int count, String amount) {
+        List<TransactionDto> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(dto(category, amount, START.plusDays(i % 300)));
+        }
+        transactionService.saveBatch(rows);
+    }
+
+    private TransactionDto dto(Category category, String amount, LocalDate date) {
+        TransactionDto dto = new TransactionDto();
+        dto.setUserId(user.getId());
+        dto.setCategoryId(category != null ? category.getId() : null);
+        dto.setAmount(new BigDecimal(amount));
+        dto.setType(TransactionType.EXPENSE);
+        dto.setTransactionDate(date);
+        return dto;
+    }
+
+    private RecurringRule persistRule(Category category) {
+        RecurringRule rule = new RecurringRule();
+        rule.setUserId(user.getId());
+        rule.setCategoryId(category.getId());
+        rule.setAmount(new BigDecimal("50.00"));
+        rule.setType(TransactionType.EXPENSE);
+        rule.setFrequency(RecurrenceFrequency.MONTHLY);
+        rule.setIntervalCount(1);
+        rule.setStartDate(START);
+        rule.setNextRunDate(START);
+        entityManager.persist(rule);
+        return rule;
+    }
+
+    private Category persistCategory(String name, TransactionType type) {
+        Category category = new Category();
+        category.setUser(user);
+        category.setName(name);
+        category.setType(type);
+        entityManager.persist(category);
+        return category;
+    }
+}
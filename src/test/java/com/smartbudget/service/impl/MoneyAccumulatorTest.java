@@ -0,0 +1,98 @@
+package com.smartbudget.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MoneyAccumulator: exact cent sums and the BigDecimal fallback.
+ */
+public class MoneyAccumulatorTest {
+
+    /**
+     * Test: Amounts with up to two decimals are summed exactly, including negative ones.
+     */
+    @Test
+    public void testAdd_sumsCents() {
+        // Arrange
+        MoneyAccumulator sum = new MoneyAccumulator();
+
+        // Act
+        sum.add(new BigDecimal("0.10"));
+        sum.add(new BigDecimal("0.20"));
+        sum.add(new BigDecimal("12"));
+        sum.add(new BigDecimal("0.5"));
+        sum.subtract(new BigDecimal("999999999999.99"));
+
+        // Assert
+        assertEquals(new BigDecimal("-999999999987.19"), sum.toBigDecimal());
+    }
+
+    /**
+     * Test: An empty sum is zero with the scale of the amount column.
+     */
+    @Test
+    public void testToBigDecimal_emptyIsZero() {
+        MoneyAccumulator sum = new MoneyAccumulator();
+
+        assertTrue(sum.isZero());
+        assertEquals(new BigDecimal("0.00"), sum.toBigDecimal());
+    }
+
+    /**
+     * Test: Amounts with more than two decimals switch to an exact BigDecimal sum.
+     */
+    @Test
+    public void testAdd_finerScaleFallsBackToBigDecimal() {
+        // Arrange
+        MoneyAccumulator sum = new MoneyAccumulator();
+
+        // Act
+        sum.add(new BigDecimal("1.25"));
+        sum.add(new BigDecimal("0.001"));
+        sum.add(new BigDecimal("1.25"));
+
+        // Assert
+        assertEquals(new BigDecimal("2.501"), sum.toBigDecimal());
+    }
+
+    /**
+     * Test: Sums beyond the long range of cents continue exactly as BigDecimal.
+     */
+    @Test
+    public void testAddCents_overflowFallsBackToBigDecimal() {
+        // Arrange
+        MoneyAccumulator sum = new MoneyAccumulator();
+        MoneyAccumulator other = new MoneyAccumulator();
+        other.addCents(5);
+
+        // Act
+        sum.addCents(Long.MAX_VALUE);
+        sum.addCents(Long.MAX_VALUE);
+        sum.add(other);
+
+        // Assert
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(BigDecimal.valueOf(2)).add(new BigDecimal("0.05"));
+        assertEquals(expected, sum.toBigDecimal());
+        assertFalse(sum.isZero());
+    }
+
+    /**
+     * Test: Amounts with too many digits for the cents path are still summed exactly.
+     */
+    @Test
+    public void testAdd_largeAmounts() {
+        // Arrange
+        MoneyAccumulator sum = new MoneyAccumulator();
+        BigDecimal large = new BigDecimal("12345678901234567.89");
+
+        // Act
+        sum.add(new BigDecimal("0.11"));
+        sum.add(large);
+
+        // Assert
+        assertEquals(large.add(new BigDecimal("0.11")), sum.toBigDecimal());
+    }
+}
@@ -0,0 +1,92 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.service.TransactionService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test of replica routing and read-your-writes with two embedded H2 databases: the
+ * replica has the schema but never receives the primary's rows, so a read shows where it was served.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "smartbudget.replicas.urls=" + ReadYourWritesTest.REPLICA_URL,
+        "smartbudget.replicas.read-your-writes=1h"
+})
+public class ReadYourWritesTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeAll
+    public static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        // written directly, so the service has not seen a write of this user
+        String username = "routing-" + System.nanoTime();
+        jdbcTemplate.update("INSERT INTO users (username, email, password_hash, created_at, updated_at) " +
+                "VALUES (?, ?, 'hash', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", username, username + "@example.com");
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+        jdbcTemplate.update("INSERT INTO transactions (id, user_id, amount, type, transaction_date, is_deleted, created_at, updated_at) " +
+                "VALUES (NEXT VALUE FOR transactions_id_seq, ?, 10.00, 'EXPENSE', DATE '2024-03-01', FALSE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", userId);
+    }
+
+    /**
+     * Test: Reads of a user without recent writes are served by the replica.
+     */
+    @Test
+    public void testRead_withoutRecentWriteUsesReplica() {
+        // Act & Assert
+        assertTrue(transactionService.findAllByUserId(userId).isEmpty());
+    }
+
+    /**
+     * Test: After a write, the user's reads are served by the primary and see the write.
+     */
+    @Test
+    public void testRead_afterWriteUsesPrimary() {
+        // Arrange
+        TransactionDto dto = new TransactionDto();
+        dto.setUserId(userId);
+        dto.setAmount(new BigDecimal("25.00"));
+        dto.setType(TransactionType.EXPENSE);
+        dto.setTransactionDate(LocalDate.of(2024, 3, 2));
+
+        // Act
+        transactionService.save(dto);
+
+        // Assert
+        assertEquals(2, transactionService.findAllByUserId(userId).size());
+    }
+}
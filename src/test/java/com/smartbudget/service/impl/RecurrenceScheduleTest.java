@@ -0,0 +1,97 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.entity.RecurrenceFrequency;
+import com.smartbudget.entity.RecurringRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the occurrence dates of RecurrenceSchedule.
+ */
+public class RecurrenceScheduleTest {
+
+    /**
+     * Test: Monthly rules count from the start date, so the 31st comes back after short months.
+     */
+    @Test
+    public void testNext_monthlyKeepsEndOfMonth() {
+        // Arrange
+        RecurringRule rule = rule(RecurrenceFrequency.MONTHLY, 1, null, LocalDate.of(2024, 1, 31), null);
+
+        // Act & Assert
+        assertEquals(List.of(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31),
+                LocalDate.of(2024, 4, 30)), occurrences(rule, 4));
+    }
+
+    /**
+     * Test: The interval applies from the start date, also when resuming from an arbitrary day.
+     */
+    @Test
+    public void testNext_intervalFromStartDate() {
+        // Arrange
+        RecurringRule biweekly = rule(RecurrenceFrequency.WEEKLY, 2, null, LocalDate.of(2024, 5, 6), null);
+        RecurringRule everyThirdDay = rule(RecurrenceFrequency.DAILY, 3, null, LocalDate.of(2024, 5, 1), null);
+
+        // Act & Assert
+        assertEquals(LocalDate.of(2024, 5, 6), RecurrenceSchedule.first(biweekly));
+        assertEquals(LocalDate.of(2024, 5, 20), RecurrenceSchedule.next(biweekly, LocalDate.of(2024, 5, 6)));
+        assertEquals(LocalDate.of(2024, 6, 3), RecurrenceSchedule.next(biweekly, LocalDate.of(2024, 5, 25)));
+        assertEquals(LocalDate.of(2024, 5, 10), RecurrenceSchedule.next(everyThirdDay, LocalDate.of(2024, 5, 7)));
+        assertEquals(LocalDate.of(2024, 5, 1), RecurrenceSchedule.next(everyThirdDay, LocalDate.of(2023, 1, 1)));
+    }
+
+    /**
+     * Test: CRON rules follow the date fields of the expression, on or after the start date.
+     */
+    @Test
+    public void testNext_cronDateFields() {
+        // Arrange
+        RecurringRule twiceMonthly = rule(RecurrenceFrequency.CRON, 1, "1,15 * *", LocalDate.of(2024, 5, 2), null);
+        RecurringRule lastDay = rule(RecurrenceFrequency.CRON, 1, "L * *", LocalDate.of(2024, 1, 1), null);
+        RecurringRule fridays = rule(RecurrenceFrequency.CRON, 1, "* * FRI", LocalDate.of(2024, 5, 1), null);
+
+        // Act & Assert
+        assertEquals(List.of(LocalDate.of(2024, 5, 15), LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 15)),
+                occurrences(twiceMonthly, 3));
+        assertEquals(List.of(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29)), occurrences(lastDay, 2));
+        assertEquals(LocalDate.of(2024, 5, 3), RecurrenceSchedule.first(fridays));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceSchedule.parseCron("32 * *"));
+    }
+
+    /**
+     * Test: No occurrence is returned after the end date.
+     */
+    @Test
+    public void testNext_stopsAtEndDate() {
+        // Arrange
+        RecurringRule rule = rule(RecurrenceFrequency.DAILY, 1, null, LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 3));
+
+        // Act & Assert
+        assertEquals(List.of(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 2), LocalDate.of(2024, 5, 3)), occurrences(rule, 5));
+    }
+
+    private static List<LocalDate> occurrences(RecurringRule rule, int max) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = RecurrenceSchedule.first(rule); date != null && dates.size() < max;
+             date = RecurrenceSchedule.next(rule, date)) {
+            dates.add(date);
+        }
+        return dates;
+    }
+
+    private static RecurringRule rule(RecurrenceFrequency frequency, int intervalCount, String cron,
+                                      LocalDate startDate, LocalDate endDate) {
+        RecurringRule rule = new RecurringRule();
+        rule.setFrequency(frequency);
+        rule.setIntervalCount(intervalCount);
+        rule.setCronExpression(cron);
+        rule.setStartDate(startDate);
+        rule.setEndDate(endDate);
+        return rule;
+    }
+}
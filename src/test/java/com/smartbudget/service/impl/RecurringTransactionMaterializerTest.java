@@ -0,0 +1,200 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.RecurringRuleDto;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.RecurrenceFrequency;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.exception.BadRequestException;
+import com.smartbudget.exception.ResourceNotFoundException;
+import com.smartbudget.support.ServiceJpaTest;
+import com.smartbudget.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for recurring rules and the materialization of their transactions against the
+ * real JPA layer (embedded H2).
+ */
+@ServiceJpaTest
+public class RecurringTransactionMaterializerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    @Autowired
+    private RecurringTransactionMaterializer materializer;
+
+    @Autowired
+    private RecurringRuleServiceImpl ruleService;
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private Category rent;
+
+    @BeforeEach
+    public void setUp() {
+        user = persistUser("recurring-user");
+        rent = persistCategory(user, "Rent");
+        entityManager.flush();
+    }
+
+    /**
+     * Test: After downtime every missed occurrence up to today is created once, and the summary counts them.
+     */
+    @Test
+    public void testMaterializeDue_catchesUpOnce() {
+        // Arrange
+        RecurringRuleDto daily = ruleService.save(rule(RecurrenceFrequency.DAILY, null, TODAY.minusDays(9), "5.00"));
+        ruleService.save(rule(RecurrenceFrequency.MONTHLY, null, LocalDate.of(2023, 12, 31), "800.00"));
+
+        // Act
+        int created = materializer.materializeDue(TODAY, 500);
+        int createdAgain = materializer.materializeDue(TODAY, 500);
+
+        // Assert
+        assertEquals(10 + 3, created);
+        assertEquals(0, createdAgain);
+        assertEquals(List.of(LocalDate.of(2023, 12, 31), LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29)),
+                datesOf("800.00"));
+        assertEquals(10, datesOf("5.00").size());
+        assertEquals(new BigDecimal("2450.00"),
+                transactionService.getSummary(user.getId(), LocalDate.of(2023, 12, 1), TODAY).getTotalExpense());
+
+        RecurringRuleDto advanced = ruleService.findAllByUserId(user.getId()).get(0);
+        assertEquals(daily.getId(), advanced.getId());
+        assertEquals(TODAY, advanced.getLastRunDate());
+        assertEquals(TODAY.plusDays(1), advanced.getNextRunDate());
+    }
+
+    /**
+     * Test: A batch creates at most batchSize transactions with one batched INSERT; the next batches
+     * continue with the remaining occurrences.
+     */
+    @Test
+    public void testMaterializeDue_boundedBatches() {
+        // Arrange
+        ruleService.save(rule(RecurrenceFrequency.DAILY, null, TODAY.minusDays(6), "1.00"));
+        ruleService.save(rule(RecurrenceFrequency.WEEKLY, null, TODAY.minusWeeks(2), "2.00"));
+        entityManager.flush();
+
+        // Act
+        SqlStatementCounter.reset();
+        int first = materializer.materializeDue(TODAY, 4);
+        entityManager.flush();
+        List<String> statements = SqlStatementCounter.statements();
+        int rest = 0;
+        int created;
+        while ((created = materializer.materializeDue(TODAY, 4)) > 0) {
+            assertTrue(created <= 4);
+            rest += created;
+        }
+
+        // Assert
+        assertEquals(4, first);
+        assertEquals(1, statements.stream().filter(sql -> sql.contains("insert into public.transactions ")).count(),
+                () -> "Statements: " + statements);
+        assertEquals(7 + 3 - 4, rest);
+        assertEquals(7, datesOf("1.00").stream().distinct().count());
+        assertEquals(List.of(TODAY.minusWeeks(2), TODAY.minusWeeks(1), TODAY), datesOf("2.00"));
+    }
+
+    /**
+     * Test: Changing a rule continues after its last occurrence; ended rules are no longer due.
+     */
+    @Test
+    public void testSave_updateContinuesAfterLastRun() {
+        // Arrange
+        RecurringRuleDto rule = rule(RecurrenceFrequency.DAILY, null, TODAY.minusDays(2), "3.00");
+        rule.setEndDate(TODAY.plusDays(1));
+        RecurringRuleDto saved = ruleService.save(rule);
+        materializer.materializeDue(TODAY, 500);
+
+        // Act
+        saved.setAmount(new BigDecimal("4.00"));
+        RecurringRuleDto updated = ruleService.save(saved);
+        int createdToday = materializer.materializeDue(TODAY, 500);
+        int createdTomorrow = materializer.materializeDue(TODAY.plusDays(1), 500);
+
+        // Assert
+        assertEquals(TODAY.plusDays(1), updated.getNextRunDate());
+        assertEquals(0, createdToday);
+        assertEquals(1, createdTomorrow);
+        assertEquals(List.of(TODAY.plusDays(1)), datesOf("4.00"));
+        assertNull(ruleService.findAllByUserId(user.getId()).get(0).getNextRunDate());
+        assertEquals(0, materializer.materializeDue(TODAY.plusDays(30), 500));
+    }
+
+    /**
+     * Test: Invalid cron expressions, end dates before the start and foreign categories are rejected.
+     */
+    @Test
+    public void testSave_rejectsInvalidRules() {
+        // Arrange
+        RecurringRuleDto missingCron = rule(RecurrenceFrequency.CRON, null, TODAY, "1.00");
+        RecurringRuleDto invalidCron = rule(RecurrenceFrequency.CRON, "32 * *", TODAY, "1.00");
+        RecurringRuleDto endsBeforeStart = rule(RecurrenceFrequency.DAILY, null, TODAY, "1.00");
+        endsBeforeStart.setEndDate(TODAY.minusDays(1));
+        RecurringRuleDto foreignCategory = rule(RecurrenceFrequency.DAILY, null, TODAY, "1.00");
+        foreignCategory.setCategoryId(persistCategory(persistUser("other-recurring-user"), "Hidden").getId());
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> ruleService.save(missingCron));
+        assertThrows(BadRequestException.class, () -> ruleService.save(invalidCron));
+        assertThrows(BadRequestException.class, () -> ruleService.save(endsBeforeStart));
+        assertThrows(ResourceNotFoundException.class, () -> ruleService.save(foreignCategory));
+    }
+
+    private List<LocalDate> datesOf(String amount) {
+        return transactionService.findAllByUserId(user.getId()).stream()
+                .filter(t -> t.getAmount().compareTo(new BigDecimal(amount)) == 0)
+                .map(TransactionDto::getTransactionDate)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private RecurringRuleDto rule(RecurrenceFrequency frequency, String cron, LocalDate startDate, String amount) {
+        RecurringRuleDto dto = new RecurringRuleDto();
+        dto.setUserId(user.getId());
+        dto.setCategoryId(rent.getId());
+        dto.setAmount(new BigDecimal(amount));
+        dto.setType(TransactionType.EXPENSE);
+        dto.setDescription(frequency + " rule");
+        dto.setFrequency(frequency);
+        dto.setCronExpression(cron);
+        dto.setStartDate(startDate);
+        return dto;
+    }
+
+    private User persistUser(String username) {
+        User u = new User();
+        u.setUsername(username);
+        u.setEmail(username + "@example.com");
+        u.setPasswordHash("hashed_password");
+        entityManager.persist(u);
+        return u;
+    }
+
+    private Category persistCategory(User owner, String name) {
+        Category category = new Category();
+        category.setUser(owner);
+        category.setName(name);
+        category.setType(TransactionType.EXPENSE);
+        entityManager.persist(category);
+        return category;
+    }
+}
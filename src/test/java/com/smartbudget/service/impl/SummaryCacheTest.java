@@ -0,0 +1,205 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.entity.Transaction;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SummaryCache: hits, range-aware invalidation and statistics.
+ */
+public class SummaryCacheTest {
+
+    private static final LocalDate JANUARY_START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate JANUARY_END = LocalDate.of(2024, 1, 31);
+
+    private final SummaryCache cache = new SummaryCache(100, Duration.ofMinutes(5));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /**
+     * Test: A repeated request is served from the cache and counted as a hit.
+     */
+    @Test
+    public void testGet_repeatedRequestIsHit() {
+        // Act
+        SummaryDto first = load(1L, JANUARY_START, JANUARY_END);
+        SummaryDto second = load(1L, JANUARY_START, JANUARY_END);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    /**
+     * Test: A summary cached at one change version is not served for another, e.g. after a write
+     * on another instance.
+     */
+    @Test
+    public void testGet_otherChangeVersionIsMiss() {
+        // Act
+        SummaryDto atFirstVersion = cache.get(1L, JANUARY_START, JANUARY_END, 3L, SummaryDto::new);
+        SummaryDto atNextVersion = cache.get(1L, JANUARY_START, JANUARY_END, 4L, SummaryDto::new);
+        SummaryDto again = cache.get(1L, JANUARY_START, JANUARY_END, 4L, SummaryDto::new);
+
+        // Assert
+        assertNotSame(atFirstVersion, atNextVersion);
+        assertSame(atNextVersion, again);
+    }
+
+    /**
+     * Test: A change only drops the entries of the same user whose range covers its date.
+     */
+    @Test
+    public void testInvalidate_onlyCoveringRangesOfSameUser() {
+        // Arrange
+        load(1L, JANUARY_START, JANUARY_END);
+        load(1L, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+        load(2L, JANUARY_START, JANUARY_END);
+        RollupDelta delta = new RollupDelta();
+        delta.add(transaction(1L, LocalDate.of(2024, 1, 15)));
+
+        // Act
+        cache.invalidate(delta);
+        load(1L, JANUARY_START, JANUARY_END);
+        load(1L, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+        load(2L, JANUARY_START, JANUARY_END);
+
+        // Assert
+        assertEquals(4, loads.get()); // only user 1's January summary is recomputed
+    }
+
+    /**
+     * Test: Dates on the range boundaries count as covered.
+     */
+    @Test
+    public void testInvalidate_boundaryDates() {
+        // Arrange
+        load(1L, JANUARY_START, JANUARY_END);
+        RollupDelta delta = new RollupDelta();
+        delta.add(transaction(1L, JANUARY_END));
+
+        // Act
+        cache.invalidate(delta);
+        load(1L, JANUARY_START, JANUARY_END);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Test: A summary cached again after an invalidation is dropped by the next change as well, and a
+     * change only drops the ranges covering one of its dates, not every range between its first and last date.
+     */
+    @Test
+    public void testInvalidate_followsRecachedEntries() {
+        // Arrange
+        SummaryCache direct = new SummaryCache(100, Duration.ofMinutes(5), Runnable::run);
+        LocalDate februaryStart = LocalDate.of(2024, 2, 1);
+        LocalDate februaryEnd = LocalDate.of(2024, 2, 29);
+        RollupDelta delta = new RollupDelta();
+        delta.add(transaction(1L, LocalDate.of(2024, 1, 15)));
+        delta.add(transaction(1L, LocalDate.of(2024, 3, 15)));
+
+        // Act
+        SummaryDto first = direct.get(1L, JANUARY_START, JANUARY_END, SummaryDto::new);
+        SummaryDto february = direct.get(1L, februaryStart, februaryEnd, SummaryDto::new);
+        direct.invalidate(delta);
+        SummaryDto second = direct.get(1L, JANUARY_START, JANUARY_END, SummaryDto::new);
+        direct.invalidate(delta);
+        SummaryDto third = direct.get(1L, JANUARY_START, JANUARY_END, SummaryDto::new);
+
+        // Assert
+        assertNotSame(first, second);
+        assertNotSame(second, third);
+        assertSame(february, direct.get(1L, februaryStart, februaryEnd, SummaryDto::new));
+    }
+
+    /**
+     * Test: A summary computed while the user's entries were invalidated is returned but not stored.
+     */
+    @Test
+    public void testGet_invalidatedDuringLoadIsNotStored() {
+        // Arrange
+        RollupDelta delta = new RollupDelta();
+        delta.add(transaction(1L, LocalDate.of(2024, 1, 15)));
+
+        // Act
+        cache.get(1L, JANUARY_START, JANUARY_END, () -> {
+            loads.incrementAndGet();
+            cache.invalidate(delta);
+            return new SummaryDto();
+        });
+        load(1L, JANUARY_START, JANUARY_END);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Test: Listeners receive the range of changed dates per user.
+     */
+    @Test
+    public void testInvalidate_notifiesListenersPerUser() {
+        // Arrange
+        List<String> notified = new ArrayList<>();
+        cache.addListener((userId, from, to) -> notified.add(userId + ":" + from + ".." + to));
+        RollupDelta delta = new RollupDelta();
+        delta.add(transaction(1L, LocalDate.of(2024, 1, 20)));
+        delta.add(transaction(1L, LocalDate.of(2024, 1, 5)));
+
+        // Act
+        cache.invalidate(delta);
+        cache.invalidateUser(2L);
+
+        // Assert
+        assertEquals(List.of("1:2024-01-05..2024-01-20", "2:null..null"), notified);
+    }
+
+    /**
+     * Test: Exceeding the maximum size evicts entries and counts the evictions.
+     */
+    @Test
+    public void testStats_countsEvictions() {
+        // Arrange
+        SummaryCache small = new SummaryCache(2, Duration.ofMinutes(5), Runnable::run);
+
+        // Act
+        for (long userId = 1; userId <= 10; userId++) {
+            small.get(userId, JANUARY_START, JANUARY_END, SummaryDto::new);
+        }
+
+        // Assert
+        assertTrue(small.size() <= 2);
+        assertEquals(8, small.stats().evictionCount());
+    }
+
+    private SummaryDto load(Long userId, LocalDate start, LocalDate end) {
+        return cache.get(userId, start, end, () -> {
+            loads.incrementAndGet();
+            return new SummaryDto();
+        });
+    }
+
+    private static Transaction transaction(Long userId, LocalDate date) {
+        User user = new User();
+        user.setId(userId);
+        Transaction t = new Transaction();
+        t.setUser(user);
+        t.setAmount(new BigDecimal("10.00"));
+        t.setType(TransactionType.EXPENSE);
+        t.setTransactionDate(date);
+        return t;
+    }
+}
@@ -0,0 +1,104 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SummaryStreamServiceImpl: which committed changes reach a stream, and how often.
+ * The coalescing window is long enough that flushes only happen when a test calls flush().
+ */
+@ExtendWith(MockitoExtension.class)
+public class SummaryStreamServiceImplTest {
+
+    private static final LocalDate JANUARY_START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate JANUARY_END = LocalDate.of(2024, 1, 31);
+
+    @Mock
+    private TransactionService transactionService;
+
+    private final SummaryCache summaryCache = new SummaryCache(100, Duration.ofMinutes(5));
+    private SummaryStreamServiceImpl streams;
+
+    @BeforeEach
+    public void setUp() {
+        streams = new SummaryStreamServiceImpl(transactionService, summaryCache, Duration.ofHours(1), Duration.ofHours(1),
+                Duration.ofMinutes(30), Duration.ofSeconds(10), Executors.newSingleThreadScheduledExecutor(),
+                Executors.newSingleThreadExecutor());
+        when(transactionService.getSummary(anyLong(), any(), any())).thenAnswer(invocation -> new SummaryDto());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        streams.close();
+    }
+
+    /**
+     * Test: Many changes within one window recompute each affected stream's summary once.
+     */
+    @Test
+    public void testFlush_coalescesChanges() {
+        // Arrange
+        streams.subscribe(1L, JANUARY_START, JANUARY_END);
+        streams.subscribe(1L, JANUARY_START, JANUARY_END);
+
+        // Act
+        for (int i = 0; i < 1_000; i++) {
+            streams.summariesChanged(1L, JANUARY_START.plusDays(i % 31), JANUARY_START.plusDays(i % 31));
+        }
+        streams.flush();
+        streams.flush();
+
+        // Assert
+        assertEquals(2, streams.openStreams());
+        verify(transactionService, times(4)).getSummary(1L, JANUARY_START, JANUARY_END); // initial + one push each
+    }
+
+    /**
+     * Test: Changes of other users or outside the streamed period are not pushed.
+     */
+    @Test
+    public void testFlush_onlyOverlappingPeriodsOfSameUser() {
+        // Arrange
+        streams.subscribe(1L, JANUARY_START, JANUARY_END);
+
+        // Act
+        streams.summariesChanged(1L, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 10));
+        streams.summariesChanged(2L, JANUARY_START, JANUARY_END);
+        streams.flush();
+
+        // Assert
+        verify(transactionService, times(1)).getSummary(1L, JANUARY_START, JANUARY_END);
+        verify(transactionService, never()).getSummary(eq(2L), any(), any());
+    }
+
+    /**
+     * Test: Committed writes reach the stream through the summary cache; a change of every date
+     * (e.g. a category rename) covers any period.
+     */
+    @Test
+    public void testSummaryCacheInvalidation_reachesStream() {
+        // Arrange
+        streams.subscribe(1L, JANUARY_START, JANUARY_END);
+
+        // Act
+        summaryCache.invalidateUser(1L);
+        streams.flush();
+
+        // Assert
+        verify(transactionService, times(2)).getSummary(1L, JANUARY_START, JANUARY_END);
+    }
+}
@@ -0,0 +1,173 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.dto.TransactionBatchResultDto;
+import com.smartbudget.dto.TransactionBatchRowResultDto;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.entity.UserChangeVersion;
+import com.smartbudget.support.ServiceJpaTest;
+import com.smartbudget.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for bulk transaction ingestion against the real JPA layer (embedded H2).
+ */
+@ServiceJpaTest
+public class TransactionBatchTest {
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private User otherUser;
+    private Category food;
+    private Category foreignCategory;
+
+    @BeforeEach
+    public void setUp() {
+        user = persistUser("batch-user");
+        otherUser = persistUser("other-user");
+        food = persistCategory(user, "Food");
+        foreignCategory = persistCategory(otherUser, "Hidden");
+        // the user has written before: its change counter exists, so writes need not lock the user row
+        entityManager.persist(new UserChangeVersion(null, user.getId(), 1L));
+        entityManager.flush();
+    }
+
+    /**
+     * Test: Valid rows are created with JDBC batching, lookups run once per batch.
+     */
+    @Test
+    public void testSaveBatch_batchesInsertsAndLookups() {
+        // Arrange
+        List<TransactionDto> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add(dto(user.getId(), food.getId(), "10.00", LocalDate.of(2024, 1, 1).plusDays(i % 30)));
+        }
+        SqlStatementCounter.reset();
+
+        // Act
+        TransactionBatchResultDto result = transactionService.saveBatch(rows);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(120, result.getCreated());
+        assertEquals(0, result.getRejected());
+        assertTrue(result.getRows().stream().allMatch(r -> r.getId() != null));
+        List<String> statements = SqlStatementCounter.statements();
+        // ids come from the pooled sequence, 50 per round-trip (plus a block left over by earlier inserts)
+        assertTrue(count(statements, "nextval('transactions_id_seq')") <= 4, () -> "Statements: " + statements);
+        // one prepared INSERT reused for all JDBC batches instead of one per row
+        assertEquals(1, count(statements, "insert into public.transactions"));
+        // the new rollup keys are upserted in one JDBC batch (MERGE on H2)
+        assertEquals(1, count(statements, "merge into transaction_daily_rollups"));
+        assertEquals(0, count(statements, "update public.transaction_daily_rollups"));
+        // ownership is resolved once per batch
+        assertEquals(1, count(statements, "from public.users"));
+        assertEquals(1, count(statements, "from public.categories"));
+
+        SummaryDto summary = transactionService.getSummary(user.getId(), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+        assertEquals(new BigDecimal("1200.00"), summary.getTotalExpense());
+
+        // a second import of the same days updates the locked rollup rows in place
+        SqlStatementCounter.reset();
+        transactionService.saveBatch(rows);
+        entityManager.flush();
+        assertEquals(0, count(SqlStatementCounter.statements(), "merge into transaction_daily_rollups"));
+        summary = transactionService.getSummary(user.getId(), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+        assertEquals(new BigDecimal("2400.00"), summary.getTotalExpense());
+    }
+
+    /**
+     * Test: Invalid rows are reported individually and do not block valid ones.
+     */
+    @Test
+    public void testSaveBatch_reportsRejectedRows() {
+        // Arrange
+        List<TransactionDto> rows = List.of(
+                dto(user.getId(), food.getId(), "10.00", LocalDate.of(2024, 1, 1)),
+                dto(user.getId(), foreignCategory.getId(), "10.00", LocalDate.of(2024, 1, 1)),
+                dto(999L, null, "10.00", LocalDate.of(2024, 1, 1)),
+                dto(user.getId(), null, "-5.00", LocalDate.of(2024, 1, 1)));
+
+        // Act
+        TransactionBatchResultDto result = transactionService.saveBatch(rows);
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals(3, result.getRejected());
+        assertEquals(TransactionBatchRowResultDto.Status.CREATED, result.getRows().get(0).getStatus());
+        assertEquals("Category not found with id=" + foreignCategory.getId(), result.getRows().get(1).getError());
+        assertEquals("User not found with id=999", result.getRows().get(2).getError());
+        assertEquals("amount: Amount must be positive", result.getRows().get(3).getError());
+    }
+
+    /**
+     * Test: A null row is rejected on its own instead of failing the whole batch.
+     */
+    @Test
+    public void testSaveBatch_rejectsNullRows() {
+        // Arrange
+        List<TransactionDto> rows = new ArrayList<>();
+        rows.add(null);
+        rows.add(dto(user.getId(), food.getId(), "10.00", LocalDate.of(2024, 1, 1)));
+
+        // Act
+        TransactionBatchResultDto result = transactionService.saveBatch(rows);
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getRejected());
+        assertEquals(TransactionBatchRowResultDto.Status.REJECTED, result.getRows().get(0).getStatus());
+        assertEquals("Transaction must not be null", result.getRows().get(0).getError());
+        assertEquals(TransactionBatchRowResultDto.Status.CREATED, result.getRows().get(1).getStatus());
+    }
+
+    private static long count(List<String> statements, String fragment) {
+        return statements.stream().filter(sql -> sql.toLowerCase().contains(fragment)).count();
+    }
+
+    private TransactionDto dto(Long userId, Long categoryId, String amount, LocalDate date) {
+        TransactionDto dto = new TransactionDto();
+        dto.setUserId(userId);
+        dto.setCategoryId(categoryId);
+        dto.setAmount(new BigDecimal(amount));
+        dto.setType(TransactionType.EXPENSE);
+        dto.setTransactionDate(date);
+        return dto;
+    }
+
+    private User persistUser(String username) {
+        User u = new User();
+        u.setUsername(username);
+        u.setEmail(username + "@example.com");
+        u.setPasswordHash("hashed_password");
+        entityManager.persist(u);
+        return u;
+    }
+
+    private Category persistCategory(User owner, String name) {
+        Category category = new Category();
+        category.setUser(owner);
+        category.setName(name);
+        category.setType(TransactionType.EXPENSE);
+        entityManager.persist(category);
+        return category;
+    }
+}
@@ -0,0 +1,146 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.dto.TransactionBulkRequestDto;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.exception.BadRequestException;
+import com.smartbudget.support.ServiceJpaTest;
+import com.smartbudget.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for bulk soft-delete and restore against the real JPA layer (embedded H2).
+ */
+@ServiceJpaTest
+public class TransactionBulkDeleteTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private User otherUser;
+    private Category food;
+    private Category rent;
+
+    @BeforeEach
+    public void setUp() {
+        user = persistUser("bulk-user");
+        otherUser = persistUser("other-bulk-user");
+        food = persistCategory("Food");
+        rent = persistCategory("Rent");
+        entityManager.flush();
+    }
+
+    /**
+     * Test: A date-range delete is one UPDATE plus one grouped SELECT, and the summary drops the rows.
+     */
+    @Test
+    public void testDeleteBulk_byFilter() {
+        // Arrange
+        for (int day = 0; day < 60; day++) {
+            transactionService.save(dto(user, day % 2 == 0 ? food : rent, "10.00", START.plusDays(day)));
+        }
+        entityManager.flush();
+
+        // Act
+        SqlStatementCounter.reset();
+        int affected = transactionService.deleteBulk(
+                new TransactionBulkRequestDto(user.getId(), null, START, START.plusDays(29), food.getId())).getAffected();
+        List<String> statements = SqlStatementCounter.statements();
+
+        // Assert
+        assertEquals(15, affected);
+        assertEquals(1, statements.stream().filter(sql -> sql.startsWith("update public.transactions ")).count(),
+                () -> "Statements: " + statements);
+        assertEquals(1, statements.stream().filter(sql -> sql.startsWith("select") && sql.contains(" from public.transactions ")).count(),
+                () -> "Statements: " + statements);
+        SummaryDto summary = transactionService.getSummary(user.getId(), START, END);
+        assertEquals(new BigDecimal("450.00"), summary.getTotalExpense()); // 60 rows of 10.00, 15 deleted
+        assertEquals(new BigDecimal("150.00"), summary.getCategoryBreakdown().get("Food"));
+    }
+
+    /**
+     * Test: Deleting by ids skips other users' rows and already deleted rows; restoring brings the totals back.
+     */
+    @Test
+    public void testDeleteAndRestoreBulk_byIds() {
+        // Arrange
+        TransactionDto first = transactionService.save(dto(user, food, "10.00", START));
+        TransactionDto second = transactionService.save(dto(user, rent, "20.00", START.plusDays(1)));
+        TransactionDto foreign = transactionService.save(dto(otherUser, null, "30.00", START));
+        transactionService.delete(second.getId());
+        List<Long> ids = List.of(first.getId(), second.getId(), foreign.getId());
+
+        // Act
+        int deleted = transactionService.deleteBulk(new TransactionBulkRequestDto(user.getId(), ids, null, null, null)).getAffected();
+        SummaryDto afterDelete = transactionService.getSummary(user.getId(), START, END);
+        int restored = transactionService.restoreBulk(new TransactionBulkRequestDto(user.getId(), ids, null, null, null)).getAffected();
+        SummaryDto afterRestore = transactionService.getSummary(user.getId(), START, END);
+
+        // Assert
+        assertEquals(1, deleted);
+        assertEquals(new BigDecimal("0.00"), afterDelete.getTotalExpense());
+        assertEquals(2, restored);
+        assertEquals(new BigDecimal("30.00"), afterRestore.getTotalExpense());
+        assertEquals(new BigDecimal("30.00"), transactionService.getSummary(otherUser.getId(), START, END).getTotalExpense());
+    }
+
+    /**
+     * Test: A selection needs either ids or a complete date range.
+     */
+    @Test
+    public void testDeleteBulk_invalidSelection() {
+        assertThrows(BadRequestException.class, () -> transactionService.deleteBulk(
+                new TransactionBulkRequestDto(user.getId(), null, START, null, null)));
+        assertThrows(BadRequestException.class, () -> transactionService.deleteBulk(
+                new TransactionBulkRequestDto(user.getId(), List.of(1L), START, END, null)));
+        assertThrows(BadRequestException.class, () -> transactionService.deleteBulk(
+                new TransactionBulkRequestDto(user.getId(), null, END, START, null)));
+    }
+
+    private TransactionDto dto(User owner, Category category, String amount, LocalDate date) {
+        TransactionDto dto = new TransactionDto();
+        dto.setUserId(owner.getId());
+        dto.setCategoryId(category != null ? category.getId() : null);
+        dto.setAmount(new BigDecimal(amount));
+        dto.setType(TransactionType.EXPENSE);
+        dto.setTransactionDate(date);
+        return dto;
+    }
+
+    private User persistUser(String username) {
+        User u = new User();
+        u.setUsername(username);
+        u.setEmail(username + "@example.com");
+        u.setPasswordHash("hashed_password");
+        entityManager.persist(u);
+        return u;
+    }
+
+    private Category persistCategory(String name) {
+        Category category = new Category();
+        category.setUser(user);
+        category.setName(name);
+        category.setType(TransactionType.EXPENSE);
+        entityManager.persist(category);
+        return category;
+    }
+}
@@ -0,0 +1,111 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.service.ExportFormat;
+import com.smartbudget.support.ServiceJpaTest;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the streaming export against the real JPA layer (embedded H2).
+ */
+@ServiceJpaTest
+public class TransactionExportServiceImplTest {
+
+    @Autowired
+    private TransactionExportServiceImpl exportService;
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        user = new User();
+        user.setUsername("export-user");
+        user.setEmail("export@example.com");
+        user.setPasswordHash("hashed_password");
+        entityManager.persist(user);
+
+        Category food = new Category();
+        food.setUser(user);
+        food.setName("Food");
+        food.setType(TransactionType.EXPENSE);
+        entityManager.persist(food);
+
+        save(food.getId(), "12.50", LocalDate.of(2024, 3, 1), "Lunch, with \"friends\"");
+        save(null, "99.99", LocalDate.of(2024, 3, 2), "Misc");
+        TransactionDto deleted = save(food.getId(), "5.00", LocalDate.of(2024, 3, 3), "Removed");
+        transactionService.delete(deleted.getId());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Test: CSV export writes a header and one escaped line per non-deleted transaction.
+     */
+    @Test
+    public void testExportCsv() throws Exception {
+        // Act
+        String csv = export(ExportFormat.CSV);
+
+        // Assert
+        String[] lines = csv.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,transaction_date,type,amount,category_id,category_name,description,notes", lines[0]);
+        assertTrue(lines[1].matches("\\d+,2024-03-02,EXPENSE,99.99,,,Misc,"), lines[1]);
+        assertTrue(lines[2].endsWith(",2024-03-01,EXPENSE,12.50," + lines[2].split(",")[4] + ",Food,\"Lunch, with \"\"friends\"\"\","), lines[2]);
+    }
+
+    /**
+     * Test: NDJSON export writes one JSON object per line and detaches every exported row.
+     */
+    @Test
+    public void testExportNdjson_detachesRows() throws Exception {
+        // Act
+        String ndjson = export(ExportFormat.NDJSON);
+
+        // Assert
+        String[] lines = ndjson.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"transactionDate\":\"2024-03-02\""), lines[0]);
+        assertTrue(lines[1].contains("\"categoryName\":\"Food\""), lines[1]);
+        // only the shared category may stay managed, no transaction rows
+        int managed = entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities();
+        assertTrue(managed <= 1, "managed entities: " + managed);
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportByUserId(user.getId(), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private TransactionDto save(Long categoryId, String amount, LocalDate date, String description) {
+        TransactionDto dto = new TransactionDto();
+        dto.setUserId(user.getId());
+        dto.setCategoryId(categoryId);
+        dto.setAmount(new BigDecimal(amount));
+        dto.setType(TransactionType.EXPENSE);
+        dto.setTransactionDate(date);
+        dto.setDescription(description);
+        return transactionService.save(dto);
+    }
+}
@@ -0,0 +1,102 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.dto.TransactionPageDto;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.support.ServiceJpaTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for keyset pagination against the real JPA layer (embedded H2).
+ */
+@ServiceJpaTest
+public class TransactionPaginationTest {
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        user = new User();
+        user.setUsername("paging-user");
+        user.setEmail("paging@example.com");
+        user.setPasswordHash("hashed_password");
+        entityManager.persist(user);
+
+        // 25 transactions over 10 days, several per day so the id tie-breaker matters
+        for (int i = 0; i < 25; i++) {
+            TransactionDto dto = new TransactionDto();
+            dto.setUserId(user.getId());
+            dto.setAmount(new BigDecimal("1.00").add(BigDecimal.valueOf(i)));
+            dto.setType(TransactionType.EXPENSE);
+            dto.setTransactionDate(LocalDate.of(2024, 5, 1).plusDays(i % 10));
+            transactionService.save(dto);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Test: Walking all pages returns every row exactly once, newest first.
+     */
+    @Test
+    public void testPages_coverAllRowsInOrder() {
+        // Act
+        List<TransactionDto> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPageDto page = transactionService.findPageByUserId(user.getId(), cursor, 7);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(4, pages);
+        assertEquals(25, all.size());
+        assertEquals(25, all.stream().map(TransactionDto::getId).distinct().count());
+        for (int i = 1; i < all.size(); i++) {
+            TransactionDto previous = all.get(i - 1);
+            TransactionDto current = all.get(i);
+            int byDate = current.getTransactionDate().compareTo(previous.getTransactionDate());
+            assertTrue(byDate < 0 || (byDate == 0 && current.getId() < previous.getId()));
+        }
+    }
+
+    /**
+     * Test: Date range pages only contain rows inside the range.
+     */
+    @Test
+    public void testRangePages_respectRange() {
+        // Arrange
+        LocalDate start = LocalDate.of(2024, 5, 3);
+        LocalDate end = LocalDate.of(2024, 5, 4);
+
+        // Act
+        TransactionPageDto first = transactionService.findPageByUserIdAndDateRange(user.getId(), start, end, null, 4);
+        TransactionPageDto second = transactionService.findPageByUserIdAndDateRange(user.getId(), start, end, first.getNextCursor(), 4);
+
+        // Assert
+        assertEquals(4, first.getItems().size());
+        assertEquals(2, second.getItems().size());
+        assertNull(second.getNextCursor());
+        second.getItems().forEach(t -> assertFalse(t.getTransactionDate().isBefore(start) || t.getTransactionDate().isAfter(end)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.service.impl.TransactionPartitionMaintenance.Interval;
+import com.smartbudget.service.impl.TransactionPartitionMaintenance.Partition;
+import com.smartbudget.service.impl.TransactionPartitionMaintenance.Plan;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the partition planning of TransactionPartitionMaintenance.
+ */
+public class TransactionPartitionMaintenanceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 11, 20);
+
+    /**
+     * Test: Monthly partitions are planned for the current month and the premade ones after it.
+     */
+    @Test
+    public void testPlan_createsCurrentAndPremadeMonths() {
+        // Act
+        Plan plan = TransactionPartitionMaintenance.plan(List.of(), TODAY, Interval.MONTH, 2, null);
+
+        // Assert
+        assertEquals(List.of("transactions_m2026_11", "transactions_m2026_12", "transactions_m2027_01"), names(plan.create()));
+        assertEquals(LocalDate.of(2027, 1, 1), plan.create().get(2).from());
+        assertEquals(LocalDate.of(2027, 2, 1), plan.create().get(2).to());
+        assertTrue(plan.detach().isEmpty());
+    }
+
+    /**
+     * Test: Months already covered by a yearly partition of the migration are skipped.
+     */
+    @Test
+    public void testPlan_skipsRangesCoveredByExistingPartitions() {
+        // Arrange
+        List<Partition> existing = List.of(
+                new Partition("transactions_y2026", LocalDate.of(2026, 1, 1), LocalDate.of(2027, 1, 1)),
+                new Partition("transactions_m2027_01", LocalDate.of(2027, 1, 1), LocalDate.of(2027, 2, 1)));
+
+        // Act
+        Plan plan = TransactionPartitionMaintenance.plan(existing, TODAY, Interval.MONTH, 3, null);
+
+        // Assert
+        assertEquals(List.of("transactions_m2027_02"), names(plan.create()));
+    }
+
+    /**
+     * Test: Yearly partitions are named by year.
+     */
+    @Test
+    public void testPlan_yearlyInterval() {
+        // Act
+        Plan plan = TransactionPartitionMaintenance.plan(List.of(), TODAY, Interval.YEAR, 1, null);
+
+        // Assert
+        assertEquals(List.of("transactions_y2026", "transactions_y2027"), names(plan.create()));
+    }
+
+    /**
+     * Test: Only partitions that ended on or before the retention cutoff are detached.
+     */
+    @Test
+    public void testPlan_detachesPartitionsBeforeCutoff() {
+        // Arrange
+        List<Partition> existing = List.of(
+                new Partition("transactions_y2015", LocalDate.of(2015, 1, 1), LocalDate.of(2016, 1, 1)),
+                new Partition("transactions_y2016", LocalDate.of(2016, 1, 1), LocalDate.of(2017, 1, 1)),
+                new Partition("transactions_y2026", LocalDate.of(2026, 1, 1), LocalDate.of(2027, 1, 1)));
+
+        // Act
+        Plan plan = TransactionPartitionMaintenance.plan(existing, TODAY, Interval.YEAR, 0, Period.ofYears(10));
+
+        // Assert
+        assertEquals(List.of("transactions_y2015"), names(plan.detach()));
+        assertTrue(plan.create().isEmpty());
+    }
+
+    private static List<String> names(List<Partition> partitions) {
+        return partitions.stream().map(Partition::name).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,80 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.Transaction;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.repository.TransactionDailyRollupRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransactionRollupUpdater using JUnit 5 and Mockito.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TransactionRollupUpdaterTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2024, 5, 1);
+    private static final LocalDate MAY_2 = LocalDate.of(2024, 5, 2);
+
+    @Mock
+    private TransactionDailyRollupRepository rollupRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private TransactionRollupUpdater rollupUpdater;
+
+    /**
+     * Test: Rollup keys are updated in user, date and category order whatever order the changes were made in,
+     * so that two writers touching the same keys lock them in the same order.
+     */
+    @Test
+    public void testApply_updatesKeysInLockOrder() {
+        // Arrange
+        RollupDelta delta = new RollupDelta();
+        delta.add(transaction(2L, MAY_1, 5L));
+        delta.add(transaction(1L, MAY_2, 5L));
+        delta.add(transaction(1L, MAY_1, 7L));
+        delta.add(transaction(1L, MAY_1, null));
+        when(rollupRepository.addToRollup(anyLong(), any(), any(), any(), any(), anyLong())).thenReturn(1);
+
+        // Act
+        rollupUpdater.apply(delta);
+
+        // Assert
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).addToRollup(eq(1L), eq(MAY_1), isNull(), any(), any(), anyLong());
+        inOrder.verify(rollupRepository).addToRollup(eq(1L), eq(MAY_1), eq(7L), any(), any(), anyLong());
+        inOrder.verify(rollupRepository).addToRollup(eq(1L), eq(MAY_2), eq(5L), any(), any(), anyLong());
+        inOrder.verify(rollupRepository).addToRollup(eq(2L), eq(MAY_1), eq(5L), any(), any(), anyLong());
+    }
+
+    private static Transaction transaction(Long userId, LocalDate date, Long categoryId) {
+        User user = new User();
+        user.setId(userId);
+        Transaction t = new Transaction();
+        t.setUser(user);
+        if (categoryId != null) {
+            Category category = new Category();
+            category.setId(categoryId);
+            t.setCategory(category);
+        }
+        t.setAmount(new BigDecimal("10.00"));
+        t.setType(TransactionType.EXPENSE);
+        t.setTransactionDate(date);
+        return t;
+    }
+}
@@ -0,0 +1,97 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.entity.TransactionDailyRollup;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.repository.TransactionDailyRollupRepository;
+import com.smartbudget.support.ServiceJpaTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the one-row-per-key rollups against the real JPA layer (embedded H2).
+ */
+@ServiceJpaTest
+public class TransactionRollupUpsertTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private TransactionRollupUpdater rollupUpdater;
+
+    @Autowired
+    private TransactionDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Test: A writer that found no row for a key, while another writer inserted it, adds to that row
+     * instead of inserting a second one; uncategorized keys included.
+     */
+    @Test
+    public void testUpsert_addsToRowInsertedConcurrently() {
+        // Arrange
+        RollupDelta.Key uncategorized = new RollupDelta.Key(7L, DAY, null, TransactionType.EXPENSE);
+        RollupDelta.Key categorized = new RollupDelta.Key(7L, DAY, 3L, TransactionType.EXPENSE);
+        rollupRepository.saveAndFlush(new TransactionDailyRollup(null, 7L, DAY, null, TransactionType.EXPENSE, new BigDecimal("10.00"), 1L));
+
+        // Act
+        rollupUpdater.upsert(List.of(
+                Map.entry(uncategorized, new RollupDelta.Change(new BigDecimal("5.00"), 1)),
+                Map.entry(categorized, new RollupDelta.Change(new BigDecimal("2.00"), 1))));
+
+        // Assert
+        entityManager.clear();
+        List<TransactionDailyRollup> rows = rollupRepository.findAll();
+        assertEquals(2, rows.size());
+        TransactionDailyRollup row = rows.stream().filter(r -> r.getCategoryId() == null).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("15.00").compareTo(row.getAmount()));
+        assertEquals(2L, row.getTransactionCount());
+    }
+
+    /**
+     * Test: The bulk path locks a user's rows in the order the single-key path updates keys.
+     */
+    @Test
+    public void testFindForUpdate_locksInKeyOrder() {
+        // Arrange
+        rollupRepository.saveAll(List.of(
+                new TransactionDailyRollup(null, 7L, DAY.plusDays(1), null, TransactionType.EXPENSE, BigDecimal.ONE, 1L),
+                new TransactionDailyRollup(null, 7L, DAY, 3L, TransactionType.INCOME, BigDecimal.ONE, 1L),
+                new TransactionDailyRollup(null, 7L, DAY, 3L, TransactionType.EXPENSE, BigDecimal.ONE, 1L),
+                new TransactionDailyRollup(null, 7L, DAY, null, TransactionType.INCOME, BigDecimal.ONE, 1L)));
+        rollupRepository.flush();
+        entityManager.clear();
+
+        // Act
+        List<RollupDelta.Key> locked = rollupRepository.findForUpdate(7L, DAY, DAY.plusDays(1)).stream()
+                .map(r -> new RollupDelta.Key(r.getUserId(), r.getRollupDate(), r.getCategoryId(), r.getType()))
+                .toList();
+
+        // Assert
+        assertEquals(locked.stream().sorted(TransactionRollupUpdater.LOCK_ORDER).toList(), locked);
+        assertNull(locked.get(0).categoryId());
+    }
+
+    /**
+     * Test: The unique key rejects a second row for a key, also when the category is null.
+     */
+    @Test
+    public void testUniqueKey_rejectsSecondRow() {
+        // Arrange
+        rollupRepository.saveAndFlush(new TransactionDailyRollup(null, 7L, DAY, null, TransactionType.EXPENSE, BigDecimal.ONE, 1L));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> rollupRepository.saveAndFlush(
+                new TransactionDailyRollup(null, 7L, DAY, null, TransactionType.EXPENSE, BigDecimal.ONE, 1L)));
+    }
+}
@@ -1,26 +1,37 @@
 package com.smartbudget.service.impl;
 
 import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.dto.TimeSeriesDto;
 import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.dto.TransactionPageDto;
 import com.smartbudget.entity.Category;
 import com.smartbudget.entity.Transaction;
 import com.smartbudget.entity.TransactionType;
 import com.smartbudget.entity.User;
+import com.smartbudget.exception.BadRequestException;
+import com.smartbudget.exception.ConflictException;
 import com.smartbudget.exception.ResourceNotFoundException;
 import com.smartbudget.repository.CategoryRepository;
+import com.smartbudget.repository.TransactionDailyRollupRepository;
 import com.smartbudget.repository.TransactionRepository;
 import com.smartbudget.repository.UserRepository;
+import com.smartbudget.repository.projection.CategoryTotal;
+import com.smartbudget.repository.projection.DailyTotal;
+import com.smartbudget.repository.projection.TransactionWriteState;
+import com.smartbudget.service.TimeSeriesGranularity;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -46,6 +57,27 @@ public class TransactionServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private TransactionDailyRollupRepository rollupRepository;
+
+    @Mock
+    private TransactionRollupUpdater rollupUpdater;
+
+    @Mock
+    private BudgetTracker budgetTracker;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private SummaryCache summaryCache = new SummaryCache(100, Duration.ofMinutes(5));
+
+    @Mock
+    private ChangeVersionServiceImpl changeVersions;
+
+    @Spy
+    private ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ZERO);
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
@@ -103,13 +135,15 @@ public class TransactionServiceImplTest {
 
     /**
      * Test: Successfully save a new transaction.
-     * Verify that save() correctly maps DTO to Entity and calls repository.save().
+     * Verify that save() checks ownership with one query and persists with references only.
      */
     @Test
     public void testSaveTransaction_success() {
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+        testTransactionDto.setId(null);
+        when(categoryRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+        when(entityManager.getReference(User.class, 1L)).thenReturn(testUser);
+        when(entityManager.getReference(Category.class, 1L)).thenReturn(testCategory);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
 
         // Act
@@ -122,10 +156,69 @@ public class TransactionServiceImplTest {
         assertEquals(TransactionType.EXPENSE, result.getType());
         assertEquals("Grocery shopping", result.getDescription());
 
-        // Verify repository interactions
-        verify(userRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).findById(1L);
+        // Verify repository interactions: the user and category rows are never loaded
+        verify(categoryRepository, times(1)).existsByIdAndUserId(1L, 1L);
+        verify(userRepository, never()).findById(any());
+        verify(categoryRepository, never()).findById(any());
         verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(rollupUpdater, times(1)).apply(any(RollupDelta.class));
+    }
+
+    /**
+     * Test: Updating a transaction runs one versioned UPDATE and moves its rollup contribution to the new key.
+     * The old (date, amount) contribution is subtracted and the new one added.
+     */
+    @Test
+    public void testSaveTransaction_updateMovesRollupContribution() {
+        // Arrange
+        LocalDate oldDate = LocalDate.of(2024, 1, 10);
+        LocalDate newDate = LocalDate.of(2024, 2, 5);
+        testTransactionDto.setTransactionDate(newDate);
+        testTransactionDto.setAmount(new BigDecimal("80.00"));
+
+        when(transactionRepository.findWriteStateById(1L, 1L, 1L)).thenReturn(Optional.of(new TransactionWriteState(
+                1L, 1L, new BigDecimal("50.00"), TransactionType.EXPENSE, oldDate, false, 3L, 1L)));
+        when(entityManager.getReference(User.class, 1L)).thenReturn(testUser);
+        when(entityManager.getReference(Category.class, 1L)).thenReturn(testCategory);
+        when(transactionRepository.updateIfVersion(eq(1L), eq(3L), eq(testUser), eq(testCategory), eq(new BigDecimal("80.00")),
+                eq(TransactionType.EXPENSE), any(), any(), eq(newDate), any(), any())).thenReturn(1);
+
+        // Act
+        TransactionDto result = transactionService.save(testTransactionDto);
+
+        // Assert
+        assertEquals(1L, result.getId());
+        assertEquals(new BigDecimal("80.00"), result.getAmount());
+        verify(transactionRepository, never()).findById(any());
+        verify(transactionRepository, never()).save(any());
+
+        ArgumentCaptor<RollupDelta> captor = ArgumentCaptor.forClass(RollupDelta.class);
+        verify(rollupUpdater).apply(captor.capture());
+        RollupDelta delta = captor.getValue();
+        assertEquals(2, delta.getChanges().size());
+        assertEquals(new RollupDelta.Change(new BigDecimal("-50.00"), -1),
+                delta.getChanges().get(new RollupDelta.Key(1L, oldDate, 1L, TransactionType.EXPENSE)));
+        assertEquals(new RollupDelta.Change(new BigDecimal("80.00"), 1),
+                delta.getChanges().get(new RollupDelta.Key(1L, newDate, 1L, TransactionType.EXPENSE)));
+    }
+
+    /**
+     * Test: An update that lost the race against a concurrent one is rejected and changes no rollups.
+     */
+    @Test
+    public void testSaveTransaction_updateConflict() {
+        // Arrange
+        when(transactionRepository.findWriteStateById(1L, 1L, 1L)).thenReturn(Optional.of(new TransactionWriteState(
+                1L, 1L, new BigDecimal("50.00"), TransactionType.EXPENSE, LocalDate.now(), false, 3L, 1L)));
+        when(transactionRepository.updateIfVersion(eq(1L), eq(3L), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> {
+            transactionService.save(testTransactionDto);
+        });
+
+        verify(rollupUpdater, never()).apply(any());
     }
 
     /**
@@ -135,38 +228,40 @@ public class TransactionServiceImplTest {
     @Test
     public void testSaveTransaction_userNotFound() {
         // Arrange
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(categoryRepository.existsByIdAndUserId(1L, 999L)).thenReturn(false);
+        when(userRepository.existsById(999L)).thenReturn(false);
 
+        testTransactionDto.setId(null);
         testTransactionDto.setUserId(999L);
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> {
+        ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class, () -> {
             transactionService.save(testTransactionDto);
         });
 
-        verify(userRepository, times(1)).findById(999L);
+        assertEquals("User not found with id=999", e.getMessage());
         verify(transactionRepository, never()).save(any());
     }
 
     /**
-     * Test: Save transaction fails when category doesn't exist.
+     * Test: Save transaction fails when category doesn't exist or belongs to another user.
      * Expect ResourceNotFoundException to be thrown.
      */
     @Test
     public void testSaveTransaction_categoryNotFound() {
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(categoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(categoryRepository.existsByIdAndUserId(999L, 1L)).thenReturn(false);
+        when(userRepository.existsById(1L)).thenReturn(true);
 
+        testTransactionDto.setId(null);
         testTransactionDto.setCategoryId(999L);
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> {
+        ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class, () -> {
             transactionService.save(testTransactionDto);
         });
 
-        verify(userRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).findById(999L);
+        assertEquals("Category not found with id=999", e.getMessage());
         verify(transactionRepository, never()).save(any());
     }
 
@@ -176,7 +271,7 @@ public class TransactionServiceImplTest {
     @Test
     public void testFindById_success() {
         // Arrange
-        when(transactionRepository.findById(1L)).thenReturn(Optional.of(testTransaction));
+        when(transactionRepository.findDtoById(1L)).thenReturn(Optional.of(testTransactionDto));
 
         // Act
         TransactionDto result = transactionService.findById(1L);
@@ -185,7 +280,8 @@ public class TransactionServiceImplTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals(new BigDecimal("50.00"), result.getAmount());
-        verify(transactionRepository, times(1)).findById(1L);
+        verify(transactionRepository, times(1)).findDtoById(1L);
+        verify(transactionRepository, never()).findById(anyLong());
     }
 
     /**
@@ -194,14 +290,14 @@ public class TransactionServiceImplTest {
     @Test
     public void testFindById_notFound() {
         // Arrange
-        when(transactionRepository.findById(999L)).thenReturn(Optional.empty());
+        when(transactionRepository.findDtoById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
             transactionService.findById(999L);
         });
 
-        verify(transactionRepository, times(1)).findById(999L);
+        verify(transactionRepository, times(1)).findDtoById(999L);
     }
 
     /**
@@ -217,41 +313,15 @@ public class TransactionServiceImplTest {
         BigDecimal totalIncome = new BigDecimal("3000.00");
         BigDecimal totalExpense = new BigDecimal("1500.00");
 
-        when(transactionRepository.sumIncomeByUserAndDateRange(1L, start, end))
-                .thenReturn(totalIncome);
-        when(transactionRepository.sumExpenseByUserAndDateRange(1L, start, end))
-                .thenReturn(totalExpense);
-
-        // Create mock transactions for breakdown
-        Transaction incomeTransaction = new Transaction();
-        incomeTransaction.setId(2L);
-        incomeTransaction.setUser(testUser);
-        incomeTransaction.setCategory(new Category() {{ setName("Salary"); }});
-        incomeTransaction.setAmount(new BigDecimal("3000.00"));
-        incomeTransaction.setType(TransactionType.INCOME);
-        incomeTransaction.setIsDeleted(false);
-
-        Transaction expenseTransaction1 = new Transaction();
-        expenseTransaction1.setId(3L);
-        expenseTransaction1.setUser(testUser);
-        expenseTransaction1.setCategory(new Category() {{ setName("Food"); }});
-        expenseTransaction1.setAmount(new BigDecimal("500.00"));
-        expenseTransaction1.setType(TransactionType.EXPENSE);
-        expenseTransaction1.setIsDeleted(false);
-
-        Transaction expenseTransaction2 = new Transaction();
-        expenseTransaction2.setId(4L);
-        expenseTransaction2.setUser(testUser);
-        expenseTransaction2.setCategory(new Category() {{ setName("Rent"); }});
-        expenseTransaction2.setAmount(new BigDecimal("1000.00"));
-        expenseTransaction2.setType(TransactionType.EXPENSE);
-        expenseTransaction2.setIsDeleted(false);
-
-        List<Transaction> transactions = Arrays.asList(incomeTransaction, expenseTransaction1, expenseTransaction2);
-        Page<Transaction> transactionPage = new PageImpl<>(transactions);
-
-        when(transactionRepository.findByUserIdAndDateRange(eq(1L), eq(start), eq(end), any(Pageable.class)))
-                .thenReturn(transactionPage);
+        // Create aggregated rows for totals and breakdown
+        List<CategoryTotal> rows = Arrays.asList(
+                new CategoryTotal(TransactionType.INCOME, 2L, "Salary", new BigDecimal("3000.00"), 1L),
+                new CategoryTotal(TransactionType.EXPENSE, 1L, "Food", new BigDecimal("400.00"), 2L),
+                new CategoryTotal(TransactionType.EXPENSE, 3L, "Rent", new BigDecimal("1000.00"), 1L),
+                new CategoryTotal(TransactionType.EXPENSE, null, null, new BigDecimal("100.00"), 1L));
+
+        when(rollupRepository.summarizeByUserAndDateRange(1L, start, end))
+                .thenReturn(rows);
 
         // Act
         SummaryDto result = transactionService.getSummary(1L, start, end);
@@ -268,12 +338,63 @@ public class TransactionServiceImplTest {
         // Verify category breakdown
         assertNotNull(result.getCategoryBreakdown());
         assertEquals(new BigDecimal("3000.00"), result.getCategoryBreakdown().get("Salary"));
-        assertEquals(new BigDecimal("500.00"), result.getCategoryBreakdown().get("Food"));
+        assertEquals(new BigDecimal("400.00"), result.getCategoryBreakdown().get("Food"));
         assertEquals(new BigDecimal("1000.00"), result.getCategoryBreakdown().get("Rent"));
 
-        verify(transactionRepository, times(1)).sumIncomeByUserAndDateRange(1L, start, end);
-        verify(transactionRepository, times(1)).sumExpenseByUserAndDateRange(1L, start, end);
-        verify(transactionRepository, times(1)).findByUserIdAndDateRange(1L, start, end, Pageable.unpaged());
+        // Uncategorized amounts count towards totals but not the breakdown
+        assertEquals(3, result.getCategoryBreakdown().size());
+
+        // The summary is served by one rollup query, never from the raw transactions
+        verify(rollupRepository, times(1)).summarizeByUserAndDateRange(1L, start, end);
+        verifyNoInteractions(transactionRepository);
+    }
+
+    /**
+     * Test: Daily rollup totals are folded into zero-filled monthly buckets.
+     */
+    @Test
+    public void testGetTimeSeries_monthlyBucketsZeroFilled() {
+        // Arrange
+        LocalDate start = LocalDate.of(2024, 1, 15);
+        LocalDate end = LocalDate.of(2024, 4, 10);
+        when(rollupRepository.sumByDayAndType(1L, start, end)).thenReturn(List.of(
+                new DailyTotal(LocalDate.of(2024, 1, 20), TransactionType.INCOME, new BigDecimal("3000.00")),
+                new DailyTotal(LocalDate.of(2024, 1, 20), TransactionType.EXPENSE, new BigDecimal("100.00")),
+                new DailyTotal(LocalDate.of(2024, 1, 31), TransactionType.EXPENSE, new BigDecimal("50.00")),
+                new DailyTotal(LocalDate.of(2024, 4, 1), TransactionType.EXPENSE, new BigDecimal("900.00"))));
+
+        // Act
+        TimeSeriesDto result = transactionService.getTimeSeries(1L, start, end, TimeSeriesGranularity.MONTH);
+
+        // Assert
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1),
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 1)), result.getPeriodStarts());
+        BigDecimal zero = new BigDecimal("0.00");
+        assertEquals(List.of(new BigDecimal("3000.00"), zero, zero, zero), result.getIncome());
+        assertEquals(List.of(new BigDecimal("150.00"), zero, zero, new BigDecimal("900.00")), result.getExpense());
+        assertEquals(List.of(new BigDecimal("2850.00"), zero, zero, new BigDecimal("-900.00")), result.getNet());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    /**
+     * Test: Weekly buckets start on Monday; ranges producing too many buckets are rejected.
+     */
+    @Test
+    public void testGetTimeSeries_weeklyBucketsAndLimit() {
+        // Arrange
+        LocalDate start = LocalDate.of(2024, 3, 6); // Wednesday
+        LocalDate end = LocalDate.of(2024, 3, 18);  // Monday
+
+        // Act
+        TimeSeriesDto result = transactionService.getTimeSeries(1L, start, end, TimeSeriesGranularity.WEEK);
+
+        // Assert
+        assertEquals(List.of(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 18)),
+                result.getPeriodStarts());
+        assertThrows(BadRequestException.class, () -> transactionService.getTimeSeries(
+                1L, LocalDate.of(2000, 1, 1), LocalDate.of(2030, 1, 1), TimeSeriesGranularity.DAY));
+        assertThrows(BadRequestException.class, () -> transactionService.getTimeSeries(
+                1L, end, start, TimeSeriesGranularity.DAY));
     }
 
     /**
@@ -298,6 +419,7 @@ public class TransactionServiceImplTest {
         // Verify that save was called (soft-delete sets isDeleted=true)
         verify(transactionRepository, times(1)).findById(1L);
         verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(rollupUpdater, times(1)).apply(any(RollupDelta.class));
     }
 
     /**
@@ -323,8 +445,8 @@ public class TransactionServiceImplTest {
     @Test
     public void testFindAllByUserId_success() {
         // Arrange
-        List<Transaction> transactions = Arrays.asList(testTransaction);
-        when(transactionRepository.findByUserIdAndIsDeletedFalse(1L))
+        List<TransactionDto> transactions = Arrays.asList(testTransactionDto);
+        when(transactionRepository.findDtosByUserId(1L))
                 .thenReturn(transactions);
 
         // Act
@@ -334,6 +456,67 @@ public class TransactionServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(new BigDecimal("50.00"), result.get(0).getAmount());
-        verify(transactionRepository, times(1)).findByUserIdAndIsDeletedFalse(1L);
+        verify(transactionRepository, times(1)).findDtosByUserId(1L);
+    }
+
+    /**
+     * Test: First page fetches one extra row to detect the next page and returns its cursor.
+     */
+    @Test
+    public void testFindPageByUserId_returnsNextCursor() {
+        // Arrange
+        TransactionDto older = new TransactionDto();
+        older.setId(7L);
+        older.setUserId(1L);
+        older.setAmount(new BigDecimal("10.00"));
+        older.setType(TransactionType.EXPENSE);
+        older.setTransactionDate(LocalDate.of(2024, 1, 1));
+
+        when(transactionRepository.findPageByUserId(eq(1L), any(LocalDate.class), eq(Long.MAX_VALUE), eq(PageRequest.of(0, 2))))
+                .thenReturn(Arrays.asList(testTransactionDto, older));
+
+        // Act
+        TransactionPageDto page = transactionService.findPageByUserId(1L, null, 1);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertEquals(1L, page.getItems().get(0).getId());
+        assertNotNull(page.getNextCursor());
+
+        // The cursor points after the last returned row
+        transactionService.findPageByUserId(1L, page.getNextCursor(), 1);
+        verify(transactionRepository).findPageByUserId(1L, testTransactionDto.getTransactionDate(), 1L, PageRequest.of(0, 2));
+    }
+
+    /**
+     * Test: Last page has no next cursor and the page size is capped.
+     */
+    @Test
+    public void testFindPageByUserId_lastPageAndCappedLimit() {
+        // Arrange
+        when(transactionRepository.findPageByUserId(eq(1L), any(LocalDate.class), anyLong(), any(PageRequest.class)))
+                .thenReturn(Arrays.asList(testTransactionDto));
+
+        // Act
+        TransactionPageDto page = transactionService.findPageByUserId(1L, null, 100_000);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        verify(transactionRepository).findPageByUserId(eq(1L), any(LocalDate.class), anyLong(),
+                eq(PageRequest.of(0, TransactionServiceImpl.MAX_PAGE_SIZE + 1)));
+    }
+
+    /**
+     * Test: A malformed cursor is rejected without querying the repository.
+     */
+    @Test
+    public void testFindPageByUserId_invalidCursor() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> {
+            transactionService.findPageByUserId(1L, "not-a-cursor", 10);
+        });
+
+        verifyNoInteractions(transactionRepository);
     }
 }
@@ -0,0 +1,152 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.SummaryDto;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.support.ServiceJpaTest;
+import com.smartbudget.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for getSummary against the real JPA layer (embedded H2).
+ * Verifies the summary is computed with a constant number of SQL statements.
+ */
+@ServiceJpaTest
+public class TransactionSummaryQueryCountTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private Category salary;
+    private Category food;
+    private Category rent;
+
+    @BeforeEach
+    public void setUp() {
+        user = new User();
+        user.setUsername("summary-user");
+        user.setEmail("summary@example.com");
+        user.setPasswordHash("hashed_password");
+        entityManager.persist(user);
+
+        salary = persistCategory("Salary", TransactionType.INCOME);
+        food = persistCategory("Food", TransactionType.EXPENSE);
+        rent = persistCategory("Rent", TransactionType.EXPENSE);
+    }
+
+    /**
+     * Test: Summary totals and breakdown are correct and come from a single statement.
+     */
+    @Test
+    public void testGetSummary_singleStatement() {
+        // Arrange
+        seed(12);
+
+        // Act
+        SummaryDto result = summarize();
+
+        // Assert
+        assertEquals(1, SqlStatementCounter.count(), () -> "Statements: " + SqlStatementCounter.statements());
+        assertEquals(new BigDecimal("36000.00"), result.getTotalIncome());
+        assertEquals(new BigDecimal("17100.00"), result.getTotalExpense()); // 12 * (400 + 1000 + 25)
+        assertEquals(new BigDecimal("18900.00"), result.getNetBalance());
+        assertEquals(new BigDecimal("36000.00"), result.getCategoryBreakdown().get("Salary"));
+        assertEquals(new BigDecimal("4800.00"), result.getCategoryBreakdown().get("Food"));
+        assertEquals(new BigDecimal("12000.00"), result.getCategoryBreakdown().get("Rent"));
+        assertEquals(3, result.getCategoryBreakdown().size());
+    }
+
+    /**
+     * Test: The number of statements does not grow with the number of transactions.
+     */
+    @Test
+    public void testGetSummary_constantStatementsRegardlessOfVolume() {
+        // Arrange
+        seed(1);
+        summarize();
+        int statementsForSmallHistory = SqlStatementCounter.count();
+        seed(11);
+
+        // Act
+        summarize();
+
+        // Assert
+        assertEquals(statementsForSmallHistory, SqlStatementCounter.count());
+    }
+
+    /**
+     * Test: Deleted transactions are excluded and edits move the amount to the new category.
+     */
+    @Test
+    public void testGetSummary_reflectsEditsAndDeletes() {
+        // Arrange
+        TransactionDto lunch = transactionService.save(dto(food, "30.00", TransactionType.EXPENSE, LocalDate.of(2024, 3, 1)));
+        TransactionDto dinner = transactionService.save(dto(food, "70.00", TransactionType.EXPENSE, LocalDate.of(2024, 3, 2)));
+
+        // Act
+        dinner.setCategoryId(rent.getId());
+        dinner.setAmount(new BigDecimal("900.00"));
+        transactionService.save(dinner);
+        transactionService.delete(lunch.getId());
+        SummaryDto result = summarize();
+
+        // Assert
+        assertEquals(new BigDecimal("900.00"), result.getTotalExpense());
+        assertEquals(new BigDecimal("900.00"), result.getCategoryBreakdown().get("Rent"));
+        assertNull(result.getCategoryBreakdown().get("Food"));
+    }
+
+    private SummaryDto summarize() {
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.reset();
+        return transactionService.getSummary(user.getId(), START, END);
+    }
+
+    private void seed(int months) {
+        for (int month = 1; month <= months; month++) {
+            LocalDate date = LocalDate.of(2024, month, 1);
+            transactionService.save(dto(salary, "3000.00", TransactionType.INCOME, date));
+            transactionService.save(dto(food, "150.00", TransactionType.EXPENSE, date.plusDays(3)));
+            transactionService.save(dto(food, "250.00", TransactionType.EXPENSE, date.plusDays(10)));
+            transactionService.save(dto(rent, "1000.00", TransactionType.EXPENSE, date.plusDays(1)));
+            transactionService.save(dto(null, "25.00", TransactionType.EXPENSE, date.plusDays(20)));
+        }
+    }
+
+    private TransactionDto dto(Category category, String amount, TransactionType type, LocalDate date) {
+        TransactionDto dto = new TransactionDto();
+        dto.setUserId(user.getId());
+        dto.setCategoryId(category != null ? category.getId() : null);
+        dto.setAmount(new BigDecimal(amount));
+        dto.setType(type);
+        dto.setTransactionDate(date);
+        return dto;
+    }
+
+    private Category persistCategory(String name, TransactionType type) {
+        Category category = new Category();
+        category.setUser(user);
+        category.setName(name);
+        category.setType(type);
+        entityManager.persist(category);
+        return category;
+    }
+}
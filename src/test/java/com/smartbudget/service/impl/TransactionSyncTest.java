@@ -0,0 +1,187 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.TransactionChangesDto;
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.exception.BadRequestException;
+import com.smartbudget.repository.UserChangeVersionRepository;
+import com.smartbudget.support.ServiceJpaTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for delta sync against the real JPA layer (embedded H2).
+ */
+@ServiceJpaTest
+public class TransactionSyncTest {
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private TransactionSyncServiceImpl sync;
+
+    @Autowired
+    private ChangeVersionServiceImpl changeVersions;
+
+    @Autowired
+    private UserChangeVersionRepository versionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private List<Long> ids;
+
+    @BeforeEach
+    public void setUp() {
+        user = new User();
+        user.setUsername("sync-user");
+        user.setEmail("sync@example.com");
+        user.setPasswordHash("hashed_password");
+        entityManager.persist(user);
+
+        ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TransactionDto dto = new TransactionDto();
+            dto.setUserId(user.getId());
+            dto.setAmount(new BigDecimal("1.00").add(BigDecimal.valueOf(i)));
+            dto.setType(TransactionType.EXPENSE);
+            dto.setTransactionDate(LocalDate.of(2024, 5, 1));
+            ids.add(transactionService.save(dto).getId());
+        }
+        entityManager.flush();
+        // one change version for all rows, so the id tie-breaker matters
+        entityManager.createQuery("UPDATE Transaction t SET t.changeVersion = 1 WHERE t.user.id = :userId")
+                .setParameter("userId", user.getId())
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    /**
+     * Test: Walking all pages of the initial sync returns every row once, in id order for equal versions.
+     */
+    @Test
+    public void testFindChanges_pagesCoverAllRows() {
+        // Act
+        List<Long> seen = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        TransactionChangesDto page;
+        do {
+            page = sync.findChanges(user.getId(), token, 2);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            token = page.getNextToken();
+            pages++;
+        } while (page.isHasMore());
+
+        // Assert
+        assertEquals(3, pages);
+        assertEquals(ids, seen);
+        assertTrue(sync.findChanges(user.getId(), token, 2).getItems().isEmpty());
+    }
+
+    /**
+     * Test: Updates and deletes after a sync are returned by the next one.
+     */
+    @Test
+    public void testFindChanges_returnsUpdatesAndTombstonesAfterToken() {
+        // Arrange
+        String token = sync.findChanges(user.getId(), null, null).getNextToken();
+        TransactionDto updated = transactionService.findById(ids.get(1));
+        updated.setDescription("Renamed");
+        transactionService.save(updated);
+        transactionService.delete(ids.get(3));
+        entityManager.flush();
+
+        // Act
+        TransactionChangesDto changes = sync.findChanges(user.getId(), token, null);
+
+        // Assert
+        assertEquals(List.of(ids.get(1)), changes.getItems().stream().map(TransactionDto::getId).collect(Collectors.toList()));
+        assertEquals("Renamed", changes.getItems().get(0).getDescription());
+        assertEquals(List.of(ids.get(3)), changes.getDeletedIds());
+        assertFalse(changes.isHasMore());
+    }
+
+    /**
+     * Test: A row stamped by a write whose change version is not committed yet, however long that write
+     * has been running, is neither returned nor passed by the token; it is returned once the version is.
+     */
+    @Test
+    public void testFindChanges_waitsForUncommittedVersion() {
+        // Arrange: the running write holds version current + 1, which readers do not see yet
+        String token = sync.findChanges(user.getId(), null, null).getNextToken();
+        long running = versionRepository.sumVersionByUserId(user.getId()) + 1;
+        entityManager.createQuery("UPDATE Transaction t SET t.changeVersion = :version, t.description = 'Late' WHERE t.id = :id")
+                .setParameter("version", running)
+                .setParameter("id", ids.get(2))
+                .executeUpdate();
+
+        // Act
+        TransactionChangesDto pending = sync.findChanges(user.getId(), token, null);
+        assertEquals(running, changeVersions.changed(user.getId()));
+        TransactionChangesDto committed = sync.findChanges(user.getId(), pending.getNextToken(), null);
+
+        // Assert
+        assertTrue(pending.getItems().isEmpty());
+        assertEquals(List.of(ids.get(2)), committed.getItems().stream().map(TransactionDto::getId).collect(Collectors.toList()));
+        assertEquals("Late", committed.getItems().get(0).getDescription());
+    }
+
+    /**
+     * Test: The initial sync reports rows deleted before it as tombstones, not as items.
+     */
+    @Test
+    public void testFindChanges_initialSyncIncludesTombstones() {
+        // Arrange
+        entityManager.createQuery("UPDATE Transaction t SET t.isDeleted = true WHERE t.id = :id")
+                .setParameter("id", ids.get(0))
+                .executeUpdate();
+
+        // Act
+        TransactionChangesDto changes = sync.findChanges(user.getId(), null, null);
+
+        // Assert
+        assertEquals(ids.subList(1, 5), changes.getItems().stream().map(TransactionDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(ids.get(0)), changes.getDeletedIds());
+    }
+
+    /**
+     * Test: A token of the former modification time ordering restarts the sync from the beginning.
+     */
+    @Test
+    public void testFindChanges_restartsFromUpdatedAtToken() {
+        // Arrange
+        String legacy = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2024-05-01T12:00/42".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        TransactionChangesDto changes = sync.findChanges(user.getId(), legacy, null);
+
+        // Assert
+        assertEquals(ids, changes.getItems().stream().map(TransactionDto::getId).collect(Collectors.toList()));
+    }
+
+    /**
+     * Test: Malformed tokens and non-positive limits are rejected.
+     */
+    @Test
+    public void testFindChanges_rejectsInvalidInput() {
+        assertThrows(BadRequestException.class, () -> sync.findChanges(user.getId(), "not-a-token", null));
+        assertThrows(BadRequestException.class, () -> sync.findChanges(user.getId(), null, 0));
+    }
+}
@@ -0,0 +1,145 @@
+package com.smartbudget.service.impl;
+
+import com.smartbudget.dto.TransactionDto;
+import com.smartbudget.entity.Category;
+import com.smartbudget.entity.TransactionType;
+import com.smartbudget.entity.User;
+import com.smartbudget.entity.UserChangeVersion;
+import com.smartbudget.exception.ResourceNotFoundException;
+import com.smartbudget.support.ServiceJpaTest;
+import com.smartbudget.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the statements of single-row writes against the real JPA layer (embedded H2).
+ * Rollup maintenance, budget counters, change versions and id sequence calls are left out; they do not depend on how the write is done.
+ */
+@ServiceJpaTest
+public class TransactionWriteStatementTest {
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private Category food;
+    private Category rent;
+    private Category foreignCategory;
+
+    @BeforeEach
+    public void setUp() {
+        user = persistUser("write-user");
+        food = persistCategory(user, "Food");
+        rent = persistCategory(user, "Rent");
+        foreignCategory = persistCategory(persistUser("other-write-user"), "Hidden");
+        // the user has written before: its change counter exists, so writes need not lock the user row
+        entityManager.persist(new UserChangeVersion(null, user.getId(), 1L));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Test: A create is one ownership check and one INSERT; user and category are never loaded.
+     */
+    @Test
+    public void testCreate_checkAndInsert() {
+        // Act
+        List<String> statements = statementsOf(() -> transactionService.save(dto(null, food, "10.00")));
+
+        // Assert
+        assertEquals(2, statements.size(), () -> "Statements: " + statements);
+        assertTrue(statements.get(0).startsWith("select"), statements.get(0));
+        assertTrue(statements.get(0).contains(" from public.categories "), statements.get(0));
+        assertTrue(statements.get(1).startsWith("insert into public.transactions "), statements.get(1));
+    }
+
+    /**
+     * Test: An update is one SELECT of the persisted state (with the ownership check) and one versioned UPDATE.
+     */
+    @Test
+    public void testUpdate_selectAndVersionedUpdate() {
+        // Arrange
+        TransactionDto created = transactionService.save(dto(null, food, "10.00"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<String> statements = statementsOf(() -> transactionService.save(dto(created.getId(), rent, "25.00")));
+
+        // Assert
+        assertEquals(2, statements.size(), () -> "Statements: " + statements);
+        assertTrue(statements.get(0).startsWith("select"), statements.get(0));
+        assertTrue(statements.get(1).startsWith("update public.transactions "), statements.get(1));
+        assertTrue(statements.get(1).contains("version=?"), statements.get(1));
+
+        TransactionDto reloaded = transactionService.findById(created.getId());
+        assertEquals(rent.getId(), reloaded.getCategoryId());
+        assertEquals(new BigDecimal("25.00"), reloaded.getAmount());
+    }
+
+    /**
+     * Test: Categories of other users are rejected on create and update.
+     */
+    @Test
+    public void testSave_rejectsForeignCategory() {
+        // Arrange
+        TransactionDto created = transactionService.save(dto(null, food, "10.00"));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> transactionService.save(dto(null, foreignCategory, "10.00")));
+        assertThrows(ResourceNotFoundException.class, () -> transactionService.save(dto(created.getId(), foreignCategory, "10.00")));
+    }
+
+    private List<String> statementsOf(Runnable write) {
+        SqlStatementCounter.reset();
+        write.run();
+        entityManager.flush();
+        return SqlStatementCounter.statements().stream()
+                .filter(sql -> !sql.contains("transaction_daily_rollups"))
+                .filter(sql -> !sql.contains("transactions_id_seq"))
+                .filter(sql -> !sql.contains("user_change_versions"))
+                .filter(sql -> !sql.contains("category_budgets"))
+                .collect(Collectors.toList());
+    }
+
+    private TransactionDto dto(Long id, Category category, String amount) {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(id);
+        dto.setUserId(user.getId());
+        dto.setCategoryId(category.getId());
+        dto.setAmount(new BigDecimal(amount));
+        dto.setType(TransactionType.EXPENSE);
+        dto.setTransactionDate(LocalDate.of(2024, 3, 1));
+        return dto;
+    }
+
+    private User persistUser(String username) {
+        User u = new User();
+        u.setUsername(username);
+        u.setEmail(username + "@example.com");
+        u.setPasswordHash("hashed_password");
+        entityManager.persist(u);
+        return u;
+    }
+
+    private Category persistCategory(User owner, String name) {
+        Category category = new Category();
+        category.setUser(owner);
+        category.setName(name);
+        category.setType(TransactionType.EXPENSE);
+        entityManager.persist(category);
+        return category;
+    }
+}
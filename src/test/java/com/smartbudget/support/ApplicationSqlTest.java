@@ -0,0 +1,35 @@
+package com.smartbudget.support;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.annotation.AliasFor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Full application (controllers, services, JPA) on an embedded H2 database, driven through MockMvc.
+ * Every request runs and commits its own transactions like in production, and every SQL statement
+ * is recorded by {@link SqlStatementCounter}; see {@link SqlStatementBudget}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest
+@AutoConfigureMockMvc
+public @interface ApplicationSqlTest {
+
+    @AliasFor(annotation = SpringBootTest.class, attribute = "properties")
+    String[] properties() default {
+            "spring.datasource.url=jdbc:h2:mem:application-sql;DB_CLOSE_DELAY=-1",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.datasource.driver-class-name=",
+            "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "spring.jpa.show-sql=false",
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.smartbudget.support.SqlStatementCounter",
+            // a scheduler run would add its statements to the requests being counted
+            "smartbudget.recurring.enabled=false"
+    };
+}
@@ -0,0 +1,44 @@
+package com.smartbudget.support;
+
+import com.smartbudget.service.impl.BudgetServiceImpl;
+import com.smartbudget.service.impl.BudgetTracker;
+import com.smartbudget.service.impl.CategoryServiceImpl;
+import com.smartbudget.service.impl.ChangeVersionServiceImpl;
+import com.smartbudget.service.impl.ReadYourWrites;
+import com.smartbudget.service.impl.RecurringRuleServiceImpl;
+import com.smartbudget.service.impl.RecurringTransactionMaterializer;
+import com.smartbudget.service.impl.SummaryCache;
+import com.smartbudget.service.impl.TransactionExportServiceImpl;
+import com.smartbudget.service.impl.TransactionRollupUpdater;
+import com.smartbudget.service.impl.TransactionServiceImpl;
+import com.smartbudget.service.impl.TransactionSyncServiceImpl;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.AliasFor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Slice test of the service layer on top of the real JPA layer and an embedded H2 database.
+ * Every SQL statement is recorded by {@link SqlStatementCounter}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest
+@ImportAutoConfiguration({ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Import({TransactionServiceImpl.class, CategoryServiceImpl.class, TransactionRollupUpdater.class, BudgetTracker.class, BudgetServiceImpl.class, SummaryCache.class, ReadYourWrites.class, ChangeVersionServiceImpl.class, TransactionExportServiceImpl.class, TransactionSyncServiceImpl.class, RecurringRuleServiceImpl.class, RecurringTransactionMaterializer.class})
+public @interface ServiceJpaTest {
+
+    @AliasFor(annotation = DataJpaTest.class, attribute = "properties")
+    String[] properties() default {
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.smartbudget.support.SqlStatementCounter",
+            "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+            "spring.jpa.properties.hibernate.order_inserts=true"
+    };
+}
@@ -0,0 +1,37 @@
+package com.smartbudget.support;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Asserts that an operation issues no more than a declared number of SQL statements, as recorded
+ * by {@link SqlStatementCounter}. Writes must reach the database inside the operation (a committed
+ * request or an explicit flush) to be counted.
+ */
+public final class SqlStatementBudget {
+
+    @FunctionalInterface
+    public interface Operation<T> {
+        T run() throws Exception;
+    }
+
+    private SqlStatementBudget() {
+    }
+
+    /**
+     * Run the operation and fail, listing the statements, if it issued more than {@code maxStatements}.
+     *
+     * @return the operation's result
+     */
+    public static <T> T assertWithin(String operation, int maxStatements, Operation<T> call) throws Exception {
+        SqlStatementCounter.reset();
+        T result = call.run();
+        List<String> statements = SqlStatementCounter.statements();
+        if (statements.size() > maxStatements) {
+            fail(operation + " issued " + statements.size() + " SQL statements, budget is " + maxStatements + ":\n  "
+                    + String.join("\n  ", statements));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package com.smartbudget.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hibernate StatementInspector that records every SQL statement prepared by the JPA layer.
+ * Register it with {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.clear();
+    }
+
+    public static int count() {
+        return STATEMENTS.size();
+    }
+
+    public static List<String> statements() {
+        synchronized (STATEMENTS) {
+            return new ArrayList<>(STATEMENTS);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartbudget.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat request handling and the application task executor (@Async methods and streamed
+ * MVC responses such as the exports) on virtual threads. Only compiled by the virtual-threads
+ * Maven profile (Java 21). With request threads no longer bounded, JDBC concurrency is bounded
+ * by a semaphore sized to the connection pool instead.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "smartbudget.threads.virtual", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // ordered ahead of the replica routing, which then wraps the limited primary
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter() {
+        class Limiter implements BeanPostProcessor, Ordered {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    return new ConcurrencyLimitedDataSource(pool, pool.getMaximumPoolSize(),
+                            Duration.ofMillis(pool.getConnectionTimeout()));
+                }
+                return bean;
+            }
+
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE - 1;
+            }
+        }
+        return new Limiter();
+    }
+
+    @Bean
+    public MeterBinder jdbcConcurrencyLimiterMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            ConcurrencyLimitedDataSource limited = DataSourceUnwrapper.unwrap(dataSource.getIfAvailable(), ConcurrencyLimitedDataSource.class);
+            if (limited != null) {
+                limited.bindTo(registry);
+            }
+        };
+    }
+}